@@ -1,6 +1,8 @@
 package com.andnor.tradenet.core.config;
 
 import com.andnor.tradenet.core.model.SymbolInfo;
+import com.andnor.tradenet.core.util.RateBudget;
+import com.andnor.tradenet.domain.exchange.impl.BinanceOrderTransport;
 import com.andnor.tradenet.domain.telegram.service.impl.TelegramBotServiceImpl;
 import com.binance.connector.futures.client.impl.UMFuturesClientImpl;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,8 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
 import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -40,6 +44,32 @@ public class AppConfig {
         return new UMFuturesClientImpl(apiKey, secretKey, "https://testnet.binancefuture.com");
     }
 
+    @Bean
+    public HttpClient binanceHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Bean
+    public BinanceOrderTransport binanceOrderTransport(HttpClient binanceHttpClient) {
+        BinanceOrderTransport transport = new BinanceOrderTransport(
+                binanceHttpClient,
+                binanceConfigProperties.getBaseUrl(),
+                binanceConfigProperties.getKey(),
+                binanceConfigProperties.getSecret(),
+                binanceConfigProperties.getRecvWindow(),
+                binanceConfigProperties.getRequestTimeout(),
+                new RateBudget(binanceConfigProperties.getOrderRateLimit(), binanceConfigProperties.getOrderRateInterval()));
+        try {
+            transport.warmUp();
+        } catch (Exception e) {
+            log.warn("Failed to warm up order transport: {}", e.getMessage());
+        }
+        return transport;
+    }
+
     @Bean
     public Map<String, SymbolInfo> symbolInfoCache(UMFuturesClientImpl client) {
         log.info("Initializing symbolInfoCache bean...");
@@ -5,6 +5,12 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "binance.api")
 @Getter
@@ -12,4 +18,45 @@ import org.springframework.context.annotation.Configuration;
 public class BinanceConfigProperties {
     private String key;
     private String secret;
+    private String baseUrl = "https://fapi.binance.com";
+    private long recvWindow = 2000;
+    private Duration requestTimeout = Duration.ofSeconds(3);
+    private int orderRateLimit = 300;
+    private Duration orderRateInterval = Duration.ofSeconds(10);
+    private Map<String, Account> accounts = new LinkedHashMap<>();
+    private PriceHedging priceHedging = new PriceHedging();
+    private Breaker breaker = new Breaker();
+
+    @Getter
+    @Setter
+    public static class Account {
+        private String key;
+        private String secret;
+    }
+
+    @Getter
+    @Setter
+    public static class PriceHedging {
+        private List<String> mirrorBaseUrls = new ArrayList<>();
+        private Duration initialDelay = Duration.ofMillis(150);
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofMillis(500);
+        private Duration timeout = Duration.ofSeconds(2);
+        private int minSamples = 50;
+        private double demotionFactor = 3.0;
+        private double maxErrorRate = 0.2;
+        private Duration demotionPeriod = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private int windowSize = 20;
+        private int minCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int halfOpenProbes = 1;
+        private Duration rateLimitOpenDuration = Duration.ofSeconds(30);
+        private Duration banOpenDuration = Duration.ofMinutes(2);
+    }
 }
@@ -0,0 +1,150 @@
+package com.andnor.tradenet.core.config;
+
+import com.andnor.tradenet.domain.exchange.model.ExecutionMode;
+import com.andnor.tradenet.domain.exchange.model.FallbackOrderType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "trading")
+@Getter
+@Setter
+public class TradingProperties {
+    private Flatten flatten = new Flatten();
+    private Poll poll = new Poll();
+    private Ticks ticks = new Ticks();
+    private Candles candles = new Candles();
+    private Fees fees = new Fees();
+    private Checkpoint checkpoint = new Checkpoint();
+    private Warmup warmup = new Warmup();
+    private Export export = new Export();
+    private Watchdog watchdog = new Watchdog();
+    private Risk risk = new Risk();
+    private PairSync pairSync = new PairSync();
+    private Execution execution = new Execution();
+    private Tracing tracing = new Tracing();
+
+    @Getter
+    @Setter
+    public static class Flatten {
+        private int maxConcurrentRequests = 20;
+        private Duration timeout = Duration.ofSeconds(10);
+        private Duration threadStopTimeout = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Poll {
+        private Duration minInterval = Duration.ofMillis(100);
+        private Duration maxInterval = Duration.ofSeconds(5);
+        private Duration volatilityWindow = Duration.ofSeconds(60);
+        private double crossingSigmas = 3.0;
+        private int warmUpSamples = 20;
+        private Duration errorBackoffInitial = Duration.ofMillis(250);
+        private Duration errorBackoffMax = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Ticks {
+        private boolean enabled = true;
+        private String directory = "data/ticks";
+        private int ringCapacity = 1 << 16;
+        private int blockSize = 64 * 1024;
+        private int mapChunkSize = 64 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Candles {
+        private int secondCapacity = 3_600;
+        private int minuteCapacity = 1_440;
+        private int fiveMinuteCapacity = 2_016;
+        private int volatilityPeriods = 60;
+        private int atrPeriods = 14;
+    }
+
+    @Getter
+    @Setter
+    public static class Fees {
+        private BigDecimal takerRate = new BigDecimal("0.0005");
+        private BigDecimal makerRate = new BigDecimal("0.0002");
+    }
+
+    @Getter
+    @Setter
+    public static class Checkpoint {
+        private Duration interval = Duration.ofSeconds(5);
+        private Duration maxCatchUpAge = Duration.ofHours(6);
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private int iterations = 1_000;
+        private int databaseIterations = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        private int fetchSize = 1_000;
+        private int maxPoolSize = 2;
+        private Duration statementTimeout = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Watchdog {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofSeconds(1);
+        private Duration maxTickAge = Duration.ofSeconds(15);
+        private Duration maxTickDuration = Duration.ofSeconds(2);
+        private Duration alertCooldown = Duration.ofMinutes(5);
+        private int stackDepth = 25;
+        private boolean restartStalled = false;
+        private Duration restartGracePeriod = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Risk {
+        private BigDecimal maxTotalNotional = BigDecimal.ZERO;
+        private BigDecimal maxNetNotional = BigDecimal.ZERO;
+        private int maxOpenPositions = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class PairSync {
+        private boolean enabled = true;
+        private Duration debounce = Duration.ofMillis(200);
+        private Duration reconnectBackoffMax = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Execution {
+        private ExecutionMode mode = ExecutionMode.MARKET;
+        private FallbackOrderType fallback = FallbackOrderType.IOC;
+        private Duration makerTimeout = Duration.ofSeconds(1);
+        private Duration pollInterval = Duration.ofMillis(100);
+        private BigDecimal maxDriftPercentage = new BigDecimal("0.1");
+        private BigDecimal fallbackSlippagePercentage = new BigDecimal("0.2");
+    }
+
+    @Getter
+    @Setter
+    public static class Tracing {
+        private boolean enabled = true;
+        private int capacity = 512;
+        private int slowCapacity = 128;
+        private Duration slowThreshold = Duration.ofMillis(500);
+        private int maxSpansPerTrace = 256;
+    }
+}
@@ -0,0 +1,118 @@
+package com.andnor.tradenet.core.util;
+
+import java.time.Duration;
+
+public class CircuitBreaker {
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final String name;
+  private final boolean[] outcomes;
+  private final int minCalls;
+  private final double failureRateThreshold;
+  private final long openDurationMs;
+  private final int halfOpenProbes;
+  private State state = State.CLOSED;
+  private int index;
+  private int calls;
+  private int failures;
+  private long openUntil;
+  private int probesInFlight;
+
+  public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold, Duration openDuration,
+          int halfOpenProbes) {
+    this.name = name;
+    this.outcomes = new boolean[windowSize];
+    this.minCalls = Math.min(minCalls, windowSize);
+    this.failureRateThreshold = failureRateThreshold;
+    this.openDurationMs = openDuration.toMillis();
+    this.halfOpenProbes = halfOpenProbes;
+  }
+
+  public synchronized boolean tryAcquire() {
+    if (state == State.CLOSED) {
+      return true;
+    }
+    if (state == State.OPEN) {
+      if (System.currentTimeMillis() < openUntil) {
+        return false;
+      }
+      state = State.HALF_OPEN;
+      probesInFlight = 0;
+    }
+    if (probesInFlight >= halfOpenProbes) {
+      return false;
+    }
+    probesInFlight++;
+    return true;
+  }
+
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      close();
+      return;
+    }
+    record(false);
+  }
+
+  public synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      open(openDurationMs);
+      return;
+    }
+    if (state == State.OPEN) {
+      return;
+    }
+    record(true);
+    if (calls >= minCalls && failures >= failureRateThreshold * calls) {
+      open(openDurationMs);
+    }
+  }
+
+  public synchronized void trip(Duration duration) {
+    long until = System.currentTimeMillis() + duration.toMillis();
+    if (state != State.OPEN || until > openUntil) {
+      open(duration.toMillis());
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  public synchronized long getRetryAfterMillis() {
+    return state == State.OPEN ? Math.max(0, openUntil - System.currentTimeMillis()) : 0;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  private void record(boolean failure) {
+    if (calls == outcomes.length) {
+      if (outcomes[index]) {
+        failures--;
+      }
+    } else {
+      calls++;
+    }
+    outcomes[index] = failure;
+    if (failure) {
+      failures++;
+    }
+    index = (index + 1) % outcomes.length;
+  }
+
+  private void open(long durationMs) {
+    state = State.OPEN;
+    openUntil = System.currentTimeMillis() + durationMs;
+    probesInFlight = 0;
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    index = 0;
+    calls = 0;
+    failures = 0;
+    probesInFlight = 0;
+  }
+}
@@ -0,0 +1,15 @@
+package com.andnor.tradenet.core.util;
+
+import lombok.Getter;
+
+@Getter
+public class CircuitOpenException extends RuntimeException {
+  private final String endpoint;
+  private final long retryAfterMillis;
+
+  public CircuitOpenException(String endpoint, long retryAfterMillis) {
+    super("Circuit for " + endpoint + " is open, retry in " + retryAfterMillis + " ms");
+    this.endpoint = endpoint;
+    this.retryAfterMillis = retryAfterMillis;
+  }
+}
@@ -0,0 +1,82 @@
+package com.andnor.tradenet.core.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicBoolean decaying = new AtomicBoolean();
+  private final long decayThreshold;
+
+  public LatencyHistogram(long decayThreshold) {
+    this.decayThreshold = decayThreshold;
+  }
+
+  public void record(long micros) {
+    counts.incrementAndGet(indexOf(Math.max(0, micros)));
+    if (total.incrementAndGet() >= decayThreshold && decaying.compareAndSet(false, true)) {
+      try {
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+          long halved = counts.get(i) >> 1;
+          counts.set(i, halved);
+          remaining += halved;
+        }
+        total.set(remaining);
+      } finally {
+        decaying.set(false);
+      }
+    }
+  }
+
+  public long count() {
+    return total.get();
+  }
+
+  public long percentile(double quantile) {
+    long snapshotTotal = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      snapshotTotal += snapshot[i];
+    }
+    if (snapshotTotal == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(quantile * snapshotTotal);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(BUCKETS - 1);
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,84 @@
+package com.andnor.tradenet.core.util;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LogThrottle {
+  private static final int IDLE_WINDOWS_BEFORE_EVICTION = 10;
+  private static final ScheduledExecutorService REPORTER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "log-throttle");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Logger logger;
+  private final Duration interval;
+  private final long intervalNanos;
+  private final Map<String, Map<String, Window>> windows = new ConcurrentHashMap<>();
+
+  public LogThrottle(Logger logger, Duration interval) {
+    this.logger = logger;
+    this.interval = interval;
+    this.intervalNanos = interval.toNanos();
+    long intervalMillis = Math.max(1, interval.toMillis());
+    REPORTER.scheduleWithFixedDelay(this::reportSuppressed, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public boolean allow(String message, String subject) {
+    Map<String, Window> subjects = windows.get(message);
+    if (subjects == null) {
+      subjects = windows.computeIfAbsent(message, m -> new ConcurrentHashMap<>());
+    }
+    Window window = subjects.get(subject);
+    if (window == null) {
+      window = subjects.computeIfAbsent(subject, s -> new Window(System.nanoTime() - intervalNanos));
+    }
+
+    long now = System.nanoTime();
+    long openedAt = window.openedAt.get();
+    if (now - openedAt >= intervalNanos && window.openedAt.compareAndSet(openedAt, now)) {
+      return true;
+    }
+    window.suppressed.incrementAndGet();
+    return false;
+  }
+
+  long getSuppressed(String message, String subject) {
+    Map<String, Window> subjects = windows.get(message);
+    Window window = subjects == null ? null : subjects.get(subject);
+    return window == null ? 0 : window.suppressed.get();
+  }
+
+  void reportSuppressed() {
+    long now = System.nanoTime();
+    for (Map.Entry<String, Map<String, Window>> message : windows.entrySet()) {
+      Iterator<Map.Entry<String, Window>> iterator = message.getValue().entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, Window> entry = iterator.next();
+        long suppressed = entry.getValue().suppressed.getAndSet(0);
+        if (suppressed > 0) {
+          logger.warn("Suppressed {} repeats of '{}' for {} in the last {}", suppressed, message.getKey(), entry.getKey(), interval);
+        } else if (now - entry.getValue().openedAt.get() > IDLE_WINDOWS_BEFORE_EVICTION * intervalNanos) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  private static final class Window {
+    private final AtomicLong openedAt;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private Window(long openedAt) {
+      this.openedAt = new AtomicLong(openedAt);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.andnor.tradenet.core.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class RateBudget {
+  private final double capacity;
+  private final double permitsPerNano;
+  private double available;
+  private long refilledAt;
+
+  public RateBudget(int permits, Duration interval) {
+    this.capacity = permits;
+    this.permitsPerNano = permits / (double) interval.toNanos();
+    this.available = permits;
+    this.refilledAt = System.nanoTime();
+  }
+
+  public boolean tryAcquire(int permits, Duration maxWait) {
+    long deadline = System.nanoTime() + maxWait.toNanos();
+    while (true) {
+      long waitNanos;
+      synchronized (this) {
+        refill();
+        if (available >= permits) {
+          available -= permits;
+          return true;
+        }
+        waitNanos = (long) Math.ceil((permits - available) / permitsPerNano);
+      }
+      long remaining = deadline - System.nanoTime();
+      if (waitNanos > remaining || permits > capacity) {
+        return false;
+      }
+      LockSupport.parkNanos(Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+      if (Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+    }
+  }
+
+  public synchronized double getAvailable() {
+    refill();
+    return available;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    available = Math.min(capacity, available + (now - refilledAt) * permitsPerNano);
+    refilledAt = now;
+  }
+}
@@ -0,0 +1,34 @@
+package com.andnor.tradenet.domain.analytics.controller;
+
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.analytics.service.PnlAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+public class PnlController {
+  private final PnlAnalyticsService pnlAnalyticsService;
+
+  @GetMapping
+  public PnlSnapshot getAccountSnapshot() {
+    return pnlAnalyticsService.getAccountSnapshot();
+  }
+
+  @GetMapping("/pairs")
+  public List<PnlSnapshot> getPairSnapshots() {
+    return pnlAnalyticsService.getPairSnapshots();
+  }
+
+  @GetMapping("/pairs/{symbol}")
+  public ResponseEntity<PnlSnapshot> getPairSnapshot(@PathVariable String symbol) {
+    return ResponseEntity.of(pnlAnalyticsService.getPairSnapshot(symbol));
+  }
+}
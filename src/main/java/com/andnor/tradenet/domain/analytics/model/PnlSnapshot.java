@@ -0,0 +1,8 @@
+package com.andnor.tradenet.domain.analytics.model;
+
+import java.math.BigDecimal;
+
+public record PnlSnapshot(String scope, BigDecimal realizedPnl, BigDecimal estimatedFees, BigDecimal netPnl,
+        int openLongPositions, BigDecimal openLongNotional, int openShortPositions, BigDecimal openShortNotional,
+        long closedPositions, long winningPositions, double winRate, long averageHoldSeconds) {
+}
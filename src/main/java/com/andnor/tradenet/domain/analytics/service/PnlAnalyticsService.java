@@ -0,0 +1,14 @@
+package com.andnor.tradenet.domain.analytics.service;
+
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PnlAnalyticsService {
+  PnlSnapshot getAccountSnapshot();
+
+  List<PnlSnapshot> getPairSnapshots();
+
+  Optional<PnlSnapshot> getPairSnapshot(String symbol);
+}
@@ -0,0 +1,108 @@
+package com.andnor.tradenet.domain.analytics.service.impl;
+
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.position.model.PositionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class PnlAggregate {
+  private final String symbol;
+  private BigDecimal realizedPnl = BigDecimal.ZERO;
+  private BigDecimal fees = BigDecimal.ZERO;
+  private BigDecimal openLongNotional = BigDecimal.ZERO;
+  private BigDecimal openShortNotional = BigDecimal.ZERO;
+  private int openLongPositions;
+  private int openShortPositions;
+  private long closedPositions;
+  private long pricedPositions;
+  private long winningPositions;
+  private double holdSeconds;
+
+  PnlAggregate(String symbol) {
+    this.symbol = symbol;
+  }
+
+  String getSymbol() {
+    return symbol;
+  }
+
+  synchronized void opened(PositionType type, int count, BigDecimal notional, BigDecimal fee) {
+    if (type == PositionType.LONG) {
+      openLongPositions += count;
+      openLongNotional = openLongNotional.add(notional);
+    } else {
+      openShortPositions += count;
+      openShortNotional = openShortNotional.add(notional);
+    }
+    fees = fees.add(fee);
+  }
+
+  synchronized void closed(PositionType type, BigDecimal entryNotional, BigDecimal pnl, BigDecimal fee, double heldSeconds) {
+    opened(type, -1, entryNotional.negate(), fee);
+    closedPositions++;
+    if (pnl != null) {
+      pricedPositions++;
+      realizedPnl = realizedPnl.add(pnl);
+      holdSeconds += heldSeconds;
+      if (pnl.signum() > 0) {
+        winningPositions++;
+      }
+    }
+  }
+
+  synchronized void seedClosed(long closed, long priced, long wins, BigDecimal pnl, BigDecimal fee, double heldSeconds) {
+    closedPositions += closed;
+    pricedPositions += priced;
+    winningPositions += wins;
+    realizedPnl = realizedPnl.add(pnl);
+    fees = fees.add(fee);
+    holdSeconds += heldSeconds;
+  }
+
+  synchronized PnlAggregate clearOpen() {
+    PnlAggregate removed = new PnlAggregate(symbol);
+    removed.opened(PositionType.LONG, openLongPositions, openLongNotional, BigDecimal.ZERO);
+    removed.opened(PositionType.SHORT, openShortPositions, openShortNotional, BigDecimal.ZERO);
+    closedPositions += openLongPositions + openShortPositions;
+    openLongPositions = 0;
+    openShortPositions = 0;
+    openLongNotional = BigDecimal.ZERO;
+    openShortNotional = BigDecimal.ZERO;
+    return removed;
+  }
+
+  synchronized void removeOpen(PnlAggregate removed) {
+    int longCount;
+    int shortCount;
+    BigDecimal longNotional;
+    BigDecimal shortNotional;
+    synchronized (removed) {
+      longCount = removed.openLongPositions;
+      shortCount = removed.openShortPositions;
+      longNotional = removed.openLongNotional;
+      shortNotional = removed.openShortNotional;
+    }
+    opened(PositionType.LONG, -longCount, longNotional.negate(), BigDecimal.ZERO);
+    opened(PositionType.SHORT, -shortCount, shortNotional.negate(), BigDecimal.ZERO);
+    closedPositions += longCount + shortCount;
+  }
+
+  synchronized void addTo(PnlAggregate target) {
+    target.opened(PositionType.LONG, openLongPositions, openLongNotional, fees);
+    target.opened(PositionType.SHORT, openShortPositions, openShortNotional, BigDecimal.ZERO);
+    target.seedClosed(closedPositions, pricedPositions, winningPositions, realizedPnl, BigDecimal.ZERO, holdSeconds);
+  }
+
+  synchronized PnlSnapshot snapshot(String scope) {
+    double winRate = pricedPositions == 0 ? 0 : (double) winningPositions / pricedPositions;
+    long averageHold = pricedPositions == 0 ? 0 : Math.round(holdSeconds / pricedPositions);
+    return new PnlSnapshot(scope,
+            realizedPnl.setScale(2, RoundingMode.HALF_UP),
+            fees.setScale(2, RoundingMode.HALF_UP),
+            realizedPnl.subtract(fees).setScale(2, RoundingMode.HALF_UP),
+            openLongPositions, openLongNotional.setScale(2, RoundingMode.HALF_UP),
+            openShortPositions, openShortNotional.setScale(2, RoundingMode.HALF_UP),
+            closedPositions, winningPositions, winRate, averageHold);
+  }
+}
@@ -0,0 +1,132 @@
+package com.andnor.tradenet.domain.analytics.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.analytics.service.PnlAnalyticsService;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionOpenedEvent;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.model.PositionsBulkClosedEvent;
+import com.andnor.tradenet.domain.position.persistence.PositionAggregateView;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.position.util.PositionMath;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PnlAnalyticsServiceImpl implements PnlAnalyticsService {
+  private static final String ACCOUNT_SCOPE = "ACCOUNT";
+
+  private final PositionRepository positionRepository;
+  private final TradingProperties tradingProperties;
+  private final Map<Long, PnlAggregate> pairAggregates = new ConcurrentHashMap<>();
+  private final PnlAggregate accountAggregate = new PnlAggregate(ACCOUNT_SCOPE);
+
+  @PostConstruct
+  public void seed() {
+    BigDecimal takerRate = tradingProperties.getFees().getTakerRate();
+    List<PositionAggregateView> rows = positionRepository.aggregateByTradingPair();
+    for (PositionAggregateView row : rows) {
+      PnlAggregate pair = pairAggregates.computeIfAbsent(row.getTradingPairId(), id -> new PnlAggregate(row.getSymbol()));
+      BigDecimal fee = takerRate.multiply(row.getEntryNotional().add(row.getExitNotional()));
+      if (PositionStatus.OPEN.name().equals(row.getStatus())) {
+        PositionType type = PositionType.valueOf(row.getType());
+        int count = Math.toIntExact(row.getPositionCount());
+        pair.opened(type, count, row.getEntryNotional(), fee);
+        accountAggregate.opened(type, count, row.getEntryNotional(), fee);
+      } else {
+        double holdSeconds = row.getHoldSeconds().doubleValue();
+        pair.seedClosed(row.getPositionCount(), row.getPricedCount(), row.getWinCount(), row.getRealizedPnl(), fee, holdSeconds);
+        accountAggregate.seedClosed(row.getPositionCount(), row.getPricedCount(), row.getWinCount(), row.getRealizedPnl(), fee,
+                holdSeconds);
+      }
+    }
+    log.info("PnL analytics seeded for {} trading pairs", pairAggregates.size());
+  }
+
+  @EventListener
+  public void onPositionOpened(PositionOpenedEvent event) {
+    PositionEntity position = event.position();
+    BigDecimal notional = PositionMath.entryNotional(position);
+    BigDecimal fee = tradingProperties.getFees().getTakerRate().multiply(notional);
+    aggregateOf(position).opened(position.getType(), 1, notional, fee);
+    accountAggregate.opened(position.getType(), 1, notional, fee);
+  }
+
+  @EventListener
+  public void onPositionClosed(PositionClosedEvent event) {
+    PositionEntity position = event.position();
+    BigDecimal entryNotional = PositionMath.entryNotional(position);
+    BigDecimal pnl = null;
+    BigDecimal fee = BigDecimal.ZERO;
+    double holdSeconds = 0;
+
+    if (position.getEndPrice() != null) {
+      pnl = PositionMath.realizedPnl(position);
+      fee = tradingProperties.getFees().getTakerRate().multiply(PositionMath.exitNotional(position));
+      if (position.getOpenedAt() != null && position.getClosedAt() != null) {
+        holdSeconds = Duration.between(position.getOpenedAt(), position.getClosedAt()).toMillis() / 1000.0;
+      }
+    }
+
+    aggregateOf(position).closed(position.getType(), entryNotional, pnl, fee, holdSeconds);
+    accountAggregate.closed(position.getType(), entryNotional, pnl, fee, holdSeconds);
+  }
+
+  @EventListener
+  public void onPositionsBulkClosed(PositionsBulkClosedEvent event) {
+    for (Long tradingPairId : event.tradingPairIds()) {
+      PnlAggregate pair = pairAggregates.get(tradingPairId);
+      if (pair != null) {
+        accountAggregate.removeOpen(pair.clearOpen());
+      }
+    }
+  }
+
+  @Override
+  public PnlSnapshot getAccountSnapshot() {
+    return accountAggregate.snapshot(ACCOUNT_SCOPE);
+  }
+
+  @Override
+  public List<PnlSnapshot> getPairSnapshots() {
+    return pairAggregates.values().stream()
+            .map(aggregate -> aggregate.snapshot(aggregate.getSymbol()))
+            .sorted(Comparator.comparing(PnlSnapshot::netPnl).reversed())
+            .toList();
+  }
+
+  @Override
+  public Optional<PnlSnapshot> getPairSnapshot(String symbol) {
+    PnlAggregate combined = null;
+    for (PnlAggregate aggregate : pairAggregates.values()) {
+      if (aggregate.getSymbol().equalsIgnoreCase(symbol)) {
+        if (combined == null) {
+          combined = new PnlAggregate(aggregate.getSymbol());
+        }
+        aggregate.addTo(combined);
+      }
+    }
+    return combined == null ? Optional.empty() : Optional.of(combined.snapshot(combined.getSymbol()));
+  }
+
+  private PnlAggregate aggregateOf(PositionEntity position) {
+    return pairAggregates.computeIfAbsent(position.getTradingPair().getId(),
+            id -> new PnlAggregate(position.getTradingPair().getSymbol()));
+  }
+}
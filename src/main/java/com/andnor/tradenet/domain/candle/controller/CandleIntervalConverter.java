@@ -0,0 +1,13 @@
+package com.andnor.tradenet.domain.candle.controller;
+
+import com.andnor.tradenet.domain.candle.model.CandleInterval;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CandleIntervalConverter implements Converter<String, CandleInterval> {
+  @Override
+  public CandleInterval convert(String source) {
+    return CandleInterval.fromCode(source);
+  }
+}
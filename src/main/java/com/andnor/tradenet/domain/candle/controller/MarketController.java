@@ -0,0 +1,44 @@
+package com.andnor.tradenet.domain.candle.controller;
+
+import com.andnor.tradenet.domain.candle.model.Candle;
+import com.andnor.tradenet.domain.candle.model.CandleInterval;
+import com.andnor.tradenet.domain.candle.model.MarketSnapshot;
+import com.andnor.tradenet.domain.candle.service.CandleService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/admin/market")
+@RequiredArgsConstructor
+public class MarketController {
+  private static final int MAX_CANDLES = 5_000;
+
+  private final CandleService candleService;
+
+  @GetMapping
+  public Set<String> getSymbols() {
+    return candleService.getSymbols();
+  }
+
+  @GetMapping("/{symbol}")
+  public ResponseEntity<MarketSnapshot> getSnapshot(@PathVariable String symbol) {
+    return ResponseEntity.of(candleService.getSnapshot(symbol.toUpperCase()));
+  }
+
+  @GetMapping("/{symbol}/candles")
+  public List<Candle> getCandles(@PathVariable String symbol,
+          @RequestParam(defaultValue = "1m") CandleInterval interval,
+          @RequestParam(defaultValue = "60") @Min(1) @Max(MAX_CANDLES) int limit) {
+    return candleService.getCandles(symbol.toUpperCase(), interval, limit);
+  }
+}
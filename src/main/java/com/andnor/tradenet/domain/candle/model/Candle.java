@@ -0,0 +1,4 @@
+package com.andnor.tradenet.domain.candle.model;
+
+public record Candle(long openTime, double open, double high, double low, double close, int tickCount) {
+}
@@ -0,0 +1,24 @@
+package com.andnor.tradenet.domain.candle.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum CandleInterval {
+  ONE_SECOND("1s", 1_000L),
+  ONE_MINUTE("1m", 60_000L),
+  FIVE_MINUTES("5m", 300_000L);
+
+  private final String code;
+  private final long millis;
+
+  public static CandleInterval fromCode(String code) {
+    for (CandleInterval interval : values()) {
+      if (interval.code.equalsIgnoreCase(code)) {
+        return interval;
+      }
+    }
+    throw new IllegalArgumentException("Unknown candle interval: " + code);
+  }
+}
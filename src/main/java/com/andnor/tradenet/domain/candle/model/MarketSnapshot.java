@@ -0,0 +1,5 @@
+package com.andnor.tradenet.domain.candle.model;
+
+public record MarketSnapshot(String symbol, double lastPrice, long lastTickSecond, Candle minuteCandle,
+        double realizedVolatility, double averageTrueRange, double averageTrueRangePercent) {
+}
@@ -0,0 +1,24 @@
+package com.andnor.tradenet.domain.candle.service;
+
+import com.andnor.tradenet.domain.candle.model.Candle;
+import com.andnor.tradenet.domain.candle.model.CandleInterval;
+import com.andnor.tradenet.domain.candle.model.MarketSnapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+
+public interface CandleService {
+  List<Candle> getCandles(String symbol, CandleInterval interval, int limit);
+
+  Optional<Candle> getLatestCandle(String symbol, CandleInterval interval);
+
+  OptionalDouble getRealizedVolatility(String symbol, CandleInterval interval, int periods);
+
+  OptionalDouble getAverageTrueRange(String symbol, CandleInterval interval, int periods);
+
+  Optional<MarketSnapshot> getSnapshot(String symbol);
+
+  Set<String> getSymbols();
+}
@@ -0,0 +1,128 @@
+package com.andnor.tradenet.domain.candle.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.candle.model.Candle;
+import com.andnor.tradenet.domain.candle.model.CandleInterval;
+import com.andnor.tradenet.domain.candle.model.MarketSnapshot;
+import com.andnor.tradenet.domain.candle.service.CandleService;
+import com.andnor.tradenet.domain.tick.service.TickListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class CandleAggregator implements CandleService, TickListener {
+  private final TradingProperties tradingProperties;
+  private final Map<String, Map<CandleInterval, CandleSeries>> seriesBySymbol = new ConcurrentHashMap<>();
+
+  @Override
+  public void onTick(String symbol, long exchangeTime, long receiveTime, BigDecimal price) {
+    long time = exchangeTime > 0 ? exchangeTime : receiveTime;
+    double value = price.doubleValue();
+    for (CandleSeries series : seriesBySymbol.computeIfAbsent(symbol, s -> createSeries()).values()) {
+      series.add(time, value);
+    }
+  }
+
+  @Override
+  public List<Candle> getCandles(String symbol, CandleInterval interval, int limit) {
+    CandleSeries series = seriesOf(symbol, interval);
+    return series == null ? List.of() : series.recent(limit, false);
+  }
+
+  @Override
+  public Optional<Candle> getLatestCandle(String symbol, CandleInterval interval) {
+    List<Candle> candles = getCandles(symbol, interval, 1);
+    return candles.isEmpty() ? Optional.empty() : Optional.of(candles.get(0));
+  }
+
+  @Override
+  public OptionalDouble getRealizedVolatility(String symbol, CandleInterval interval, int periods) {
+    CandleSeries series = seriesOf(symbol, interval);
+    if (series == null) {
+      return OptionalDouble.empty();
+    }
+
+    List<Candle> candles = series.recent(periods + 1, true);
+    if (candles.size() < 3) {
+      return OptionalDouble.empty();
+    }
+
+    double sum = 0;
+    double sumOfSquares = 0;
+    int returns = candles.size() - 1;
+    for (int i = 1; i < candles.size(); i++) {
+      double logReturn = Math.log(candles.get(i).close() / candles.get(i - 1).close());
+      sum += logReturn;
+      sumOfSquares += logReturn * logReturn;
+    }
+    double mean = sum / returns;
+    return OptionalDouble.of(Math.sqrt(Math.max(0, (sumOfSquares - returns * mean * mean) / (returns - 1))));
+  }
+
+  @Override
+  public OptionalDouble getAverageTrueRange(String symbol, CandleInterval interval, int periods) {
+    CandleSeries series = seriesOf(symbol, interval);
+    if (series == null) {
+      return OptionalDouble.empty();
+    }
+
+    List<Candle> candles = series.recent(periods + 1, true);
+    if (candles.size() < 2) {
+      return OptionalDouble.empty();
+    }
+
+    double sum = 0;
+    for (int i = 1; i < candles.size(); i++) {
+      Candle candle = candles.get(i);
+      double previousClose = candles.get(i - 1).close();
+      sum += Math.max(candle.high() - candle.low(),
+              Math.max(Math.abs(candle.high() - previousClose), Math.abs(candle.low() - previousClose)));
+    }
+    return OptionalDouble.of(sum / (candles.size() - 1));
+  }
+
+  @Override
+  public Optional<MarketSnapshot> getSnapshot(String symbol) {
+    Optional<Candle> lastSecond = getLatestCandle(symbol, CandleInterval.ONE_SECOND);
+    if (lastSecond.isEmpty()) {
+      return Optional.empty();
+    }
+
+    TradingProperties.Candles properties = tradingProperties.getCandles();
+    double lastPrice = lastSecond.get().close();
+    double volatility = getRealizedVolatility(symbol, CandleInterval.ONE_MINUTE, properties.getVolatilityPeriods()).orElse(Double.NaN);
+    double atr = getAverageTrueRange(symbol, CandleInterval.FIVE_MINUTES, properties.getAtrPeriods()).orElse(Double.NaN);
+    return Optional.of(new MarketSnapshot(symbol, lastPrice, lastSecond.get().openTime(),
+            getLatestCandle(symbol, CandleInterval.ONE_MINUTE).orElse(null), volatility, atr, atr / lastPrice * 100));
+  }
+
+  @Override
+  public Set<String> getSymbols() {
+    return new TreeSet<>(seriesBySymbol.keySet());
+  }
+
+  private CandleSeries seriesOf(String symbol, CandleInterval interval) {
+    Map<CandleInterval, CandleSeries> series = seriesBySymbol.get(symbol);
+    return series == null ? null : series.get(interval);
+  }
+
+  private Map<CandleInterval, CandleSeries> createSeries() {
+    TradingProperties.Candles properties = tradingProperties.getCandles();
+    Map<CandleInterval, CandleSeries> series = new EnumMap<>(CandleInterval.class);
+    series.put(CandleInterval.ONE_SECOND, new CandleSeries(CandleInterval.ONE_SECOND.getMillis(), properties.getSecondCapacity()));
+    series.put(CandleInterval.ONE_MINUTE, new CandleSeries(CandleInterval.ONE_MINUTE.getMillis(), properties.getMinuteCapacity()));
+    series.put(CandleInterval.FIVE_MINUTES, new CandleSeries(CandleInterval.FIVE_MINUTES.getMillis(), properties.getFiveMinuteCapacity()));
+    return series;
+  }
+}
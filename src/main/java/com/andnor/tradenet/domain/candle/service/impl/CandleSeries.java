@@ -0,0 +1,113 @@
+package com.andnor.tradenet.domain.candle.service.impl;
+
+import com.andnor.tradenet.domain.candle.model.Candle;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+final class CandleSeries {
+  private final long intervalMillis;
+  private final int capacity;
+  private final long[] openTimes;
+  private final double[] opens;
+  private final double[] highs;
+  private final double[] lows;
+  private final double[] closes;
+  private final int[] tickCounts;
+  private long head = -1;
+  private volatile long version;
+
+  CandleSeries(long intervalMillis, int capacity) {
+    this.intervalMillis = intervalMillis;
+    this.capacity = capacity;
+    this.openTimes = new long[capacity];
+    this.opens = new double[capacity];
+    this.highs = new double[capacity];
+    this.lows = new double[capacity];
+    this.closes = new double[capacity];
+    this.tickCounts = new int[capacity];
+  }
+
+  void add(long time, double price) {
+    long openTime = time - Math.floorMod(time, intervalMillis);
+    int index = (int) (head % capacity);
+    if (head >= 0 && openTime < openTimes[index]) {
+      return;
+    }
+
+    long writeVersion = version + 1;
+    version = writeVersion;
+    VarHandle.storeStoreFence();
+
+    if (head >= 0 && openTime == openTimes[index]) {
+      highs[index] = Math.max(highs[index], price);
+      lows[index] = Math.min(lows[index], price);
+      closes[index] = price;
+      tickCounts[index]++;
+    } else {
+      if (head >= 0) {
+        double lastClose = closes[index];
+        long gapStart = Math.max(openTimes[index] + intervalMillis, openTime - (capacity - 1) * intervalMillis);
+        for (long gapTime = gapStart; gapTime < openTime; gapTime += intervalMillis) {
+          write(gapTime, lastClose, 0);
+        }
+      }
+      write(openTime, price, 1);
+    }
+
+    version = writeVersion + 1;
+  }
+
+  List<Candle> recent(int limit, boolean closedOnly) {
+    long[] times = new long[Math.min(limit, capacity)];
+    double[] open = new double[times.length];
+    double[] high = new double[times.length];
+    double[] low = new double[times.length];
+    double[] close = new double[times.length];
+    int[] ticks = new int[times.length];
+
+    int count;
+    while (true) {
+      long readVersion = version;
+      if ((readVersion & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+
+      long last = closedOnly ? head - 1 : head;
+      count = (int) Math.max(0, Math.min(times.length, Math.min(last + 1, capacity)));
+      for (int i = 0; i < count; i++) {
+        int index = (int) ((last - count + 1 + i) % capacity);
+        times[i] = openTimes[index];
+        open[i] = opens[index];
+        high[i] = highs[index];
+        low[i] = lows[index];
+        close[i] = closes[index];
+        ticks[i] = tickCounts[index];
+      }
+
+      VarHandle.loadLoadFence();
+      if (version == readVersion) {
+        break;
+      }
+    }
+
+    List<Candle> candles = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      candles.add(new Candle(times[i], open[i], high[i], low[i], close[i], ticks[i]));
+    }
+    return candles;
+  }
+
+  private void write(long openTime, double price, int ticks) {
+    head++;
+    int index = (int) (head % capacity);
+    openTimes[index] = openTime;
+    opens[index] = price;
+    highs[index] = price;
+    lows[index] = price;
+    closes[index] = price;
+    tickCounts[index] = ticks;
+  }
+}
@@ -1,23 +1,45 @@
 package com.andnor.tradenet.domain.exchange;
 
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
 import com.andnor.tradenet.domain.position.model.PositionType;
 import com.andnor.tradenet.domain.position.persistence.PositionEntity;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 public interface ExchangeService {
     boolean isHedgeModeEnabled();
 
     BigDecimal getCurrentPrice(TradingPairEntity tradingPair);
 
+    TickerPrice getTicker(TradingPairEntity tradingPair);
+
     PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type,
-                                BigDecimal entryPrice, BigDecimal takeProfitPrice);
+                                BigDecimal entryPrice, BigDecimal takeProfitPrice, long crossingId);
 
     void closePosition(PositionEntity positionEntity);
 
+    OrderResult closeSide(TradingPairEntity tradingPair, PositionType type, BigDecimal quantity, String clientOrderId);
+
+    OrderResult closeSide(String symbol, PositionType type, BigDecimal quantity, String clientOrderId);
+
+    void cancelOrder(TradingPairEntity tradingPair, Long orderId);
+
+    Set<Long> cancelOrders(TradingPairEntity tradingPair, List<Long> orderIds);
+
+    OrderResult queryOrder(TradingPairEntity tradingPair, Long orderId);
+
+    void cancelAllOpenOrders(String symbol);
+
+    List<PositionRisk> getOpenPositionRisks();
+
     BigDecimal getAccountBalance();
 
+    BigDecimal getAccountBalance(TradingPairEntity tradingPair);
+
     List<Long> getOpenOrderIdsByTradingPair(TradingPairEntity tradingPair);
 }
@@ -0,0 +1,146 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Service
+@Primary
+@Slf4j
+@RequiredArgsConstructor
+public class AccountRoutingExchangeService implements ExchangeService {
+  private static final String MARKET_DATA = "market";
+
+  private final BinanceAccountRegistry accountRegistry;
+  private final ExchangeCircuitBreakers circuitBreakers;
+  private final Tracer tracer;
+
+  @Override
+  public boolean isHedgeModeEnabled() {
+    boolean enabled = true;
+    for (BinanceAccount account : accountRegistry.getAccounts()) {
+      if (!account.exchange().isHedgeModeEnabled()) {
+        log.error("Binance account {} is not in hedge mode", account.name());
+        enabled = false;
+      }
+    }
+    return enabled;
+  }
+
+  @Override
+  public BigDecimal getCurrentPrice(TradingPairEntity tradingPair) {
+    return call("exchange.getCurrentPrice", MARKET_DATA, () -> accountRegistry.getDefault().exchange().getCurrentPrice(tradingPair));
+  }
+
+  @Override
+  public TickerPrice getTicker(TradingPairEntity tradingPair) {
+    return circuitBreakers.call(MARKET_DATA, () -> accountRegistry.getDefault().exchange().getTicker(tradingPair));
+  }
+
+  @Override
+  public PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal takeProfitPrice,
+          long crossingId) {
+    return call("exchange.openPosition", orders(tradingPair),
+            () -> exchangeOf(tradingPair).openPosition(tradingPair, type, entryPrice, takeProfitPrice, crossingId));
+  }
+
+  @Override
+  public void closePosition(PositionEntity positionEntity) {
+    TradingPairEntity tradingPair = positionEntity.getTradingPair();
+    run("exchange.closePosition", orders(tradingPair), () -> exchangeOf(tradingPair).closePosition(positionEntity));
+  }
+
+  @Override
+  public OrderResult closeSide(TradingPairEntity tradingPair, PositionType type, BigDecimal quantity, String clientOrderId) {
+    return call("exchange.closeSide", orders(tradingPair),
+            () -> exchangeOf(tradingPair).closeSide(tradingPair, type, quantity, clientOrderId));
+  }
+
+  @Override
+  public OrderResult closeSide(String symbol, PositionType type, BigDecimal quantity, String clientOrderId) {
+    return call("exchange.closeSide", orders(BinanceAccountRegistry.DEFAULT_ACCOUNT),
+            () -> accountRegistry.getDefault().exchange().closeSide(symbol, type, quantity, clientOrderId));
+  }
+
+  @Override
+  public void cancelOrder(TradingPairEntity tradingPair, Long orderId) {
+    run("exchange.cancelOrder", orders(tradingPair), () -> exchangeOf(tradingPair).cancelOrder(tradingPair, orderId));
+  }
+
+  @Override
+  public Set<Long> cancelOrders(TradingPairEntity tradingPair, List<Long> orderIds) {
+    return call("exchange.cancelOrders", orders(tradingPair), () -> exchangeOf(tradingPair).cancelOrders(tradingPair, orderIds));
+  }
+
+  @Override
+  public OrderResult queryOrder(TradingPairEntity tradingPair, Long orderId) {
+    return call("exchange.queryOrder", account(tradingPair.getAccount()), () -> exchangeOf(tradingPair).queryOrder(tradingPair, orderId));
+  }
+
+  @Override
+  public void cancelAllOpenOrders(String symbol) {
+    run("exchange.cancelAllOpenOrders", orders(BinanceAccountRegistry.DEFAULT_ACCOUNT),
+            () -> accountRegistry.getDefault().exchange().cancelAllOpenOrders(symbol));
+  }
+
+  @Override
+  public List<PositionRisk> getOpenPositionRisks() {
+    return call("exchange.getOpenPositionRisks", account(BinanceAccountRegistry.DEFAULT_ACCOUNT),
+            () -> accountRegistry.getDefault().exchange().getOpenPositionRisks());
+  }
+
+  @Override
+  public BigDecimal getAccountBalance() {
+    return call("exchange.getAccountBalance", account(BinanceAccountRegistry.DEFAULT_ACCOUNT),
+            () -> accountRegistry.getDefault().exchange().getAccountBalance());
+  }
+
+  @Override
+  public BigDecimal getAccountBalance(TradingPairEntity tradingPair) {
+    return call("exchange.getAccountBalance", account(tradingPair.getAccount()), () -> exchangeOf(tradingPair).getAccountBalance());
+  }
+
+  @Override
+  public List<Long> getOpenOrderIdsByTradingPair(TradingPairEntity tradingPair) {
+    return call("exchange.getOpenOrderIdsByTradingPair", account(tradingPair.getAccount()),
+            () -> exchangeOf(tradingPair).getOpenOrderIdsByTradingPair(tradingPair));
+  }
+
+  private <T> T call(String operation, String endpoint, Supplier<T> request) {
+    return tracer.call(operation, () -> circuitBreakers.call(endpoint, request));
+  }
+
+  private void run(String operation, String endpoint, Runnable request) {
+    tracer.run(operation, () -> circuitBreakers.run(endpoint, request));
+  }
+
+  private String orders(TradingPairEntity tradingPair) {
+    return orders(tradingPair.getAccount());
+  }
+
+  private String orders(String account) {
+    return "orders:" + account;
+  }
+
+  private String account(String account) {
+    return "account:" + account;
+  }
+
+  private ExchangeService exchangeOf(TradingPairEntity tradingPair) {
+    return accountRegistry.get(tradingPair.getAccount()).exchange();
+  }
+}
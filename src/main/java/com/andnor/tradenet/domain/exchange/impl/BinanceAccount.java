@@ -0,0 +1,4 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+public record BinanceAccount(String name, BinanceService exchange, BinanceOrderTransport orderTransport) {
+}
@@ -0,0 +1,69 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.config.BinanceConfigProperties;
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.core.model.SymbolInfo;
+import com.andnor.tradenet.core.util.RateBudget;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.binance.connector.futures.client.impl.UMFuturesClientImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class BinanceAccountRegistry {
+  public static final String DEFAULT_ACCOUNT = "default";
+
+  private final Map<String, BinanceAccount> accounts = new LinkedHashMap<>();
+
+  public BinanceAccountRegistry(BinanceService binanceService, BinanceOrderTransport binanceOrderTransport,
+          BinanceConfigProperties binanceConfigProperties, HttpClient binanceHttpClient, BinanceResponseDecoder decoder,
+          HedgedPriceProvider priceProvider, Map<String, SymbolInfo> symbolInfoCache, TradingProperties tradingProperties,
+          ExecutionCostRecorder executionCostRecorder, Tracer tracer) {
+    accounts.put(DEFAULT_ACCOUNT, new BinanceAccount(DEFAULT_ACCOUNT, binanceService, binanceOrderTransport));
+
+    for (Map.Entry<String, BinanceConfigProperties.Account> entry : binanceConfigProperties.getAccounts().entrySet()) {
+      String name = entry.getKey();
+      if (accounts.containsKey(name)) {
+        throw new IllegalStateException("Duplicate Binance account: " + name);
+      }
+      BinanceConfigProperties.Account credentials = entry.getValue();
+      UMFuturesClientImpl client = new UMFuturesClientImpl(credentials.getKey(), credentials.getSecret(),
+              binanceConfigProperties.getBaseUrl());
+      BinanceOrderTransport orderTransport = new BinanceOrderTransport(
+              binanceHttpClient,
+              binanceConfigProperties.getBaseUrl(),
+              credentials.getKey(),
+              credentials.getSecret(),
+              binanceConfigProperties.getRecvWindow(),
+              binanceConfigProperties.getRequestTimeout(),
+              new RateBudget(binanceConfigProperties.getOrderRateLimit(), binanceConfigProperties.getOrderRateInterval()));
+      BinanceService exchange = new BinanceService(decoder, client, orderTransport, new BinanceOrderGateway(orderTransport, decoder),
+              priceProvider, symbolInfoCache, tradingProperties, executionCostRecorder, tracer);
+      accounts.put(name, new BinanceAccount(name, exchange, orderTransport));
+    }
+    log.info("Registered {} Binance accounts: {}", accounts.size(), accounts.keySet());
+  }
+
+  public BinanceAccount get(String name) {
+    BinanceAccount account = accounts.get(name == null ? DEFAULT_ACCOUNT : name);
+    if (account == null) {
+      throw new IllegalArgumentException("Unknown Binance account: " + name);
+    }
+    return account;
+  }
+
+  public BinanceAccount getDefault() {
+    return accounts.get(DEFAULT_ACCOUNT);
+  }
+
+  public Collection<BinanceAccount> getAccounts() {
+    return Collections.unmodifiableCollection(accounts.values());
+  }
+}
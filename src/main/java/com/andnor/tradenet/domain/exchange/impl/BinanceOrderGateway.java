@@ -0,0 +1,102 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import com.binance.connector.futures.client.exceptions.BinanceServerException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BinanceOrderGateway {
+  private static final String ORDER_DOES_NOT_EXIST = "\"code\":-2013";
+  private static final int LOOKUP_ATTEMPTS = 3;
+  private static final long LOOKUP_DELAY_MS = 250;
+
+  private final BinanceOrderTransport orderTransport;
+  private final BinanceResponseDecoder decoder;
+
+  public CompletableFuture<OrderResult> submit(String clientOrderId, LinkedHashMap<String, Object> params) {
+    params.put("newClientOrderId", clientOrderId);
+    return orderTransport.newOrderAsync(params)
+            .thenApply(this::decode)
+            .exceptionallyCompose(error -> recover(clientOrderId, params, unwrap(error)));
+  }
+
+  public static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  private CompletableFuture<OrderResult> recover(String clientOrderId, LinkedHashMap<String, Object> params, Throwable error) {
+    if (!isOutcomeUnknown(error)) {
+      return CompletableFuture.failedFuture(error);
+    }
+
+    log.warn("Outcome of order {} is unknown ({}), looking it up", clientOrderId, error.toString());
+    Map<String, Object> lookupParams = new LinkedHashMap<>();
+    lookupParams.put("symbol", params.get("symbol"));
+    lookupParams.put("origClientOrderId", clientOrderId);
+    return lookUp(clientOrderId, params, lookupParams, 1);
+  }
+
+  private CompletableFuture<OrderResult> lookUp(String clientOrderId, LinkedHashMap<String, Object> params,
+          Map<String, Object> lookupParams, int attempt) {
+    return orderTransport.queryOrderAsync(lookupParams)
+            .thenApply(this::decode)
+            .exceptionallyCompose(lookupError -> {
+              Throwable cause = unwrap(lookupError);
+              boolean notFound = cause instanceof BinanceClientException && cause.getMessage() != null
+                      && cause.getMessage().contains(ORDER_DOES_NOT_EXIST);
+              if (!notFound && !isOutcomeUnknown(cause)) {
+                return CompletableFuture.failedFuture(cause);
+              }
+              if (attempt < LOOKUP_ATTEMPTS) {
+                log.debug("Lookup {} of order {} failed ({}), looking it up again", attempt, clientOrderId, cause.toString());
+                return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(LOOKUP_DELAY_MS, TimeUnit.MILLISECONDS))
+                        .thenCompose(ignored -> lookUp(clientOrderId, params, lookupParams, attempt + 1));
+              }
+              if (!notFound) {
+                return CompletableFuture.failedFuture(cause);
+              }
+              log.warn("Order {} was not found after {} lookups, resubmitting it", clientOrderId, attempt);
+              return orderTransport.newOrderAsync(params).thenApply(this::decode);
+            });
+  }
+
+  private OrderResult decode(String response) {
+    try {
+      return decoder.decodeOrderResult(response);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to parse order response: " + response, e);
+    }
+  }
+
+  private boolean isOutcomeUnknown(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException || cause instanceof BinanceServerException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+  }
+}
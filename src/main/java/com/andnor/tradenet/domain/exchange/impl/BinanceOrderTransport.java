@@ -0,0 +1,300 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.util.RateBudget;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import com.binance.connector.futures.client.exceptions.BinanceServerException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class BinanceOrderTransport {
+  private static final String HMAC_SHA256 = "HmacSHA256";
+  private static final String ORDER_PATH = "/fapi/v1/order";
+  private static final String BATCH_ORDERS_PATH = "/fapi/v1/batchOrders";
+  private static final String ALL_OPEN_ORDERS_PATH = "/fapi/v1/allOpenOrders";
+  private static final String TIME_PATH = "/fapi/v1/time";
+  private static final long TIME_SYNC_INTERVAL_MS = 60_000;
+  private static final int TIMESTAMP_OUTSIDE_RECV_WINDOW = -1021;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final HttpClient httpClient;
+  private final String baseUrl;
+  private final String apiKey;
+  private final Mac macPrototype;
+  private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::cloneMac);
+  private final ThreadLocal<StringBuilder> queryBuffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+  private final ThreadLocal<byte[]> signingBuffers = ThreadLocal.withInitial(() -> new byte[512]);
+  private final long recvWindow;
+  private final Duration requestTimeout;
+  private final RateBudget orderBudget;
+  private final AtomicBoolean timeSyncInProgress = new AtomicBoolean();
+  private volatile long serverTimeOffset;
+  private volatile long lastTimeSync;
+
+  public BinanceOrderTransport(HttpClient httpClient, String baseUrl, String apiKey, String secretKey,
+          long recvWindow, Duration requestTimeout) {
+    this(httpClient, baseUrl, apiKey, secretKey, recvWindow, requestTimeout, null);
+  }
+
+  public BinanceOrderTransport(HttpClient httpClient, String baseUrl, String apiKey, String secretKey,
+          long recvWindow, Duration requestTimeout, RateBudget orderBudget) {
+    this.httpClient = httpClient;
+    this.baseUrl = baseUrl;
+    this.apiKey = apiKey;
+    this.recvWindow = recvWindow;
+    this.requestTimeout = requestTimeout;
+    this.orderBudget = orderBudget;
+    try {
+      this.macPrototype = Mac.getInstance(HMAC_SHA256);
+      this.macPrototype.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Failed to initialize request signer", e);
+    }
+  }
+
+  public void warmUp() {
+    syncServerTime();
+    log.info("Order transport warmed up against {}, server time offset {} ms", baseUrl, serverTimeOffset);
+  }
+
+  public String newOrder(Map<String, Object> params) {
+    acquireOrderBudget(1);
+    return sendSigned("POST", ORDER_PATH, params);
+  }
+
+  public CompletableFuture<String> newOrderAsync(Map<String, Object> params) {
+    try {
+      acquireOrderBudget(1);
+    } catch (IllegalStateException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return sendSignedAsync("POST", ORDER_PATH, params);
+  }
+
+  public CompletableFuture<String> queryOrderAsync(Map<String, Object> params) {
+    return sendSignedAsync("GET", ORDER_PATH, params);
+  }
+
+  public String cancelOrder(Map<String, Object> params) {
+    return sendSigned("DELETE", ORDER_PATH, params);
+  }
+
+  public String placeBatchOrders(List<? extends Map<String, Object>> orders) {
+    acquireOrderBudget(orders.size());
+    return sendSigned("POST", BATCH_ORDERS_PATH, Map.of("batchOrders", encodeBatchOrders(orders)));
+  }
+
+  public CompletableFuture<String> cancelBatchOrdersAsync(String symbol, List<Long> orderIds) {
+    StringBuilder orderIdList = new StringBuilder(16 * orderIds.size());
+    orderIdList.append('[');
+    for (int i = 0; i < orderIds.size(); i++) {
+      if (i > 0) {
+        orderIdList.append(',');
+      }
+      orderIdList.append(orderIds.get(i));
+    }
+    orderIdList.append(']');
+
+    Map<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", symbol);
+    params.put("orderIdList", orderIdList.toString());
+    return sendSignedAsync("DELETE", BATCH_ORDERS_PATH, params);
+  }
+
+  public String cancelAllOpenOrders(String symbol) {
+    return sendSigned("DELETE", ALL_OPEN_ORDERS_PATH, Map.of("symbol", symbol));
+  }
+
+  public RateBudget getOrderBudget() {
+    return orderBudget;
+  }
+
+  public long getServerTimeOffset() {
+    return serverTimeOffset;
+  }
+
+  public void syncServerTime() {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + TIME_PATH))
+            .timeout(requestTimeout)
+            .GET()
+            .build();
+    try {
+      long sentAt = System.currentTimeMillis();
+      HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      long receivedAt = System.currentTimeMillis();
+      updateServerTimeOffset(response.body(), sentAt, receivedAt);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to sync server time with " + baseUrl, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while syncing server time", e);
+    }
+  }
+
+  private void acquireOrderBudget(int orders) {
+    if (orderBudget != null && !orderBudget.tryAcquire(orders, requestTimeout)) {
+      throw new IllegalStateException("Order rate budget exhausted for " + orders + " orders");
+    }
+  }
+
+  private String sendSigned(String method, String path, Map<String, Object> params) {
+    HttpRequest request = signedRequest(method, path, params);
+
+    HttpResponse<String> response;
+    try {
+      response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    } catch (IOException e) {
+      throw new IllegalStateException("Request " + method + " " + path + " failed", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during " + method + " " + path, e);
+    }
+    return handleResponse(response);
+  }
+
+  private CompletableFuture<String> sendSignedAsync(String method, String path, Map<String, Object> params) {
+    return httpClient.sendAsync(signedRequest(method, path, params), HttpResponse.BodyHandlers.ofString())
+            .thenApply(this::handleResponse);
+  }
+
+  private HttpRequest signedRequest(String method, String path, Map<String, Object> params) {
+    scheduleTimeSyncIfStale();
+
+    StringBuilder query = queryBuffers.get();
+    query.setLength(0);
+    for (Map.Entry<String, Object> entry : params.entrySet()) {
+      query.append(entry.getKey()).append('=').append(encode(String.valueOf(entry.getValue()))).append('&');
+    }
+    query.append("recvWindow=").append(recvWindow)
+            .append("&timestamp=").append(System.currentTimeMillis() + serverTimeOffset);
+    appendSignature(query);
+
+    return HttpRequest.newBuilder(URI.create(baseUrl + path + '?' + query))
+            .timeout(requestTimeout)
+            .header("X-MBX-APIKEY", apiKey)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+  }
+
+  private String handleResponse(HttpResponse<String> response) {
+    int status = response.statusCode();
+    String body = response.body();
+    if (status >= 500) {
+      throw new BinanceServerException(body, status);
+    }
+    if (status >= 400) {
+      if (body != null && body.contains("\"code\":" + TIMESTAMP_OUTSIDE_RECV_WINDOW)) {
+        lastTimeSync = 0;
+      }
+      throw new BinanceClientException(body, status);
+    }
+    return body;
+  }
+
+  private void appendSignature(StringBuilder query) {
+    byte[] bytes = signingBuffers.get();
+    if (bytes.length < query.length()) {
+      bytes = new byte[query.length() * 2];
+      signingBuffers.set(bytes);
+    }
+    for (int i = 0; i < query.length(); i++) {
+      bytes[i] = (byte) query.charAt(i);
+    }
+    Mac mac = macs.get();
+    mac.update(bytes, 0, query.length());
+    byte[] signature = mac.doFinal();
+    query.append("&signature=");
+    for (byte b : signature) {
+      query.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+  }
+
+  private void scheduleTimeSyncIfStale() {
+    if (System.currentTimeMillis() - lastTimeSync < TIME_SYNC_INTERVAL_MS || !timeSyncInProgress.compareAndSet(false, true)) {
+      return;
+    }
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + TIME_PATH))
+            .timeout(requestTimeout)
+            .GET()
+            .build();
+    long sentAt = System.currentTimeMillis();
+    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> {
+              try {
+                if (error != null) {
+                  log.warn("Failed to refresh server time offset: {}", error.getMessage());
+                } else {
+                  updateServerTimeOffset(response.body(), sentAt, System.currentTimeMillis());
+                }
+              } finally {
+                timeSyncInProgress.set(false);
+              }
+            });
+  }
+
+  private void updateServerTimeOffset(String body, long sentAt, long receivedAt) {
+    int start = body.indexOf(':') + 1;
+    int end = body.indexOf('}', start);
+    long serverTime = Long.parseLong(body.substring(start, end).trim());
+    serverTimeOffset = serverTime - (sentAt + receivedAt) / 2;
+    lastTimeSync = receivedAt;
+  }
+
+  private Mac cloneMac() {
+    try {
+      return (Mac) macPrototype.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("HMAC implementation does not support cloning", e);
+    }
+  }
+
+  private static String encodeBatchOrders(List<? extends Map<String, Object>> orders) {
+    StringWriter json = new StringWriter(128 * orders.size());
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+      generator.writeStartArray();
+      for (Map<String, Object> order : orders) {
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> entry : order.entrySet()) {
+          generator.writeStringField(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to encode batch orders", e);
+    }
+    return json.toString();
+  }
+
+  private static String encode(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      boolean unreserved = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+              || c == '.' || c == '-' || c == '_';
+      if (!unreserved) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+      }
+    }
+    return value;
+  }
+}
@@ -0,0 +1,204 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class BinanceResponseDecoder {
+  private final JsonFactory jsonFactory;
+
+  public BinanceResponseDecoder(ObjectMapper mapper) {
+    this.jsonFactory = mapper.getFactory();
+  }
+
+  public TickerPrice decodeTicker(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_OBJECT);
+      String symbol = null;
+      BigDecimal price = null;
+      long time = 0L;
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+        case "symbol" -> symbol = parser.getText();
+        case "price" -> price = new BigDecimal(parser.getText());
+        case "time" -> time = parser.getLongValue();
+        default -> parser.skipChildren();
+        }
+      }
+
+      if (price == null) {
+        throw new IOException("Ticker response has no price: " + json);
+      }
+      return new TickerPrice(symbol, price, time);
+    }
+  }
+
+  public OrderResult decodeOrderResult(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_OBJECT);
+      return readOrderResult(parser);
+    }
+  }
+
+  public List<OrderResult> decodeOrderResults(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_ARRAY);
+      List<OrderResult> results = new ArrayList<>();
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        results.add(readOrderResult(parser));
+      }
+      return results;
+    }
+  }
+
+  public List<Integer> decodeBatchErrorCodes(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_ARRAY);
+      List<Integer> codes = new ArrayList<>();
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        int code = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          parser.nextToken();
+          if ("code".equals(field)) {
+            code = parser.getIntValue();
+          } else {
+            parser.skipChildren();
+          }
+        }
+        codes.add(code);
+      }
+      return codes;
+    }
+  }
+
+  public List<Long> decodeOrderIds(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_ARRAY);
+      List<Long> orderIds = new ArrayList<>();
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          parser.nextToken();
+          if ("orderId".equals(field)) {
+            orderIds.add(parser.getLongValue());
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      return orderIds;
+    }
+  }
+
+  public List<PositionRisk> decodePositionRisks(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_ARRAY);
+      List<PositionRisk> positions = new ArrayList<>();
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        String symbol = null;
+        String positionSide = null;
+        BigDecimal positionAmt = BigDecimal.ZERO;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          parser.nextToken();
+          switch (field) {
+          case "symbol" -> symbol = parser.getText();
+          case "positionSide" -> positionSide = parser.getText();
+          case "positionAmt" -> positionAmt = new BigDecimal(parser.getText());
+          default -> parser.skipChildren();
+          }
+        }
+        positions.add(new PositionRisk(symbol, positionSide, positionAmt));
+      }
+      return positions;
+    }
+  }
+
+  public BigDecimal decodeAssetBalance(String json, String asset) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_ARRAY);
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        String currentAsset = null;
+        String balance = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          parser.nextToken();
+          switch (field) {
+          case "asset" -> currentAsset = parser.getText();
+          case "balance" -> balance = parser.getText();
+          default -> parser.skipChildren();
+          }
+        }
+
+        if (asset.equals(currentAsset) && balance != null) {
+          return new BigDecimal(balance);
+        }
+      }
+      return BigDecimal.ZERO;
+    }
+  }
+
+  public boolean decodeDualSidePosition(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser, JsonToken.START_OBJECT);
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if ("dualSidePosition".equals(field)) {
+          return parser.getValueAsBoolean();
+        }
+        parser.skipChildren();
+      }
+      return false;
+    }
+  }
+
+  private OrderResult readOrderResult(JsonParser parser) throws IOException {
+    long orderId = 0L;
+    String clientOrderId = null;
+    String status = null;
+    BigDecimal executedQty = BigDecimal.ZERO;
+    BigDecimal avgPrice = BigDecimal.ZERO;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+      case "orderId" -> orderId = parser.getLongValue();
+      case "clientOrderId" -> clientOrderId = parser.getText();
+      case "status" -> status = parser.getText();
+      case "executedQty" -> executedQty = new BigDecimal(parser.getText());
+      case "avgPrice" -> avgPrice = new BigDecimal(parser.getText());
+      default -> parser.skipChildren();
+      }
+    }
+    return new OrderResult(orderId, clientOrderId, status, executedQty, avgPrice);
+  }
+
+  private void expect(JsonParser parser, JsonToken token) throws IOException {
+    if (parser.nextToken() != token) {
+      throw new IOException("Expected " + token + " but got " + parser.currentToken());
+    }
+  }
+}
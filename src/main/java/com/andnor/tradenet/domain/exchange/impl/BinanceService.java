@@ -1,5 +1,6 @@
 package com.andnor.tradenet.domain.exchange.impl;
 
+import com.andnor.tradenet.core.config.TradingProperties;
 import com.andnor.tradenet.core.model.SymbolInfo;
 import com.andnor.tradenet.domain.exchange.ExchangeService;
 import com.andnor.tradenet.domain.position.model.PositionStatus;
@@ -7,42 +8,63 @@ import com.andnor.tradenet.domain.position.model.PositionType;
 import com.andnor.tradenet.domain.position.model.StopLossOrderInfo;
 import com.andnor.tradenet.domain.position.persistence.PositionEntity;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.exchange.model.EntryExecution;
+import com.andnor.tradenet.domain.exchange.model.ExecutionMode;
+import com.andnor.tradenet.domain.exchange.model.FallbackOrderType;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.exchange.util.ClientOrderIds;
+import com.andnor.tradenet.domain.tracing.service.Span;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
 import com.binance.connector.futures.client.impl.UMFuturesClientImpl;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BinanceService implements ExchangeService {
-  private final ObjectMapper mapper;
+  private static final int MAX_BATCH_CANCEL_SIZE = 10;
+  private static final long BALANCE_CACHE_TTL_MS = 1_000;
+  private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+  private static final String POST_ONLY_REJECTED = "\"code\":-5022";
+  private static final String ORDER_NOT_FOUND = "\"code\":-2013";
+  private static final int UNKNOWN_ORDER = -2011;
+  private static final int ORDER_DOES_NOT_EXIST = -2013;
+  private static final int UNKNOWN_BATCH_RESULT = -1;
+
+  private final BinanceResponseDecoder decoder;
   private final UMFuturesClientImpl client;
+  private final BinanceOrderTransport orderTransport;
+  private final BinanceOrderGateway orderGateway;
+  private final HedgedPriceProvider priceProvider;
   private final Map<String, SymbolInfo> symbolInfoCache;
+  private final TradingProperties tradingProperties;
+  private final ExecutionCostRecorder executionCostRecorder;
+  private final Tracer tracer;
+  private volatile BigDecimal cachedBalance;
+  private volatile long balanceCachedAt;
 
   @Override
   public boolean isHedgeModeEnabled() {
     try {
       LinkedHashMap<String, Object> params = new LinkedHashMap<>();
       String result = client.account().getCurrentPositionMode(params);
-      JsonNode accountInfo = mapper.readTree(result);
-
-      if (accountInfo.has("dualSidePosition")) {
-        return accountInfo.get("dualSidePosition").asBoolean();
-      }
-
-      return false;
+      return decoder.decodeDualSidePosition(result);
     } catch (Exception e) {
       log.error("Failed to check account hedge mode: {}", e.getMessage(), e);
       throw new RuntimeException("Failed to verify hedge mode setting", e);
@@ -51,22 +73,22 @@ public class BinanceService implements ExchangeService {
 
   @Override
   public BigDecimal getCurrentPrice(TradingPairEntity tradingPair) {
-    String symbol = tradingPair.getSymbol();
-    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
-    params.put("symbol", symbol);
+    return getCurrentPrice(tradingPair.getSymbol());
+  }
 
-    String result = client.market().tickerSymbol(params);
+  @Override
+  public TickerPrice getTicker(TradingPairEntity tradingPair) {
     try {
-      JsonNode node = mapper.readTree(result);
-      BigDecimal price = new BigDecimal(node.get("price").asText());
-      return price;
+      return priceProvider.getPrice(tradingPair.getSymbol());
     } catch (Exception e) {
-      throw new RuntimeException("Failed to parse price response: " + result, e);
+      log.error("Failed to get ticker for {}: {}", tradingPair.getSymbol(), e.getMessage());
+      throw new RuntimeException("Failed to get ticker for " + tradingPair.getSymbol(), e);
     }
   }
 
   @Override
-  public PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal takeProfitPrice) {
+  public PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal takeProfitPrice,
+          long crossingId) {
     String symbol = tradingPair.getSymbol();
     BigDecimal usdAmount = tradingPair.getPositionAmountUsdt();
     String positionSide = type.toString();
@@ -74,14 +96,12 @@ public class BinanceService implements ExchangeService {
     BigDecimal stopLossPercent = (type == PositionType.LONG) ? tradingPair.getLongStopLossPercentage() : tradingPair.getShortStopLossPercentage();
 
     try {
-      BigDecimal currentPrice = getCurrentPrice(symbol);
-
       SymbolInfo info = symbolInfoCache.get(symbol);
       if (info == null) {
         throw new IllegalStateException("No symbol info found for: " + symbol);
       }
 
-      BigDecimal quantity = usdAmount.divide(currentPrice, 8, RoundingMode.HALF_UP).setScale(info.getQuantityPrecision(), RoundingMode.DOWN);
+      BigDecimal quantity = usdAmount.divide(entryPrice, 8, RoundingMode.HALF_UP).setScale(info.getQuantityPrecision(), RoundingMode.DOWN);
 
       if (quantity.equals(BigDecimal.ZERO)) {
         throw new IllegalStateException("Quantity is zero. You should edit trading pair settings");
@@ -89,32 +109,57 @@ public class BinanceService implements ExchangeService {
 
       BigDecimal stopLossPrice = calculateStopLoss(entryPrice, type, stopLossPercent).setScale(info.getPricePrecision(), RoundingMode.DOWN);
 
-      LinkedHashMap<String, Object> params = getParamsForMarketOrder(type, symbol, quantity, positionSide);
-
-      String orderResult = client.account().newOrder(params);
-      JSONObject orderJson = new JSONObject(orderResult);
-      String executedQty = orderJson.getString("executedQty");
-      String avgPrice = orderJson.getString("avgPrice");
+      EntryExecution execution = executeEntry(tradingPair, type, entryPrice, quantity, info, crossingId);
+      BigDecimal executedQty = execution.executedQty();
+      BigDecimal avgPrice = execution.avgPrice();
 
       log.info("Opened {} {} for {} USDT: qty={}, avgPrice={}", type, symbol, usdAmount, executedQty, avgPrice);
-
-      StopLossOrderInfo stopLossOrderInfo = placeStopLossOrder(symbol, type, stopLossPrice, positionSide, new BigDecimal(executedQty));
-      log.info("Placed STOP LOSS at {} for {} {}", stopLossPrice, type, symbol);
+      cachedBalance = null;
+
+      BigDecimal takeProfitStopPrice = takeProfitPrice.setScale(info.getPricePrecision(), RoundingMode.DOWN);
+      CompletableFuture<OrderResult> stopLossOrder = orderGateway.submit(
+              ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.STOP_LOSS, crossingId),
+              getParamsForStopMarketOrder(type, symbol, stopLossPrice, positionSide, executedQty));
+      CompletableFuture<OrderResult> takeProfitOrder = orderGateway.submit(
+              ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.TAKE_PROFIT, crossingId),
+              getParamsForTakeProfitMarketOrder(type, symbol, takeProfitStopPrice, positionSide, executedQty));
+
+      String closeOrderId = ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.CLOSE, crossingId);
+      StopLossOrderInfo stopLossOrderInfo;
+      try {
+        stopLossOrderInfo = tracer.call("binance.stopLoss",
+                () -> awaitStopLossOrder(symbol, type, positionSide, executedQty, closeOrderId, stopLossOrder));
+      } catch (RuntimeException e) {
+        takeProfitOrder.thenAccept(takeProfit -> cancelProtectiveOrder(symbol, takeProfit.orderId()));
+        throw e;
+      }
+      Long takeProfitOrderId = tracer.call("binance.takeProfit",
+              () -> awaitTakeProfitOrder(symbol, type, takeProfitStopPrice, takeProfitOrder));
+
+      if (stopLossOrderInfo.getShouldClosePosition() && takeProfitOrderId != null) {
+        cancelProtectiveOrder(symbol, takeProfitOrderId);
+        takeProfitOrderId = null;
+      } else if (!stopLossOrderInfo.getShouldClosePosition()) {
+        log.info("Placed STOP LOSS at {} for {} {}", stopLossPrice, type, symbol);
+      }
 
       return PositionEntity.builder()
               .tradingPair(tradingPair)
               .gridLevelPrice(entryPrice)
-              .quantity(new BigDecimal(executedQty))
+              .quantity(executedQty)
               .type(type)
-              .usdAmount(new BigDecimal(avgPrice).multiply(new BigDecimal(executedQty)))
-              .startPrice(new BigDecimal(avgPrice))
+              .usdAmount(avgPrice.multiply(executedQty))
+              .startPrice(avgPrice)
               .endPrice(stopLossOrderInfo.getShouldClosePosition() ? stopLossOrderInfo.getEndPriceIfForceClosed() : null)
               .status(stopLossOrderInfo.getShouldClosePosition() ? PositionStatus.CLOSED : PositionStatus.OPEN)
               .stopLossPrice(stopLossPrice)
               .takeProfitPrice(takeProfitPrice)
               .openedAt(Instant.now())
               .stopLossOrderId(stopLossOrderInfo.getStopLossOrderId())
+              .takeProfitOrderId(takeProfitOrderId)
               .closedAt(stopLossOrderInfo.getShouldClosePosition() ? Instant.now() : null)
+              .entryFee(execution.fee())
+              .entrySlippage(execution.slippage())
               .build();
     } catch (Exception e) {
       log.error("Failed to open {} position for {}: {}", type, symbol, e.getMessage(), e);
@@ -122,21 +167,223 @@ public class BinanceService implements ExchangeService {
     }
   }
 
-  private StopLossOrderInfo placeStopLossOrder(String symbol, PositionType type, BigDecimal stopLossPrice, String positionSide, BigDecimal executedQty) {
+  private EntryExecution executeEntry(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal quantity,
+          SymbolInfo info, long crossingId) throws IOException {
+    String symbol = tradingPair.getSymbol();
+    String entryOrderId = ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.ENTRY, crossingId);
+    TradingProperties.Execution properties = tradingProperties.getExecution();
+
+    Span span = tracer.startSpan("binance.entryOrder").tag("mode", properties.getMode());
     try {
-      LinkedHashMap<String, Object> slParams = getParamsForStopMarketOrder(type, symbol, stopLossPrice, positionSide, executedQty);
-      String newOrderResponse = client.account().newOrder(slParams);
-      JSONObject orderJson = new JSONObject(newOrderResponse);
-      long orderId = orderJson.getLong("orderId");
+      EntryExecution execution;
+      if (properties.getMode() == ExecutionMode.MARKET) {
+        OrderResult orderResult = BinanceOrderGateway.await(orderGateway.submit(entryOrderId,
+                getParamsForMarketOrder(type, symbol, quantity, type.toString())));
+        execution = toExecution(type, entryPrice, BigDecimal.ZERO, BigDecimal.ZERO, orderResult, null);
+      } else {
+        String makerOrderId = ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.MAKER_ENTRY, crossingId);
+        String closeOrderId = ClientOrderIds.forGridOrder(tradingPair, entryPrice, type, ClientOrderIds.CLOSE, crossingId);
+        execution = executeMakerFirst(symbol, type, entryPrice, quantity, info, makerOrderId, entryOrderId, closeOrderId, properties);
+      }
+      span.tag("executedQty", execution.executedQty()).tag("makerQty", execution.makerQty());
+      executionCostRecorder.record(symbol, entryPrice, execution);
+      return execution;
+    } catch (IOException | RuntimeException e) {
+      span.fail(e);
+      throw e;
+    } finally {
+      span.close();
+    }
+  }
 
-      return new StopLossOrderInfo(false, orderId, null);
+  private EntryExecution executeMakerFirst(String symbol, PositionType type, BigDecimal entryPrice, BigDecimal quantity, SymbolInfo info,
+          String makerOrderId, String takerOrderId, String closeOrderId, TradingProperties.Execution properties) throws IOException {
+    BigDecimal limitPrice = passivePrice(type, entryPrice, getCurrentPrice(symbol), info.getTickSize());
+    OrderResult maker = null;
+    String fallbackReason = "timeout";
+    boolean interrupted = false;
+    boolean settled = false;
+    int polls = 0;
+    Span poll = tracer.startSpan("binance.makerPoll").tag("limitPrice", limitPrice);
+    try {
+      maker = BinanceOrderGateway.await(orderGateway.submit(makerOrderId,
+              getParamsForLimitOrder(type, symbol, quantity, limitPrice, "GTX")));
+      long deadline = System.nanoTime() + properties.getMakerTimeout().toNanos();
+      while (!isFinal(maker.status()) && System.nanoTime() < deadline) {
+        Thread.sleep(properties.getPollInterval().toMillis());
+        maker = queryOrder(symbol, maker.orderId());
+        polls++;
+        if (!isFinal(maker.status()) && hasDrifted(type, limitPrice, getCurrentPrice(symbol), properties.getMaxDriftPercentage())) {
+          fallbackReason = "drift";
+          break;
+        }
+      }
+      settled = true;
+    } catch (com.binance.connector.futures.client.exceptions.BinanceClientException ex) {
+      if (ex.getMessage() == null || !ex.getMessage().contains(POST_ONLY_REJECTED)) {
+        poll.fail(ex);
+        throw ex;
+      }
+      settled = true;
+      fallbackReason = "rejected";
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      settled = true;
+      interrupted = true;
+      fallbackReason = "interrupted";
+    } catch (IOException | RuntimeException e) {
+      poll.fail(e);
+      throw e;
+    } finally {
+      if (!settled) {
+        abandonMakerEntry(symbol, type, makerOrderId, closeOrderId, maker);
+      }
+      if (maker != null) {
+        poll.tag("status", maker.status());
+      }
+      poll.tag("polls", polls).close();
+    }
+
+    if (maker != null && "EXPIRED".equals(maker.status()) && maker.executedQty().signum() == 0) {
+      fallbackReason = "rejected";
+    } else if (maker != null && !isFinal(maker.status())) {
+      maker = cancelEntry(symbol, maker);
+    }
+    BigDecimal makerQty = maker == null ? BigDecimal.ZERO : maker.executedQty();
+    BigDecimal makerPrice = maker == null || maker.avgPrice().signum() == 0 ? limitPrice : maker.avgPrice();
+
+    BigDecimal remaining = quantity.subtract(makerQty).setScale(info.getQuantityPrecision(), RoundingMode.DOWN);
+    if (remaining.signum() <= 0 || interrupted) {
+      return toExecution(type, entryPrice, makerQty, makerPrice, null, remaining.signum() <= 0 ? null : fallbackReason);
+    }
+
+    LinkedHashMap<String, Object> params;
+    if (properties.getFallback() == FallbackOrderType.MARKET) {
+      params = getParamsForMarketOrder(type, symbol, remaining, type.toString());
+    } else {
+      params = getParamsForLimitOrder(type, symbol, remaining,
+              slippageCapPrice(type, getCurrentPrice(symbol), properties.getFallbackSlippagePercentage(), info.getTickSize()), "IOC");
+    }
+    log.info("Maker entry {} on {} filled {} of {} ({}), sending {} for the remaining {}", makerOrderId, symbol, makerQty, quantity,
+            fallbackReason, properties.getFallback(), remaining);
+    OrderResult taker = tracer.call("binance.fallbackOrder",
+            () -> BinanceOrderGateway.await(orderGateway.submit(takerOrderId, params)));
+    return toExecution(type, entryPrice, makerQty, makerPrice, taker, fallbackReason);
+  }
+
+  private EntryExecution toExecution(PositionType type, BigDecimal referencePrice, BigDecimal makerQty, BigDecimal makerPrice,
+          OrderResult taker, String fallbackReason) {
+    TradingProperties.Fees fees = tradingProperties.getFees();
+    BigDecimal takerQty = taker == null ? BigDecimal.ZERO : taker.executedQty();
+    BigDecimal executedQty = makerQty.add(takerQty);
+    if (executedQty.signum() == 0) {
+      throw new IllegalStateException("Entry order was not filled (" + fallbackReason + ")");
+    }
+
+    BigDecimal makerNotional = makerQty.multiply(makerPrice);
+    BigDecimal takerNotional = taker == null ? BigDecimal.ZERO : takerQty.multiply(taker.avgPrice());
+    BigDecimal avgPrice = makerNotional.add(takerNotional).divide(executedQty, 8, RoundingMode.HALF_UP);
+    BigDecimal slippage = avgPrice.subtract(referencePrice).multiply(executedQty);
+    return new EntryExecution(
+            executedQty,
+            avgPrice,
+            makerQty,
+            makerNotional.multiply(fees.getMakerRate()).add(takerNotional.multiply(fees.getTakerRate())),
+            makerNotional.multiply(fees.getTakerRate().subtract(fees.getMakerRate())),
+            type == PositionType.LONG ? slippage : slippage.negate(),
+            fallbackReason);
+  }
+
+  private void abandonMakerEntry(String symbol, PositionType type, String makerOrderId, String closeOrderId, OrderResult maker) {
+    try {
+      OrderResult last = maker;
+      if (last == null) {
+        last = cancelEntry(symbol, orderParams(symbol, "origClientOrderId", makerOrderId));
+      } else if (!isFinal(last.status())) {
+        last = cancelEntry(symbol, last);
+      }
+      if (last.executedQty().signum() > 0) {
+        log.warn("Maker entry {} on {} failed after filling {}, flattening the fill", makerOrderId, symbol, last.executedQty());
+        forceClosePositionByQuantity(symbol, type, type.toString(), last.executedQty(), closeOrderId);
+      }
+    } catch (com.binance.connector.futures.client.exceptions.BinanceClientException ex) {
+      if (maker != null || ex.getMessage() == null || !ex.getMessage().contains(ORDER_NOT_FOUND)) {
+        log.error("Failed to settle abandoned maker entry {} on {}: {}", makerOrderId, symbol, ex.getMessage(), ex);
+      }
+    } catch (Exception e) {
+      log.error("Failed to settle abandoned maker entry {} on {}: {}", makerOrderId, symbol, e.getMessage(), e);
+    }
+  }
+
+  private OrderResult queryOrder(String symbol, long orderId) throws IOException {
+    return queryOrder(orderParams(symbol, "orderId", orderId));
+  }
+
+  private OrderResult queryOrder(LinkedHashMap<String, Object> params) throws IOException {
+    return decoder.decodeOrderResult(BinanceOrderGateway.await(orderTransport.queryOrderAsync(params)));
+  }
+
+  private OrderResult cancelEntry(String symbol, OrderResult order) throws IOException {
+    return cancelEntry(symbol, orderParams(symbol, "orderId", order.orderId()));
+  }
+
+  private OrderResult cancelEntry(String symbol, LinkedHashMap<String, Object> params) throws IOException {
+    try {
+      return decoder.decodeOrderResult(orderTransport.cancelOrder(params));
+    } catch (com.binance.connector.futures.client.exceptions.BinanceClientException ex) {
+      log.warn("Maker entry {} could not be cancelled, reading its final state: {}", params, ex.getMessage());
+      return queryOrder(params);
+    }
+  }
+
+  private LinkedHashMap<String, Object> orderParams(String symbol, String idParam, Object id) {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", symbol);
+    params.put(idParam, id);
+    return params;
+  }
+
+  private boolean isFinal(String status) {
+    return !"NEW".equals(status) && !"PARTIALLY_FILLED".equals(status);
+  }
+
+  private boolean hasDrifted(PositionType type, BigDecimal limitPrice, BigDecimal marketPrice, BigDecimal maxDriftPercentage) {
+    BigDecimal drift = marketPrice.subtract(limitPrice).multiply(ONE_HUNDRED).divide(limitPrice, 8, RoundingMode.HALF_UP);
+    return (type == PositionType.LONG ? drift : drift.negate()).compareTo(maxDriftPercentage) > 0;
+  }
+
+  private BigDecimal passivePrice(PositionType type, BigDecimal entryPrice, BigDecimal marketPrice, BigDecimal tickSize) {
+    if (type == PositionType.LONG) {
+      return roundToTick(entryPrice.min(marketPrice.subtract(tickSize)), tickSize, RoundingMode.DOWN);
+    }
+    return roundToTick(entryPrice.max(marketPrice.add(tickSize)), tickSize, RoundingMode.UP);
+  }
+
+  private BigDecimal slippageCapPrice(PositionType type, BigDecimal marketPrice, BigDecimal slippagePercentage, BigDecimal tickSize) {
+    BigDecimal slippage = slippagePercentage.divide(ONE_HUNDRED, 8, RoundingMode.HALF_UP);
+    if (type == PositionType.LONG) {
+      return roundToTick(marketPrice.multiply(BigDecimal.ONE.add(slippage)), tickSize, RoundingMode.DOWN);
+    }
+    return roundToTick(marketPrice.multiply(BigDecimal.ONE.subtract(slippage)), tickSize, RoundingMode.UP);
+  }
+
+  private BigDecimal roundToTick(BigDecimal price, BigDecimal tickSize, RoundingMode roundingMode) {
+    return price.divide(tickSize, 0, roundingMode).multiply(tickSize).stripTrailingZeros();
+  }
+
+  private StopLossOrderInfo awaitStopLossOrder(String symbol, PositionType type, String positionSide, BigDecimal executedQty,
+          String closeOrderId, CompletableFuture<OrderResult> stopLossOrder) {
+    try {
+      OrderResult orderResult = BinanceOrderGateway.await(stopLossOrder);
+
+      return new StopLossOrderInfo(false, orderResult.orderId(), null);
     } catch (com.binance.connector.futures.client.exceptions.BinanceClientException ex) {
       String errorMessage = ex.getMessage();
       log.error("Error placing STOP LOSS for {}: {}", symbol, errorMessage);
 
       if (errorMessage != null && errorMessage.contains("\"code\":-2021")) {
         log.warn("STOP LOSS would immediately trigger for {}. Closing position instead.", symbol);
-        BigDecimal endPrice = forceClosePositionByQuantity(symbol, type, positionSide, executedQty);
+        BigDecimal endPrice = forceClosePositionByQuantity(symbol, type, positionSide, executedQty, closeOrderId);
         return new StopLossOrderInfo(true, null, endPrice);
       } else {
         throw ex;
@@ -147,15 +394,26 @@ public class BinanceService implements ExchangeService {
     }
   }
 
-  private BigDecimal forceClosePositionByQuantity(String symbol, PositionType type, String positionSide, BigDecimal executedQty) {
+  private Long awaitTakeProfitOrder(String symbol, PositionType type, BigDecimal takeProfitPrice, CompletableFuture<OrderResult> takeProfitOrder) {
+    try {
+      OrderResult orderResult = BinanceOrderGateway.await(takeProfitOrder);
+      log.info("Placed TAKE PROFIT at {} for {} {}", takeProfitPrice, type, symbol);
+      return orderResult.orderId();
+    } catch (Exception ex) {
+      log.warn("Failed to place TAKE PROFIT at {} for {} {}, it will be closed on level crossing: {}",
+              takeProfitPrice, type, symbol, ex.getMessage());
+      return null;
+    }
+  }
+
+  private BigDecimal forceClosePositionByQuantity(String symbol, PositionType type, String positionSide, BigDecimal executedQty,
+          String closeOrderId) {
     try {
       String orderSide = type == PositionType.LONG ? "SELL" : "BUY";
       LinkedHashMap<String, Object> closeParams = buildClosePositionParams(symbol, positionSide, executedQty, orderSide);
-      String closeResult = client.account().newOrder(closeParams);
-      JSONObject orderJson = new JSONObject(closeResult);
-      String avgPrice = orderJson.getString("avgPrice");
-      log.warn("Force-closed {} position for {} with qty={}: {}", positionSide, symbol, executedQty, closeResult);
-      return new BigDecimal(avgPrice);
+      OrderResult closeResult = BinanceOrderGateway.await(orderGateway.submit(closeOrderId, closeParams));
+      log.warn("Force-closed {} position for {} with qty={}: avgPrice={}", positionSide, symbol, executedQty, closeResult.avgPrice());
+      return closeResult.avgPrice();
     } catch (Exception e) {
       log.error("Failed to force-close {} position for {}: {}", positionSide, symbol, e.getMessage(), e);
       return null;
@@ -185,6 +443,20 @@ public class BinanceService implements ExchangeService {
     return params;
   }
 
+  private LinkedHashMap<String, Object> getParamsForLimitOrder(PositionType type, String symbol, BigDecimal quantity, BigDecimal price,
+          String timeInForce) {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", symbol);
+    params.put("side", (type == PositionType.LONG) ? "BUY" : "SELL");
+    params.put("type", "LIMIT");
+    params.put("timeInForce", timeInForce);
+    params.put("price", price.toPlainString());
+    params.put("quantity", quantity.toPlainString());
+    params.put("positionSide", type.toString());
+    params.put("newOrderRespType", "RESULT");
+    return params;
+  }
+
   private LinkedHashMap<String, Object> getParamsForStopMarketOrder(PositionType type, String symbol, BigDecimal stopLossPrice, String positionSide, BigDecimal executedQty) {
     LinkedHashMap<String, Object> slParams = new LinkedHashMap<>();
     slParams.put("symbol", symbol);
@@ -193,10 +465,22 @@ public class BinanceService implements ExchangeService {
     slParams.put("stopPrice", stopLossPrice.toPlainString());
     slParams.put("positionSide", positionSide);
     slParams.put("workingType", "MARK_PRICE");
-    slParams.put("quantity", executedQty);
+    slParams.put("quantity", executedQty.toPlainString());
     return slParams;
   }
 
+  private LinkedHashMap<String, Object> getParamsForTakeProfitMarketOrder(PositionType type, String symbol, BigDecimal takeProfitPrice, String positionSide, BigDecimal executedQty) {
+    LinkedHashMap<String, Object> tpParams = new LinkedHashMap<>();
+    tpParams.put("symbol", symbol);
+    tpParams.put("side", (type == PositionType.LONG) ? "SELL" : "BUY");
+    tpParams.put("type", "TAKE_PROFIT_MARKET");
+    tpParams.put("stopPrice", takeProfitPrice.toPlainString());
+    tpParams.put("positionSide", positionSide);
+    tpParams.put("workingType", "CONTRACT_PRICE");
+    tpParams.put("quantity", executedQty.toPlainString());
+    return tpParams;
+  }
+
   private BigDecimal calculateStopLoss(BigDecimal entryPrice, PositionType type, BigDecimal stopLossPercent) {
     BigDecimal multiplier = stopLossPercent.divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP);
 
@@ -209,11 +493,7 @@ public class BinanceService implements ExchangeService {
 
   private BigDecimal getCurrentPrice(String symbol) {
     try {
-      LinkedHashMap<String, Object> params = new LinkedHashMap<>();
-      params.put("symbol", symbol);
-      String result = client.market().tickerSymbol(params);
-      JSONObject json = new JSONObject(result);
-      return new BigDecimal(json.getString("price"));
+      return priceProvider.getPrice(symbol).price();
     } catch (Exception e) {
       log.error("Failed to get current price for {}: {}", symbol, e.getMessage());
       throw new RuntimeException("Failed to get current price for " + symbol, e);
@@ -230,55 +510,188 @@ public class BinanceService implements ExchangeService {
     try {
       LinkedHashMap<String, Object> params = new LinkedHashMap<>();
       params.put("symbol", symbol);
-      String result = client.account().positionInformation(params);
-      JsonNode positions = mapper.readTree(result);
-
-      cancelStopLossOrder(symbol, positionEntity.getStopLossOrderId());
-      if (positions.isArray()) {
-        for (JsonNode pos : positions) {
-          String apiPositionSide = pos.get("positionSide").asText();
-
-          if (positionSide.equals(apiPositionSide)) {
-            BigDecimal positionAmt = new BigDecimal(pos.get("positionAmt").asText());
-
-            if (positionAmt.compareTo(BigDecimal.ZERO) != 0) {
-              String orderSide = positionSide.equals("LONG") ? "SELL" : "BUY";
-              BigDecimal qtyToClose = positionAmt.abs();
-
-              LinkedHashMap<String, Object> closeParams = buildClosePositionParams(symbol, positionSide, qtyToClose, orderSide);
-              String closeResult = client.account().newOrder(closeParams);
-              log.info("Closed {} {} contracts on {} {}: {}", qtyToClose, orderSide, symbol, positionSide, closeResult);
-              return;
-            } else {
-              log.info("No open {} position found for {}", positionSide, symbol);
-              positionEntity.setStatus(PositionStatus.CLOSED);
-              positionEntity.setClosedAt(Instant.now());
-              return;
-            }
+      Long takeProfitOrderId = positionEntity.getTakeProfitOrderId();
+      if (!cancelProtectiveOrder(symbol, takeProfitOrderId)
+              && closedByProtectiveOrder(positionEntity, symbol, takeProfitOrderId, positionEntity.getTakeProfitPrice())) {
+        cancelProtectiveOrder(symbol, positionEntity.getStopLossOrderId());
+        log.info("Take profit order {} already executed for {} {}", takeProfitOrderId, positionSide, symbol);
+        return;
+      }
+
+      Long stopLossOrderId = positionEntity.getStopLossOrderId();
+      if (!cancelProtectiveOrder(symbol, stopLossOrderId)
+              && closedByProtectiveOrder(positionEntity, symbol, stopLossOrderId, positionEntity.getStopLossPrice())) {
+        log.info("Stop loss order {} already executed for {} {}", stopLossOrderId, positionSide, symbol);
+        return;
+      }
+
+      List<PositionRisk> positions = decoder.decodePositionRisks(client.account().positionInformation(params));
+      for (PositionRisk pos : positions) {
+        if (positionSide.equals(pos.positionSide())) {
+          BigDecimal positionAmt = pos.positionAmt();
+
+          if (positionAmt.compareTo(BigDecimal.ZERO) != 0) {
+            String orderSide = positionSide.equals("LONG") ? "SELL" : "BUY";
+            BigDecimal qtyToClose = positionAmt.abs();
+
+            LinkedHashMap<String, Object> closeParams = buildClosePositionParams(symbol, positionSide, qtyToClose, orderSide);
+            String closeOrderId = ClientOrderIds.forPositionClose(positionEntity.getTradingPair(), positionEntity.getType(),
+                    positionEntity.getId());
+            OrderResult closeResult = BinanceOrderGateway.await(orderGateway.submit(closeOrderId, closeParams));
+            log.info("Closed {} {} contracts on {} {}: orderId={}, avgPrice={}", qtyToClose, orderSide, symbol, positionSide,
+                    closeResult.orderId(), closeResult.avgPrice());
+            return;
+          } else {
+            log.info("No open {} position found for {}", positionSide, symbol);
+            positionEntity.setStatus(PositionStatus.CLOSED);
+            positionEntity.setClosedAt(Instant.now());
+            return;
           }
         }
-
-        log.warn("Position side {} not found in API response for {}", positionSide, symbol);
       }
 
+      log.warn("Position side {} not found in API response for {}", positionSide, symbol);
+
     } catch (Exception e) {
       log.error("Failed to close {} position for {}", positionSide, symbol, e);
       throw new RuntimeException("Failed to close position for " + symbol, e);
     }
   }
 
-  private void cancelStopLossOrder(String symbol, Long stopLossOrderId) {
+  private boolean closedByProtectiveOrder(PositionEntity positionEntity, String symbol, Long orderId, BigDecimal plannedPrice)
+          throws IOException {
+    OrderResult order = queryOrder(symbol, orderId);
+    if (!"FILLED".equals(order.status())) {
+      log.warn("Protective order {} for {} ended as {} without a fill, closing at market", orderId, symbol, order.status());
+      return false;
+    }
+    positionEntity.setStatus(PositionStatus.CLOSED);
+    positionEntity.setEndPrice(order.avgPrice() != null && order.avgPrice().signum() > 0 ? order.avgPrice() : plannedPrice);
+    positionEntity.setClosedAt(Instant.now());
+    return true;
+  }
+
+  @Override
+  public OrderResult closeSide(TradingPairEntity tradingPair, PositionType type, BigDecimal quantity, String clientOrderId) {
+    return closeSide(tradingPair.getSymbol(), type, quantity, clientOrderId);
+  }
+
+  @Override
+  public OrderResult closeSide(String symbol, PositionType type, BigDecimal quantity, String clientOrderId) {
+    String positionSide = type.toString();
+    String orderSide = type == PositionType.LONG ? "SELL" : "BUY";
+
     try {
-      if (stopLossOrderId == null) {
-        log.info("No stop loss order to cancel for {}", symbol);
-        return;
+      LinkedHashMap<String, Object> closeParams = buildClosePositionParams(symbol, positionSide, quantity, orderSide);
+      OrderResult closeResult = BinanceOrderGateway.await(orderGateway.submit(clientOrderId, closeParams));
+      log.info("Closed {} {} contracts on {} {}: orderId={}, executedQty={}, avgPrice={}", quantity, orderSide, symbol, positionSide,
+              closeResult.orderId(), closeResult.executedQty(), closeResult.avgPrice());
+      cachedBalance = null;
+      return closeResult;
+    } catch (Exception e) {
+      log.error("Failed to close {} {} contracts on {} {}", quantity, orderSide, symbol, positionSide, e);
+      throw new RuntimeException("Failed to close " + positionSide + " side for " + symbol, e);
+    }
+  }
+
+  @Override
+  public Set<Long> cancelOrders(TradingPairEntity tradingPair, List<Long> orderIds) {
+    String symbol = tradingPair.getSymbol();
+    Set<Long> gone = new HashSet<>();
+
+    List<List<Long>> batches = new ArrayList<>();
+    List<CompletableFuture<String>> responses = new ArrayList<>();
+    for (int from = 0; from < orderIds.size(); from += MAX_BATCH_CANCEL_SIZE) {
+      List<Long> batch = orderIds.subList(from, Math.min(from + MAX_BATCH_CANCEL_SIZE, orderIds.size()));
+      batches.add(batch);
+      responses.add(orderTransport.cancelBatchOrdersAsync(symbol, batch));
+    }
+
+    List<Long> failed = new ArrayList<>();
+    Exception failure = null;
+    for (int b = 0; b < batches.size(); b++) {
+      List<Long> batch = batches.get(b);
+      try {
+        List<Integer> codes = decoder.decodeBatchErrorCodes(BinanceOrderGateway.await(responses.get(b)));
+        int cancelled = 0;
+        for (int i = 0; i < batch.size(); i++) {
+          int code = i < codes.size() ? codes.get(i) : UNKNOWN_BATCH_RESULT;
+          if (code == 0) {
+            cancelled++;
+          } else if (code == UNKNOWN_ORDER || code == ORDER_DOES_NOT_EXIST) {
+            gone.add(batch.get(i));
+          } else {
+            log.error("Failed to cancel order {} for {}: code {}", batch.get(i), symbol, code);
+            failed.add(batch.get(i));
+          }
+        }
+        log.info("Cancelled {} of {} orders for {}", cancelled, batch.size(), symbol);
+      } catch (Exception e) {
+        log.error("Failed to cancel orders {} for {}: {}", batch, symbol, e.getMessage());
+        failed.addAll(batch);
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (!failed.isEmpty()) {
+      throw new IllegalStateException("Failed to cancel orders " + failed + " for " + symbol, failure);
+    }
+    return gone;
+  }
+
+  @Override
+  public OrderResult queryOrder(TradingPairEntity tradingPair, Long orderId) {
+    try {
+      return queryOrder(tradingPair.getSymbol(), orderId);
+    } catch (Exception e) {
+      log.error("Failed to query order {} for {}: {}", orderId, tradingPair.getSymbol(), e.getMessage());
+      throw new RuntimeException("Failed to query order " + orderId + " for " + tradingPair.getSymbol(), e);
+    }
+  }
+
+  @Override
+  public void cancelAllOpenOrders(String symbol) {
+    try {
+      orderTransport.cancelAllOpenOrders(symbol);
+      log.info("Cancelled all open orders for {}", symbol);
+    } catch (Exception e) {
+      log.error("Failed to cancel all open orders for {}: {}", symbol, e.getMessage());
+      throw new RuntimeException("Failed to cancel all open orders for " + symbol, e);
+    }
+  }
+
+  @Override
+  public List<PositionRisk> getOpenPositionRisks() {
+    try {
+      List<PositionRisk> positions = decoder.decodePositionRisks(client.account().positionInformation(new LinkedHashMap<>()));
+      positions.removeIf(position -> position.positionAmt().signum() == 0);
+      return positions;
+    } catch (Exception e) {
+      log.error("Failed to get position risk: {}", e.getMessage());
+      throw new RuntimeException("Failed to get position risk", e);
+    }
+  }
+
+  @Override
+  public void cancelOrder(TradingPairEntity tradingPair, Long orderId) {
+    cancelProtectiveOrder(tradingPair.getSymbol(), orderId);
+  }
+
+  private boolean cancelProtectiveOrder(String symbol, Long orderId) {
+    try {
+      if (orderId == null) {
+        return true;
       }
       LinkedHashMap<String, Object> cancelParams = new LinkedHashMap<>();
       cancelParams.put("symbol", symbol);
-      cancelParams.put("orderId", stopLossOrderId);
+      cancelParams.put("orderId", orderId);
 
-      String cancelResult = client.account().cancelOrder(cancelParams);
-      log.info("Cancelled stop loss order {} for {}: {}", stopLossOrderId, symbol, cancelResult);
+      orderTransport.cancelOrder(cancelParams);
+      log.info("Cancelled order {} for {}", orderId, symbol);
+      return true;
     } catch (com.binance.connector.futures.client.exceptions.BinanceClientException ex) {
       String errorMessage = ex.getMessage();
 
@@ -286,28 +699,35 @@ public class BinanceService implements ExchangeService {
               errorMessage.contains("\"code\":-2011") ||  // Order not found
                       errorMessage.contains("\"code\":-2013") ||  // Order does not exist
                       errorMessage.contains("\"code\":-1145"))) { // Order already filled/cancelled
-        log.warn("Stop loss order {} for {} already executed or cancelled: {}", stopLossOrderId, symbol, errorMessage);
+        log.warn("Order {} for {} already executed or cancelled: {}", orderId, symbol, errorMessage);
+        return false;
       } else {
-        log.error("Failed to cancel stop loss order {} for {}: {}", stopLossOrderId, symbol, errorMessage);
+        log.error("Failed to cancel order {} for {}: {}", orderId, symbol, errorMessage);
       }
     } catch (Exception ex) {
-      log.error("Unexpected error cancelling stop loss order {} for {}: {}", stopLossOrderId, symbol, ex.getMessage());
+      log.error("Unexpected error cancelling order {} for {}: {}", orderId, symbol, ex.getMessage());
     }
+    return true;
+  }
+
+  @Override
+  public BigDecimal getAccountBalance(TradingPairEntity tradingPair) {
+    return getAccountBalance();
   }
 
   @Override
   public BigDecimal getAccountBalance() {
+    BigDecimal balance = cachedBalance;
+    if (balance != null && System.currentTimeMillis() - balanceCachedAt < BALANCE_CACHE_TTL_MS) {
+      return balance;
+    }
     String result = client.account().futuresAccountBalance(new LinkedHashMap<>());
     try {
-      JsonNode node = mapper.readTree(result);
-      for (JsonNode balance : node) {
-        if ("USDT".equals(balance.get("asset").asText())) {
-          BigDecimal free = new BigDecimal(balance.get("balance").asText());
-          log.info("Getting account balance: {}", free);
-          return free;
-        }
-      }
-      return BigDecimal.ZERO;
+      BigDecimal free = decoder.decodeAssetBalance(result, "USDT");
+      log.debug("Getting account balance: {}", free);
+      cachedBalance = free;
+      balanceCachedAt = System.currentTimeMillis();
+      return free;
     } catch (Exception e) {
       throw new RuntimeException("Failed to parse balance response: " + result, e);
     }
@@ -320,20 +740,9 @@ public class BinanceService implements ExchangeService {
 
     try {
       String responseBody = client.account().currentAllOpenOrders(params);
-      JsonNode ordersArray = mapper.readTree(responseBody);
-
-      List<Long> orderIds = new ArrayList<>();
-
-      if (ordersArray.isArray()) {
-        for (JsonNode order : ordersArray) {
-          if (order.has("orderId")) {
-            Long orderId = order.get("orderId").asLong();
-            orderIds.add(orderId);
-          }
-        }
-      }
+      List<Long> orderIds = decoder.decodeOrderIds(responseBody);
 
-      log.info("Found {} open orders for {}", orderIds.size(), tradingPair.getSymbol());
+      log.debug("Found {} open orders for {}", orderIds.size(), tradingPair.getSymbol());
       return orderIds;
 
     } catch (Exception e) {
@@ -0,0 +1,98 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.config.BinanceConfigProperties;
+import com.andnor.tradenet.core.util.CircuitBreaker;
+import com.andnor.tradenet.core.util.CircuitOpenException;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ExchangeCircuitBreakers {
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int IP_BANNED = 418;
+
+  private final BinanceConfigProperties.Breaker properties;
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  public ExchangeCircuitBreakers(BinanceConfigProperties binanceConfigProperties) {
+    this.properties = binanceConfigProperties.getBreaker();
+  }
+
+  public <T> T call(String endpoint, Supplier<T> request) {
+    CircuitBreaker breaker = breaker(endpoint);
+    if (!breaker.tryAcquire()) {
+      throw new CircuitOpenException(endpoint, breaker.getRetryAfterMillis());
+    }
+
+    CircuitBreaker.State before = breaker.getState();
+    try {
+      T result = request.get();
+      breaker.onSuccess();
+      logTransition(breaker, before);
+      return result;
+    } catch (RuntimeException e) {
+      onError(breaker, e);
+      logTransition(breaker, before);
+      throw e;
+    }
+  }
+
+  public void run(String endpoint, Runnable request) {
+    call(endpoint, () -> {
+      request.run();
+      return null;
+    });
+  }
+
+  public Collection<CircuitBreaker> getBreakers() {
+    return breakers.values();
+  }
+
+  private void onError(CircuitBreaker breaker, RuntimeException error) {
+    int status = clientErrorStatus(error);
+    if (status == IP_BANNED) {
+      log.error("Binance banned this IP ({}), opening all circuits for {}", error.getMessage(), properties.getBanOpenDuration());
+      breakers.values().forEach(other -> other.trip(properties.getBanOpenDuration()));
+    } else if (status == TOO_MANY_REQUESTS) {
+      log.warn("Binance rate limit hit on {}, opening circuit for {}", breaker.getName(), properties.getRateLimitOpenDuration());
+      breaker.trip(properties.getRateLimitOpenDuration());
+    } else if (status > 0) {
+      breaker.onSuccess();
+    } else {
+      breaker.onFailure();
+    }
+  }
+
+  private int clientErrorStatus(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof BinanceClientException clientException) {
+        return clientException.getHttpStatusCode();
+      }
+    }
+    return 0;
+  }
+
+  private void logTransition(CircuitBreaker breaker, CircuitBreaker.State before) {
+    CircuitBreaker.State after = breaker.getState();
+    if (before == after) {
+      return;
+    }
+    if (after == CircuitBreaker.State.OPEN) {
+      log.warn("Circuit for {} opened, retry in {} ms", breaker.getName(), breaker.getRetryAfterMillis());
+    } else if (after == CircuitBreaker.State.CLOSED) {
+      log.info("Circuit for {} closed", breaker.getName());
+    }
+  }
+
+  private CircuitBreaker breaker(String endpoint) {
+    return breakers.computeIfAbsent(endpoint, name -> new CircuitBreaker(name, properties.getWindowSize(), properties.getMinCalls(),
+            properties.getFailureRateThreshold(), properties.getOpenDuration(), properties.getHalfOpenProbes()));
+  }
+}
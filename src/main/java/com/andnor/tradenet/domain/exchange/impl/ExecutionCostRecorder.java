@@ -0,0 +1,55 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.domain.exchange.model.EntryExecution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionCostRecorder {
+  private static final BigDecimal BASIS_POINTS = BigDecimal.valueOf(10_000);
+
+  private final MeterRegistry meterRegistry;
+
+  public void record(String symbol, BigDecimal referencePrice, EntryExecution execution) {
+    String liquidity = execution.isFullyMaker() ? "maker" : execution.makerQty().signum() > 0 ? "mixed" : "taker";
+    BigDecimal referenceNotional = referencePrice.multiply(execution.executedQty());
+    double slippageBps = referenceNotional.signum() == 0 ? 0
+            : execution.slippage().multiply(BASIS_POINTS).divide(referenceNotional, 4, RoundingMode.HALF_UP).doubleValue();
+
+    DistributionSummary.builder("trading.execution.slippage")
+            .baseUnit("bps")
+            .tag("liquidity", liquidity)
+            .register(meterRegistry)
+            .record(slippageBps);
+    Counter.builder("trading.execution.fees")
+            .baseUnit("usdt")
+            .tag("liquidity", liquidity)
+            .register(meterRegistry)
+            .increment(execution.fee().doubleValue());
+    Counter.builder("trading.execution.fee.savings")
+            .baseUnit("usdt")
+            .register(meterRegistry)
+            .increment(execution.feeSavings().doubleValue());
+    if (execution.fallbackReason() != null) {
+      Counter.builder("trading.execution.fallbacks")
+              .tag("reason", execution.fallbackReason())
+              .register(meterRegistry)
+              .increment();
+    }
+
+    log.debug("Entry on {} filled {} ({} maker) at {} vs level {}: slippage {} USDT ({} bps), fee {} USDT, saved {} USDT{}",
+            symbol, execution.executedQty(), execution.makerQty(), execution.avgPrice(), referencePrice,
+            execution.slippage().setScale(4, RoundingMode.HALF_UP), slippageBps, execution.fee().setScale(4, RoundingMode.HALF_UP),
+            execution.feeSavings().setScale(4, RoundingMode.HALF_UP),
+            execution.fallbackReason() == null ? "" : ", fell back on " + execution.fallbackReason());
+  }
+}
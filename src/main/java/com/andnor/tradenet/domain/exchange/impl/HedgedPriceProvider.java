@@ -0,0 +1,266 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.config.BinanceConfigProperties;
+import com.andnor.tradenet.core.util.LatencyHistogram;
+import com.andnor.tradenet.domain.exchange.model.PriceSourceStats;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import com.binance.connector.futures.client.exceptions.BinanceServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class HedgedPriceProvider {
+  private static final String[] TICKER_PATHS = { "/fapi/v1/ticker/price?symbol=", "/fapi/v2/ticker/price?symbol=" };
+  private static final long RANKING_REFRESH_INTERVAL_MS = 1_000;
+  private static final long HISTOGRAM_DECAY_THRESHOLD = 4_096;
+  private static final double ERROR_RATE_WEIGHT = 0.05;
+
+  private final HttpClient httpClient;
+  private final BinanceResponseDecoder decoder;
+  private final BinanceConfigProperties.PriceHedging properties;
+  private final PriceSource[] sources;
+  private volatile PriceSource[] ranking;
+  private volatile long rankedAt;
+
+  public HedgedPriceProvider(HttpClient binanceHttpClient, BinanceResponseDecoder decoder, BinanceConfigProperties binanceConfigProperties) {
+    this.httpClient = binanceHttpClient;
+    this.decoder = decoder;
+    this.properties = binanceConfigProperties.getPriceHedging();
+
+    List<String> baseUrls = new ArrayList<>();
+    baseUrls.add(binanceConfigProperties.getBaseUrl());
+    baseUrls.addAll(properties.getMirrorBaseUrls());
+
+    List<PriceSource> configured = new ArrayList<>();
+    for (String path : TICKER_PATHS) {
+      for (String baseUrl : baseUrls) {
+        configured.add(new PriceSource(baseUrl + path));
+      }
+    }
+    this.sources = configured.toArray(PriceSource[]::new);
+    this.ranking = sources;
+    this.rankedAt = System.currentTimeMillis();
+  }
+
+  public TickerPrice getPrice(String symbol) {
+    CompletableFuture<TickerPrice> result = new HedgedRead(symbol, ranking()).start();
+    try {
+      return result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reading price for " + symbol, e);
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      throw new IllegalStateException("No price source answered for " + symbol + " within " + properties.getTimeout(), e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("All price sources failed for " + symbol, e.getCause());
+    }
+  }
+
+  public List<PriceSourceStats> getSourceStats() {
+    long now = System.currentTimeMillis();
+    List<PriceSourceStats> stats = new ArrayList<>();
+    for (PriceSource source : ranking()) {
+      stats.add(new PriceSourceStats(source.url, source.latencies.count(), source.latencies.percentile(0.5),
+              source.latencies.percentile(0.95), source.latencies.percentile(0.99), source.errorRate, source.demotedUntil > now));
+    }
+    return stats;
+  }
+
+  private PriceSource[] ranking() {
+    long now = System.currentTimeMillis();
+    if (now - rankedAt >= RANKING_REFRESH_INTERVAL_MS) {
+      synchronized (this) {
+        if (now - rankedAt >= RANKING_REFRESH_INTERVAL_MS) {
+          ranking = rank(now);
+          rankedAt = now;
+        }
+      }
+    }
+    return ranking;
+  }
+
+  private PriceSource[] rank(long now) {
+    long bestP95 = Long.MAX_VALUE;
+    for (PriceSource source : sources) {
+      source.p95 = source.latencies.count() >= properties.getMinSamples() ? source.latencies.percentile(0.95) : -1;
+      if (source.p95 >= 0 && source.errorRate <= properties.getMaxErrorRate()) {
+        bestP95 = Math.min(bestP95, source.p95);
+      }
+    }
+
+    for (PriceSource source : sources) {
+      boolean slow = source.p95 >= 0 && bestP95 != Long.MAX_VALUE && source.p95 > bestP95 * properties.getDemotionFactor();
+      boolean failing = source.errorRate > properties.getMaxErrorRate();
+      if ((slow || failing) && source.demotedUntil <= now) {
+        source.demotedUntil = now + properties.getDemotionPeriod().toMillis();
+        log.warn("Demoting price source {}: p95={}us (best {}us), error rate {}", source.url, source.p95,
+                bestP95 == Long.MAX_VALUE ? "n/a" : bestP95, String.format("%.2f", source.errorRate));
+      }
+    }
+
+    PriceSource[] ranked = sources.clone();
+    Arrays.sort(ranked, Comparator.<PriceSource>comparingInt(source -> source.demotedUntil > now ? 1 : 0)
+            .thenComparingLong(source -> source.p95 < 0 ? 0 : source.p95));
+    return ranked;
+  }
+
+  private long hedgeDelayMillis(PriceSource primary) {
+    if (primary.p95 < 0) {
+      return properties.getInitialDelay().toMillis();
+    }
+    long p95Millis = TimeUnit.MICROSECONDS.toMillis(primary.p95);
+    return Math.max(properties.getMinDelay().toMillis(), Math.min(properties.getMaxDelay().toMillis(), p95Millis));
+  }
+
+  private final class HedgedRead {
+    private final String symbol;
+    private final PriceSource[] ranked;
+    private final CompletableFuture<TickerPrice> result = new CompletableFuture<>();
+    private final AtomicBoolean hedged = new AtomicBoolean();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final List<Attempt> attempts = new ArrayList<>(2);
+
+    private HedgedRead(String symbol, PriceSource[] ranked) {
+      this.symbol = symbol;
+      this.ranked = ranked;
+    }
+
+    private CompletableFuture<TickerPrice> start() {
+      result.whenComplete((price, error) -> cancelLosers());
+      launch(ranked[0], true);
+      if (ranked.length > 1) {
+        CompletableFuture.delayedExecutor(hedgeDelayMillis(ranked[0]), TimeUnit.MILLISECONDS).execute(this::hedge);
+      }
+      return result;
+    }
+
+    private void hedge() {
+      if (!result.isDone() && hedged.compareAndSet(false, true)) {
+        launch(ranked[1], false);
+      }
+    }
+
+    private void launch(PriceSource source, boolean primary) {
+      pending.incrementAndGet();
+      HttpRequest request = HttpRequest.newBuilder(URI.create(source.url + symbol))
+              .timeout(properties.getTimeout())
+              .GET()
+              .build();
+      long startedAt = System.nanoTime();
+      CompletableFuture<HttpResponse<String>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+      Attempt attempt = new Attempt(source, primary, startedAt, response);
+      synchronized (attempts) {
+        attempts.add(attempt);
+      }
+
+      response.thenApply(this::decode).whenComplete((price, error) -> {
+        if (attempt.cancelled) {
+          return;
+        }
+        source.record(elapsedMicros(startedAt), error == null);
+        if (error == null) {
+          result.complete(price);
+          return;
+        }
+        log.debug("Price source {} failed for {}: {}", source.url, symbol, error.getMessage());
+        if (primary) {
+          hedge();
+        }
+        if (pending.decrementAndGet() == 0 && (hedged.get() || ranked.length == 1)) {
+          result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+      });
+    }
+
+    private TickerPrice decode(HttpResponse<String> response) {
+      int status = response.statusCode();
+      if (status >= 500) {
+        throw new BinanceServerException(response.body(), status);
+      }
+      if (status != 200) {
+        throw new BinanceClientException(response.body(), status);
+      }
+      try {
+        return decoder.decodeTicker(response.body());
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to parse ticker response: " + response.body(), e);
+      }
+    }
+
+    private void cancelLosers() {
+      synchronized (attempts) {
+        for (Attempt attempt : attempts) {
+          if (!attempt.response.isDone()) {
+            attempt.cancelled = true;
+            attempt.response.cancel(true);
+            if (attempt.primary) {
+              attempt.source.record(elapsedMicros(attempt.startedAt), true);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static long elapsedMicros(long startedAt) {
+    return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+  }
+
+  private static final class Attempt {
+    private final PriceSource source;
+    private final boolean primary;
+    private final long startedAt;
+    private final CompletableFuture<HttpResponse<String>> response;
+    private volatile boolean cancelled;
+
+    private Attempt(PriceSource source, boolean primary, long startedAt, CompletableFuture<HttpResponse<String>> response) {
+      this.source = source;
+      this.primary = primary;
+      this.startedAt = startedAt;
+      this.response = response;
+    }
+  }
+
+  private static final class PriceSource {
+    private final String url;
+    private final LatencyHistogram latencies = new LatencyHistogram(HISTOGRAM_DECAY_THRESHOLD);
+    private volatile double errorRate;
+    private volatile long demotedUntil;
+    private volatile long p95 = -1;
+
+    private PriceSource(String url) {
+      this.url = url;
+    }
+
+    private void record(long micros, boolean success) {
+      if (success) {
+        latencies.record(micros);
+      }
+      synchronized (this) {
+        errorRate += ERROR_RATE_WEIGHT * ((success ? 0 : 1) - errorRate);
+      }
+    }
+  }
+}
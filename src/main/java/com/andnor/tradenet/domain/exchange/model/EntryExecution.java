@@ -0,0 +1,10 @@
+package com.andnor.tradenet.domain.exchange.model;
+
+import java.math.BigDecimal;
+
+public record EntryExecution(BigDecimal executedQty, BigDecimal avgPrice, BigDecimal makerQty, BigDecimal fee, BigDecimal feeSavings,
+                             BigDecimal slippage, String fallbackReason) {
+  public boolean isFullyMaker() {
+    return makerQty.compareTo(executedQty) == 0;
+  }
+}
@@ -0,0 +1,5 @@
+package com.andnor.tradenet.domain.exchange.model;
+
+public enum FallbackOrderType {
+    IOC, MARKET
+}
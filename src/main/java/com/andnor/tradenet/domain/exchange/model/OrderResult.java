@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.exchange.model;
+
+import java.math.BigDecimal;
+
+public record OrderResult(long orderId, String clientOrderId, String status, BigDecimal executedQty, BigDecimal avgPrice) {
+}
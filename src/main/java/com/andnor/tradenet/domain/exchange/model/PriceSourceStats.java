@@ -0,0 +1,5 @@
+package com.andnor.tradenet.domain.exchange.model;
+
+public record PriceSourceStats(String name, long samples, long p50Micros, long p95Micros, long p99Micros, double errorRate,
+        boolean demoted) {
+}
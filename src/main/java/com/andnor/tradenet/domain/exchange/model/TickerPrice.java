@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.exchange.model;
+
+import java.math.BigDecimal;
+
+public record TickerPrice(String symbol, BigDecimal price, long time) {
+}
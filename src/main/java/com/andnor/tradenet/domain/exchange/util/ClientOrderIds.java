@@ -0,0 +1,49 @@
+package com.andnor.tradenet.domain.exchange.util;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@UtilityClass
+public class ClientOrderIds {
+  public static final char ENTRY = 'E';
+  public static final char MAKER_ENTRY = 'M';
+  public static final char STOP_LOSS = 'S';
+  public static final char TAKE_PROFIT = 'T';
+  public static final char CLOSE = 'C';
+  public static final char POSITION_CLOSE = 'P';
+  public static final char FLATTEN = 'F';
+
+  private static final String PREFIX = "tn";
+
+  public long crossingId(TradingPairEntity pair, BigDecimal level, boolean upward, long crossingSequence) {
+    long crossingKey = Objects.hash(pair.getId(), pair.getStrategyTag(), level.stripTrailingZeros(), upward) & 0xFFFFL;
+    return crossingSequence << 17 | crossingKey << 1 | (upward ? 1 : 0);
+  }
+
+  public String forGridOrder(TradingPairEntity pair, BigDecimal level, PositionType type, char purpose, long crossingId) {
+    String levelKey = Long.toString(level.stripTrailingZeros().toPlainString().hashCode() & 0xFFFFFFFFL, 36);
+    return PREFIX + '-' + pair.getId() + '-' + purpose + type.name().charAt(0) + '-'
+            + Long.toString(crossingId, 36) + '-' + levelKey;
+  }
+
+  public String forClose(TradingPairEntity pair, PositionType type, long crossingId) {
+    return forPair(pair, type, CLOSE, crossingId);
+  }
+
+  public String forPositionClose(TradingPairEntity pair, PositionType type, long positionId) {
+    return forPair(pair, type, POSITION_CLOSE, positionId);
+  }
+
+  public String forFlatten(String symbol, PositionType type, long flattenId) {
+    return PREFIX + '-' + FLATTEN + type.name().charAt(0) + '-' + Long.toString(flattenId, 36) + '-'
+            + Integer.toString(symbol.hashCode() & 0xFFFF, 36);
+  }
+
+  private String forPair(TradingPairEntity pair, PositionType type, char purpose, long key) {
+    return PREFIX + '-' + pair.getId() + '-' + purpose + type.name().charAt(0) + '-' + Long.toString(key, 36);
+  }
+}
@@ -0,0 +1,61 @@
+package com.andnor.tradenet.domain.export.cli;
+
+import com.andnor.tradenet.domain.export.model.PositionExportFilter;
+import com.andnor.tradenet.domain.export.service.PositionExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PositionExportRunner implements ApplicationRunner {
+  private static final String FILE_OPTION = "export.file";
+
+  private final PositionExportService positionExportService;
+  private final ApplicationContext applicationContext;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!args.containsOption(FILE_OPTION)) {
+      return;
+    }
+
+    int exitCode = 0;
+    try {
+      Path file = Path.of(option(args, FILE_OPTION));
+      LocalDate from = LocalDate.parse(option(args, "export.from"));
+      String to = option(args, "export.to");
+      PositionExportFilter filter = PositionExportFilter.ofDays(from, to == null ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(to),
+              option(args, "export.symbol"));
+
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+        long rows = positionExportService.exportCsv(filter, out);
+        log.info("Wrote {} positions to {}", rows, file.toAbsolutePath());
+      }
+    } catch (Exception e) {
+      log.error("Position export failed: {}", e.getMessage(), e);
+      exitCode = 1;
+    }
+
+    int code = exitCode;
+    System.exit(SpringApplication.exit(applicationContext, () -> code));
+  }
+
+  private String option(ApplicationArguments args, String name) {
+    List<String> values = args.getOptionValues(name);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+}
@@ -0,0 +1,40 @@
+package com.andnor.tradenet.domain.export.controller;
+
+import com.andnor.tradenet.domain.export.model.PositionExportFilter;
+import com.andnor.tradenet.domain.export.service.PositionExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+public class ExportController {
+  private final PositionExportService positionExportService;
+
+  @GetMapping("/positions")
+  public ResponseEntity<StreamingResponseBody> exportPositions(
+          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+          @RequestParam(required = false) String symbol) {
+    LocalDate until = to == null ? LocalDate.now(ZoneOffset.UTC) : to;
+    PositionExportFilter filter = PositionExportFilter.ofDays(from, until, symbol);
+    String fileName = "positions-" + from + "-" + until + (filter.symbol() == null ? "" : "-" + filter.symbol()) + ".csv";
+
+    StreamingResponseBody body = out -> positionExportService.exportCsv(filter, out);
+    return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
+  }
+}
@@ -0,0 +1,16 @@
+package com.andnor.tradenet.domain.export.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+public record PositionExportFilter(Instant from, Instant to, String symbol) {
+  public static PositionExportFilter ofDays(LocalDate from, LocalDate to, String symbol) {
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("Export range ends before it starts: " + from + " - " + to);
+    }
+    return new PositionExportFilter(from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+            to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+            symbol == null || symbol.isBlank() ? null : symbol.toUpperCase());
+  }
+}
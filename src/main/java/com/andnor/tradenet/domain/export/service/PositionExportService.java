@@ -0,0 +1,10 @@
+package com.andnor.tradenet.domain.export.service;
+
+import com.andnor.tradenet.domain.export.model.PositionExportFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PositionExportService {
+  long exportCsv(PositionExportFilter filter, OutputStream out) throws IOException;
+}
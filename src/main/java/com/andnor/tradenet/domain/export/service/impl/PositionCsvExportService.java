@@ -0,0 +1,176 @@
+package com.andnor.tradenet.domain.export.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.export.model.PositionExportFilter;
+import com.andnor.tradenet.domain.export.service.PositionExportService;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.util.PositionMath;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+@Service
+@Slf4j
+public class PositionCsvExportService implements PositionExportService {
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+  private static final String HEADER = "id,account,symbol,strategy_tag,type,status,grid_level_price,quantity,start_price,end_price,"
+          + "stop_loss_price,take_profit_price,opened_at,closed_at,realized_pnl,fees,net_pnl\n";
+  private static final String QUERY = "SELECT p.id, tp.account, tp.symbol, tp.strategy_tag, p.type, p.status, p.grid_level_price, "
+          + "p.quantity, p.start_price, p.end_price, p.stop_loss_price, p.take_profit_price, p.opened_at, p.closed_at, p.entry_fee "
+          + "FROM positions p JOIN trading_pairs tp ON tp.id = p.trading_pair_id "
+          + "WHERE p.opened_at >= ? AND p.opened_at < ? AND (CAST(? AS VARCHAR) IS NULL OR tp.symbol = ?) "
+          + "ORDER BY p.id";
+
+  private final TradingProperties tradingProperties;
+  private final HikariDataSource dataSource;
+
+  public PositionCsvExportService(DataSourceProperties dataSourceProperties, TradingProperties tradingProperties) {
+    this.tradingProperties = tradingProperties;
+    TradingProperties.Export properties = tradingProperties.getExport();
+
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("export");
+    config.setJdbcUrl(dataSourceProperties.determineUrl());
+    config.setUsername(dataSourceProperties.determineUsername());
+    config.setPassword(dataSourceProperties.determinePassword());
+    config.setMaximumPoolSize(properties.getMaxPoolSize());
+    config.setMinimumIdle(0);
+    config.setInitializationFailTimeout(-1);
+    config.setReadOnly(true);
+    config.setAutoCommit(false);
+    config.addDataSourceProperty("ApplicationName", "tradenet-export");
+    config.addDataSourceProperty("options", "-c statement_timeout=" + properties.getStatementTimeout().toMillis());
+    this.dataSource = new HikariDataSource(config);
+  }
+
+  @Override
+  public long exportCsv(PositionExportFilter filter, OutputStream out) throws IOException {
+    Thread thread = Thread.currentThread();
+    int priority = thread.getPriority();
+    thread.setPriority(Thread.MIN_PRIORITY);
+    long startedAt = System.currentTimeMillis();
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement statement = connection.prepareStatement(QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      statement.setFetchSize(tradingProperties.getExport().getFetchSize());
+      statement.setTimestamp(1, Timestamp.from(filter.from()));
+      statement.setTimestamp(2, Timestamp.from(filter.to()));
+      if (filter.symbol() == null) {
+        statement.setNull(3, Types.VARCHAR);
+        statement.setNull(4, Types.VARCHAR);
+      } else {
+        statement.setString(3, filter.symbol());
+        statement.setString(4, filter.symbol());
+      }
+
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+      writer.write(HEADER);
+      long rows = 0;
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          writeRow(writer, resultSet);
+          rows++;
+        }
+      }
+      writer.flush();
+      connection.rollback();
+
+      log.info("Exported {} positions ({} - {}, symbol {}) in {} ms", rows, filter.from(), filter.to(),
+              filter.symbol() == null ? "any" : filter.symbol(), System.currentTimeMillis() - startedAt);
+      return rows;
+    } catch (SQLException e) {
+      throw new IOException("Failed to export positions: " + e.getMessage(), e);
+    } finally {
+      thread.setPriority(priority);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    dataSource.close();
+  }
+
+  private void writeRow(Writer writer, ResultSet resultSet) throws SQLException, IOException {
+    String type = resultSet.getString(5);
+    BigDecimal quantity = resultSet.getBigDecimal(8);
+    BigDecimal startPrice = resultSet.getBigDecimal(9);
+    BigDecimal endPrice = resultSet.getBigDecimal(10);
+
+    BigDecimal pnl = null;
+    BigDecimal fees = null;
+    BigDecimal netPnl = null;
+    if (quantity != null && startPrice != null) {
+      BigDecimal takerRate = tradingProperties.getFees().getTakerRate();
+      BigDecimal entryFee = resultSet.getBigDecimal(15);
+      fees = entryFee != null ? entryFee : takerRate.multiply(quantity.multiply(startPrice));
+      if (endPrice != null && type != null) {
+        pnl = PositionMath.realizedPnl(PositionType.valueOf(type), quantity, startPrice, endPrice);
+        fees = fees.add(takerRate.multiply(quantity.multiply(endPrice)));
+        netPnl = pnl.subtract(fees);
+      }
+    }
+
+    writer.write(Long.toString(resultSet.getLong(1)));
+    writeText(writer, resultSet.getString(2));
+    writeText(writer, resultSet.getString(3));
+    writeText(writer, resultSet.getString(4));
+    writeText(writer, type);
+    writeText(writer, resultSet.getString(6));
+    writeDecimal(writer, resultSet.getBigDecimal(7));
+    writeDecimal(writer, quantity);
+    writeDecimal(writer, startPrice);
+    writeDecimal(writer, endPrice);
+    writeDecimal(writer, resultSet.getBigDecimal(11));
+    writeDecimal(writer, resultSet.getBigDecimal(12));
+    writeTimestamp(writer, resultSet.getTimestamp(13));
+    writeTimestamp(writer, resultSet.getTimestamp(14));
+    writeDecimal(writer, pnl);
+    writeDecimal(writer, fees);
+    writeDecimal(writer, netPnl);
+    writer.write('\n');
+  }
+
+  private void writeText(Writer writer, String value) throws IOException {
+    writer.write(',');
+    if (value == null) {
+      return;
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private void writeDecimal(Writer writer, BigDecimal value) throws IOException {
+    writer.write(',');
+    if (value != null) {
+      writer.write(value.stripTrailingZeros().toPlainString());
+    }
+  }
+
+  private void writeTimestamp(Writer writer, Timestamp value) throws IOException {
+    writer.write(',');
+    if (value != null) {
+      writer.write(value.toInstant().toString());
+    }
+  }
+}
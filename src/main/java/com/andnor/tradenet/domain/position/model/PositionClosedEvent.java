@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.position.model;
+
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+
+public record PositionClosedEvent(PositionEntity position) {
+}
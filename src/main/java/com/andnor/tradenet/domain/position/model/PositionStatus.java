@@ -1,5 +1,9 @@
 package com.andnor.tradenet.domain.position.model;
 
 public enum PositionStatus {
-    OPEN, CLOSED, ERROR
+    OPEN, CLOSED, ERROR;
+
+    public boolean isTerminal() {
+        return this != OPEN;
+    }
 }
@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.position.model;
+
+import java.util.Collection;
+
+public record PositionsBulkClosedEvent(Collection<Long> tradingPairIds) {
+}
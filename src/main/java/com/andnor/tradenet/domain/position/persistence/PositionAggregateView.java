@@ -0,0 +1,29 @@
+package com.andnor.tradenet.domain.position.persistence;
+
+import java.math.BigDecimal;
+
+public interface PositionAggregateView {
+    Long getTradingPairId();
+
+    String getAccount();
+
+    String getSymbol();
+
+    String getStatus();
+
+    String getType();
+
+    long getPositionCount();
+
+    long getPricedCount();
+
+    long getWinCount();
+
+    BigDecimal getEntryNotional();
+
+    BigDecimal getExitNotional();
+
+    BigDecimal getRealizedPnl();
+
+    BigDecimal getHoldSeconds();
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -34,7 +35,7 @@ public class PositionEntity {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "trading_pair_id")
   private TradingPairEntity tradingPair;
 
@@ -75,4 +76,13 @@ public class PositionEntity {
 
   @Column(name = "stop_loss_order_id")
   private Long stopLossOrderId;
+
+  @Column(name = "take_profit_order_id")
+  private Long takeProfitOrderId;
+
+  @Column(name = "entry_fee")
+  private BigDecimal entryFee;
+
+  @Column(name = "entry_slippage")
+  private BigDecimal entrySlippage;
 }
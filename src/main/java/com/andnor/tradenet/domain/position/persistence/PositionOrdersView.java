@@ -0,0 +1,4 @@
+package com.andnor.tradenet.domain.position.persistence;
+
+public record PositionOrdersView(Long id, Long stopLossOrderId, Long takeProfitOrderId) {
+}
@@ -2,16 +2,19 @@ package com.andnor.tradenet.domain.position.persistence;
 
 import com.andnor.tradenet.domain.position.model.PositionStatus;
 import com.andnor.tradenet.domain.position.model.PositionType;
-import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface PositionRepository extends JpaRepository<PositionEntity, Long> {
-    @Query("SELECT p FROM PositionEntity p " +
+    @Query("SELECT p FROM PositionEntity p JOIN FETCH p.tradingPair " +
            "WHERE p.tradingPair.id = :id " +
            "AND p.status = 'OPEN' " +
            "AND ((p.type = 'LONG' AND p.takeProfitPrice <= :level) " +
@@ -32,7 +35,37 @@ public interface PositionRepository extends JpaRepository<PositionEntity, Long>
     @Query("SELECT COUNT(p) > 0 FROM PositionEntity p WHERE p.tradingPair.id = :id AND p.status = 'OPEN'")
     boolean existsByTradingPairId(@Param("id") Long id);
 
-    List<PositionEntity> findAllByTradingPair_Id(Long id);
+    @Query("SELECT p FROM PositionEntity p JOIN FETCH p.tradingPair WHERE p.tradingPair.id = :id AND p.status = 'OPEN'")
+    List<PositionEntity> findOpenByTradingPairId(@Param("id") Long id);
 
-  List<PositionEntity> getAllByStatusAndTradingPair(PositionStatus status, TradingPairEntity tradingPair);
+    @Query("SELECT new com.andnor.tradenet.domain.position.persistence.PositionOrdersView(p.id, p.stopLossOrderId, p.takeProfitOrderId) " +
+           "FROM PositionEntity p WHERE p.tradingPair.id = :id AND p.status = 'OPEN'")
+    List<PositionOrdersView> findOpenPositionOrders(@Param("id") Long id);
+
+    @Query("SELECT p FROM PositionEntity p JOIN FETCH p.tradingPair WHERE p.id IN :ids")
+    List<PositionEntity> findAllWithTradingPairByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PositionEntity p SET p.status = :status, p.closedAt = :closedAt " +
+           "WHERE p.status = 'OPEN' AND p.tradingPair.id IN :pairIds")
+    int updateOpenPositionsStatus(@Param("pairIds") Collection<Long> pairIds, @Param("status") PositionStatus status,
+                                  @Param("closedAt") Instant closedAt);
+
+    @Query(value = "SELECT p.trading_pair_id AS tradingPairId, tp.account AS account, tp.symbol AS symbol, " +
+                   "p.status AS status, p.type AS type, " +
+                   "COUNT(*) AS positionCount, " +
+                   "COUNT(p.end_price) AS pricedCount, " +
+                   "COUNT(*) FILTER (WHERE (p.type = 'LONG' AND p.end_price > p.start_price) " +
+                   "OR (p.type = 'SHORT' AND p.end_price < p.start_price)) AS winCount, " +
+                   "COALESCE(SUM(p.quantity * p.start_price), 0) AS entryNotional, " +
+                   "COALESCE(SUM(p.quantity * p.end_price), 0) AS exitNotional, " +
+                   "COALESCE(SUM(CASE WHEN p.type = 'LONG' THEN (p.end_price - p.start_price) * p.quantity " +
+                   "ELSE (p.start_price - p.end_price) * p.quantity END), 0) AS realizedPnl, " +
+                   "COALESCE(SUM(EXTRACT(EPOCH FROM (p.closed_at - p.opened_at))) FILTER (WHERE p.end_price IS NOT NULL), 0) AS holdSeconds " +
+                   "FROM positions p JOIN trading_pairs tp ON tp.id = p.trading_pair_id " +
+                   "WHERE p.status IN ('OPEN', 'CLOSED') " +
+                   "GROUP BY p.trading_pair_id, tp.account, tp.symbol, p.status, p.type",
+           nativeQuery = true)
+    List<PositionAggregateView> aggregateByTradingPair();
 }
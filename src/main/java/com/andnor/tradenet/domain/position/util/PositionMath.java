@@ -0,0 +1,27 @@
+package com.andnor.tradenet.domain.position.util;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+
+@UtilityClass
+public class PositionMath {
+  public BigDecimal entryNotional(PositionEntity position) {
+    return position.getQuantity().multiply(position.getStartPrice());
+  }
+
+  public BigDecimal exitNotional(PositionEntity position) {
+    return position.getQuantity().multiply(position.getEndPrice());
+  }
+
+  public BigDecimal realizedPnl(PositionEntity position) {
+    return realizedPnl(position.getType(), position.getQuantity(), position.getStartPrice(), position.getEndPrice());
+  }
+
+  public BigDecimal realizedPnl(PositionType type, BigDecimal quantity, BigDecimal startPrice, BigDecimal endPrice) {
+    BigDecimal priceChange = endPrice.subtract(startPrice);
+    return (type == PositionType.LONG ? priceChange : priceChange.negate()).multiply(quantity);
+  }
+}
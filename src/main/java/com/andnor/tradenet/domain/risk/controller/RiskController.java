@@ -0,0 +1,22 @@
+package com.andnor.tradenet.domain.risk.controller;
+
+import com.andnor.tradenet.domain.risk.model.ExposureSnapshot;
+import com.andnor.tradenet.domain.risk.service.RiskEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/risk")
+@RequiredArgsConstructor
+public class RiskController {
+  private final RiskEngine riskEngine;
+
+  @GetMapping("/exposure")
+  public List<ExposureSnapshot> getExposures() {
+    return riskEngine.getExposures();
+  }
+}
@@ -0,0 +1,38 @@
+package com.andnor.tradenet.domain.risk.model;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+public class ExposureReservation {
+  private final String account;
+  private final PositionType type;
+  private final long notionalCents;
+  private final RiskLimit rejectedBy;
+  private final AtomicBoolean settled = new AtomicBoolean();
+
+  private ExposureReservation(String account, PositionType type, long notionalCents, RiskLimit rejectedBy) {
+    this.account = account;
+    this.type = type;
+    this.notionalCents = notionalCents;
+    this.rejectedBy = rejectedBy;
+  }
+
+  public static ExposureReservation accepted(String account, PositionType type, long notionalCents) {
+    return new ExposureReservation(account, type, notionalCents, null);
+  }
+
+  public static ExposureReservation rejected(String account, PositionType type, long notionalCents, RiskLimit limit) {
+    return new ExposureReservation(account, type, notionalCents, limit);
+  }
+
+  public boolean isAccepted() {
+    return rejectedBy == null;
+  }
+
+  public boolean settle() {
+    return isAccepted() && settled.compareAndSet(false, true);
+  }
+}
@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.risk.model;
+
+import java.math.BigDecimal;
+
+public record ExposureSnapshot(String account, int openPositions, BigDecimal totalNotional, BigDecimal netNotional,
+        BigDecimal maxTotalNotional, BigDecimal maxNetNotional, int maxOpenPositions, long rejections) {
+}
@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.risk.model;
+
+public enum RiskLimit {
+  OPEN_POSITIONS,
+  TOTAL_NOTIONAL,
+  NET_NOTIONAL
+}
@@ -0,0 +1,20 @@
+package com.andnor.tradenet.domain.risk.service;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.risk.model.ExposureReservation;
+import com.andnor.tradenet.domain.risk.model.ExposureSnapshot;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface RiskEngine {
+  ExposureReservation reserve(TradingPairEntity tradingPair, PositionType type, BigDecimal notional);
+
+  void confirm(ExposureReservation reservation, PositionEntity position);
+
+  void release(ExposureReservation reservation);
+
+  List<ExposureSnapshot> getExposures();
+}
@@ -0,0 +1,101 @@
+package com.andnor.tradenet.domain.risk.service.impl;
+
+import com.andnor.tradenet.domain.risk.model.RiskLimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+final class AccountExposure {
+  private final String account;
+  private final AtomicInteger openPositions = new AtomicInteger();
+  private final AtomicLong totalCents = new AtomicLong();
+  private final AtomicLong netCents = new AtomicLong();
+  private final LongAdder rejections = new LongAdder();
+
+  AccountExposure(String account) {
+    this.account = account;
+  }
+
+  RiskLimit tryReserve(long cents, long signedCents, int maxPositions, long maxTotalCents, long maxNetCents) {
+    if (!tryIncrementPositions(maxPositions)) {
+      rejections.increment();
+      return RiskLimit.OPEN_POSITIONS;
+    }
+    if (!tryAddTotal(cents, maxTotalCents)) {
+      openPositions.decrementAndGet();
+      rejections.increment();
+      return RiskLimit.TOTAL_NOTIONAL;
+    }
+    if (!tryAddNet(signedCents, maxNetCents)) {
+      openPositions.decrementAndGet();
+      totalCents.addAndGet(-cents);
+      rejections.increment();
+      return RiskLimit.NET_NOTIONAL;
+    }
+    return null;
+  }
+
+  void add(int positions, long cents, long signedCents) {
+    openPositions.addAndGet(positions);
+    totalCents.addAndGet(cents);
+    netCents.addAndGet(signedCents);
+  }
+
+  String getAccount() {
+    return account;
+  }
+
+  int getOpenPositions() {
+    return openPositions.get();
+  }
+
+  long getTotalCents() {
+    return totalCents.get();
+  }
+
+  long getNetCents() {
+    return netCents.get();
+  }
+
+  long getRejections() {
+    return rejections.sum();
+  }
+
+  private boolean tryIncrementPositions(int max) {
+    while (true) {
+      int current = openPositions.get();
+      if (max > 0 && current >= max) {
+        return false;
+      }
+      if (openPositions.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean tryAddTotal(long cents, long max) {
+    while (true) {
+      long current = totalCents.get();
+      if (max > 0 && current + cents > max) {
+        return false;
+      }
+      if (totalCents.compareAndSet(current, current + cents)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean tryAddNet(long signedCents, long max) {
+    while (true) {
+      long current = netCents.get();
+      long next = current + signedCents;
+      if (max > 0 && Math.abs(next) > max && Math.abs(next) >= Math.abs(current)) {
+        return false;
+      }
+      if (netCents.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.andnor.tradenet.domain.risk.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.model.PositionsBulkClosedEvent;
+import com.andnor.tradenet.domain.position.persistence.PositionAggregateView;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.position.util.PositionMath;
+import com.andnor.tradenet.domain.risk.model.ExposureReservation;
+import com.andnor.tradenet.domain.risk.model.ExposureSnapshot;
+import com.andnor.tradenet.domain.risk.model.RiskLimit;
+import com.andnor.tradenet.domain.risk.service.RiskEngine;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class ExposureRiskEngine implements RiskEngine {
+  private final PositionRepository positionRepository;
+  private final TradingProperties tradingProperties;
+  private final Map<String, AccountExposure> accounts = new ConcurrentHashMap<>();
+  private final Map<Long, PairExposure> pairs = new ConcurrentHashMap<>();
+
+  public ExposureRiskEngine(PositionRepository positionRepository, TradingProperties tradingProperties) {
+    this.positionRepository = positionRepository;
+    this.tradingProperties = tradingProperties;
+  }
+
+  @PostConstruct
+  public void seed() {
+    for (PositionAggregateView row : positionRepository.aggregateByTradingPair()) {
+      if (PositionStatus.valueOf(row.getStatus()).isTerminal()) {
+        continue;
+      }
+      PositionType type = PositionType.valueOf(row.getType());
+      int count = Math.toIntExact(row.getPositionCount());
+      long cents = toCents(row.getEntryNotional());
+      pairs.computeIfAbsent(row.getTradingPairId(), id -> new PairExposure(row.getAccount())).add(type, count, cents);
+      accountOf(row.getAccount()).add(count, cents, signed(type, cents));
+    }
+    log.info("Risk engine seeded with {} open positions across {} accounts",
+            accounts.values().stream().mapToInt(AccountExposure::getOpenPositions).sum(), accounts.size());
+  }
+
+  @Override
+  public ExposureReservation reserve(TradingPairEntity tradingPair, PositionType type, BigDecimal notional) {
+    TradingProperties.Risk limits = tradingProperties.getRisk();
+    String account = tradingPair.getAccount();
+    long cents = toCents(notional);
+    RiskLimit breached = accountOf(account).tryReserve(cents, signed(type, cents), limits.getMaxOpenPositions(),
+            toCents(limits.getMaxTotalNotional()), toCents(limits.getMaxNetNotional()));
+    return breached == null
+            ? ExposureReservation.accepted(account, type, cents)
+            : ExposureReservation.rejected(account, type, cents, breached);
+  }
+
+  @Override
+  public void confirm(ExposureReservation reservation, PositionEntity position) {
+    if (!reservation.settle()) {
+      return;
+    }
+    long cents = toCents(PositionMath.entryNotional(position));
+    long slippage = cents - reservation.getNotionalCents();
+    accountOf(reservation.getAccount()).add(0, slippage, signed(reservation.getType(), slippage));
+    pairOf(position.getTradingPair()).add(position.getType(), 1, cents);
+  }
+
+  @Override
+  public void release(ExposureReservation reservation) {
+    if (!reservation.settle()) {
+      return;
+    }
+    long cents = reservation.getNotionalCents();
+    accountOf(reservation.getAccount()).add(-1, -cents, -signed(reservation.getType(), cents));
+  }
+
+  @EventListener
+  public void onPositionClosed(PositionClosedEvent event) {
+    PositionEntity position = event.position();
+    PairExposure pair = pairs.get(position.getTradingPair().getId());
+    if (pair == null || !position.getStatus().isTerminal()) {
+      return;
+    }
+    long cents = toCents(PositionMath.entryNotional(position));
+    pair.add(position.getType(), -1, -cents);
+    accountOf(pair.getAccount()).add(-1, -cents, -signed(position.getType(), cents));
+  }
+
+  @EventListener
+  public void onPositionsBulkClosed(PositionsBulkClosedEvent event) {
+    for (Long tradingPairId : event.tradingPairIds()) {
+      PairExposure pair = pairs.get(tradingPairId);
+      if (pair == null) {
+        continue;
+      }
+      PairExposure removed = pair.clear();
+      accountOf(pair.getAccount()).add(-removed.getPositions(), -(removed.getLongCents() + removed.getShortCents()),
+              -(removed.getLongCents() - removed.getShortCents()));
+    }
+  }
+
+  @Override
+  public List<ExposureSnapshot> getExposures() {
+    TradingProperties.Risk limits = tradingProperties.getRisk();
+    return accounts.values().stream()
+            .map(exposure -> new ExposureSnapshot(exposure.getAccount(), exposure.getOpenPositions(),
+                    BigDecimal.valueOf(exposure.getTotalCents(), 2), BigDecimal.valueOf(exposure.getNetCents(), 2),
+                    limits.getMaxTotalNotional(), limits.getMaxNetNotional(), limits.getMaxOpenPositions(), exposure.getRejections()))
+            .sorted(Comparator.comparing(ExposureSnapshot::account))
+            .toList();
+  }
+
+  private AccountExposure accountOf(String account) {
+    return accounts.computeIfAbsent(account, AccountExposure::new);
+  }
+
+  private PairExposure pairOf(TradingPairEntity tradingPair) {
+    return pairs.computeIfAbsent(tradingPair.getId(), id -> new PairExposure(tradingPair.getAccount()));
+  }
+
+  private long signed(PositionType type, long cents) {
+    return type == PositionType.LONG ? cents : -cents;
+  }
+
+  private long toCents(BigDecimal amount) {
+    return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+  }
+}
@@ -0,0 +1,46 @@
+package com.andnor.tradenet.domain.risk.service.impl;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class PairExposure {
+  private final String account;
+  private final AtomicInteger positions = new AtomicInteger();
+  private final AtomicLong longCents = new AtomicLong();
+  private final AtomicLong shortCents = new AtomicLong();
+
+  PairExposure(String account) {
+    this.account = account;
+  }
+
+  String getAccount() {
+    return account;
+  }
+
+  void add(PositionType type, int count, long cents) {
+    positions.addAndGet(count);
+    (type == PositionType.LONG ? longCents : shortCents).addAndGet(cents);
+  }
+
+  PairExposure clear() {
+    PairExposure removed = new PairExposure(account);
+    removed.positions.set(positions.getAndSet(0));
+    removed.longCents.set(longCents.getAndSet(0));
+    removed.shortCents.set(shortCents.getAndSet(0));
+    return removed;
+  }
+
+  int getPositions() {
+    return positions.get();
+  }
+
+  long getLongCents() {
+    return longCents.get();
+  }
+
+  long getShortCents() {
+    return shortCents.get();
+  }
+}
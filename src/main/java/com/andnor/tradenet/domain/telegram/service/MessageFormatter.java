@@ -1,8 +1,17 @@
 package com.andnor.tradenet.domain.telegram.service;
 
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.candle.model.MarketSnapshot;
 import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.trade.model.FlattenReport;
+import com.andnor.tradenet.domain.trade.model.PairHealth;
 
 public interface MessageFormatter {
   String formatPositionClosure(PositionEntity position);
   String formatPositionOpening(PositionEntity position);
+  String formatFlattenReport(FlattenReport report);
+  String formatMarketSnapshot(MarketSnapshot snapshot);
+  String formatPnlSnapshot(PnlSnapshot snapshot);
+  String formatStallAlert(PairHealth health, boolean restarted);
+  String formatStallRecovery(PairHealth health);
 }
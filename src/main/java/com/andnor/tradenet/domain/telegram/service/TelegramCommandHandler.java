@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.telegram.service;
+
+public interface TelegramCommandHandler {
+  String getCommand();
+
+  String handle(String arguments);
+}
@@ -0,0 +1,24 @@
+package com.andnor.tradenet.domain.telegram.service.impl;
+
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.TelegramCommandHandler;
+import com.andnor.tradenet.domain.trade.TradingManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class FlattenCommandHandler implements TelegramCommandHandler {
+  private final TradingManager tradingManager;
+  private final MessageFormatter messageFormatter;
+
+  @Override
+  public String getCommand() {
+    return "/flatten";
+  }
+
+  @Override
+  public String handle(String arguments) {
+    return messageFormatter.formatFlattenReport(tradingManager.flattenAll());
+  }
+}
@@ -0,0 +1,30 @@
+package com.andnor.tradenet.domain.telegram.service.impl;
+
+import com.andnor.tradenet.domain.candle.service.CandleService;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.TelegramCommandHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class MarketCommandHandler implements TelegramCommandHandler {
+  private final CandleService candleService;
+  private final MessageFormatter messageFormatter;
+
+  @Override
+  public String getCommand() {
+    return "/market";
+  }
+
+  @Override
+  public String handle(String arguments) {
+    if (arguments == null || arguments.isBlank()) {
+      return "Usage: /market SYMBOL\nTracked: " + String.join(", ", candleService.getSymbols());
+    }
+    String symbol = arguments.trim().toUpperCase();
+    return candleService.getSnapshot(symbol)
+            .map(messageFormatter::formatMarketSnapshot)
+            .orElse("No market data for " + symbol);
+  }
+}
@@ -1,13 +1,19 @@
 package com.andnor.tradenet.domain.telegram.service.impl;
 
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.candle.model.Candle;
+import com.andnor.tradenet.domain.candle.model.MarketSnapshot;
 import com.andnor.tradenet.domain.position.persistence.PositionEntity;
 import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.trade.model.FlattenReport;
+import com.andnor.tradenet.domain.trade.model.PairHealth;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Service
 public class MessageFormatterImpl implements MessageFormatter {
@@ -46,7 +52,7 @@ public class MessageFormatterImpl implements MessageFormatter {
             .atZone(java.time.ZoneId.systemDefault())
             .format(TIME_FORMATTER);
 
-    String symbol = position.getTradingPair().getSymbol();
+    String symbol = position.getTradingPair().getSymbol() + " [" + position.getTradingPair().getStrategyTag() + "]";
 
     return String.format(
             "🎯 POSITION CLOSED\n" +
@@ -79,7 +85,7 @@ public class MessageFormatterImpl implements MessageFormatter {
             .atZone(java.time.ZoneId.systemDefault())
             .format(TIME_FORMATTER);
 
-    String symbol = position.getTradingPair().getSymbol();
+    String symbol = position.getTradingPair().getSymbol() + " [" + position.getTradingPair().getStrategyTag() + "]";
 
     StringBuilder message = new StringBuilder();
     message.append("🚀 POSITION OPENED\n")
@@ -100,6 +106,97 @@ public class MessageFormatterImpl implements MessageFormatter {
     return message.toString();
   }
 
+  @Override
+  public String formatFlattenReport(FlattenReport report) {
+    StringBuilder message = new StringBuilder();
+    message.append(report.isFlat() ? "🛑 ACCOUNT FLATTENED\n" : "⚠️ FLATTEN INCOMPLETE\n")
+            .append(String.format("📊 Symbols: %d | Close orders: %d\n", report.getSymbolCount(), report.getCloseOrderCount()))
+            .append(String.format("⏱️ Took: %d ms", report.getDurationMillis()));
+
+    if (!report.getFailedSymbols().isEmpty()) {
+      message.append("\n❌ Failed: ").append(String.join(", ", report.getFailedSymbols()));
+    }
+
+    if (!report.isFlat()) {
+      message.append("\n📌 Still open: ").append(String.join(", ", report.getNonFlatSymbols()));
+    }
+
+    return message.toString();
+  }
+
+  @Override
+  public String formatMarketSnapshot(MarketSnapshot snapshot) {
+    StringBuilder message = new StringBuilder();
+    message.append(String.format("📊 %s | Last: $%s\n", snapshot.symbol(), BigDecimal.valueOf(snapshot.lastPrice()).stripTrailingZeros().toPlainString()));
+
+    Candle minute = snapshot.minuteCandle();
+    if (minute != null) {
+      message.append(String.format("🕯️ 1m O %.4f H %.4f L %.4f C %.4f | Ticks: %d\n",
+              minute.open(), minute.high(), minute.low(), minute.close(), minute.tickCount()));
+    }
+
+    message.append(Double.isNaN(snapshot.realizedVolatility())
+            ? "📈 Volatility (1m): n/a\n"
+            : String.format("📈 Volatility (1m): %.4f%%\n", snapshot.realizedVolatility() * 100));
+    message.append(Double.isNaN(snapshot.averageTrueRange())
+            ? "📏 ATR (5m): n/a"
+            : String.format("📏 ATR (5m): %.4f (%.2f%%)", snapshot.averageTrueRange(), snapshot.averageTrueRangePercent()));
+
+    return message.toString();
+  }
+
+  @Override
+  public String formatPnlSnapshot(PnlSnapshot snapshot) {
+    boolean isProfit = snapshot.netPnl().signum() >= 0;
+    return String.format(
+            "📊 %s STATS\n" +
+                    "%s Net P&L: %s$%.2f\n" +
+                    "💰 Realized: $%.2f | Fees (est.): $%.2f\n" +
+                    "📈 Open LONG: %d ($%.2f)\n" +
+                    "📉 Open SHORT: %d ($%.2f)\n" +
+                    "🎯 Closed: %d | Win rate: %.1f%%\n" +
+                    "⏱️ Avg hold: %s",
+            snapshot.scope(),
+            isProfit ? "💚" : "❌",
+            isProfit ? "+" : "-",
+            snapshot.netPnl().abs(),
+            snapshot.realizedPnl(),
+            snapshot.estimatedFees(),
+            snapshot.openLongPositions(),
+            snapshot.openLongNotional(),
+            snapshot.openShortPositions(),
+            snapshot.openShortNotional(),
+            snapshot.closedPositions(),
+            snapshot.winRate() * 100,
+            formatDuration(Duration.ofSeconds(snapshot.averageHoldSeconds()))
+    );
+  }
+
+  @Override
+  public String formatStallAlert(PairHealth health, boolean restarted) {
+    StringBuilder message = new StringBuilder();
+    message.append(health.isStalled() ? "🚨 TRADING LOOP STALLED\n" : "🐢 TRADING LOOP SLOW\n")
+            .append(String.format("📊 %s | %s\n", health.getSymbol(), health.getReason()))
+            .append(String.format("⏱️ Last tick: %d ms ago | In flight: %d ms | Slowest: %d ms",
+                    health.getTickAgeMillis(), health.getInFlightMillis(), health.getSlowestTickMillis()));
+
+    List<String> stack = health.getStackSample();
+    if (!stack.isEmpty()) {
+      message.append("\n🔍 ").append(String.join("\n   ", stack.subList(0, Math.min(5, stack.size()))));
+    }
+
+    if (restarted) {
+      message.append("\n🔄 Worker restarted");
+    }
+
+    return message.toString();
+  }
+
+  @Override
+  public String formatStallRecovery(PairHealth health) {
+    return String.format("✅ TRADING LOOP RECOVERED\n📊 %s | Last tick: %d ms ago", health.getSymbol(), health.getTickAgeMillis());
+  }
+
   private String formatDuration(Duration duration) {
     long days = duration.toDays();
     long hours = duration.toHoursPart();
@@ -0,0 +1,30 @@
+package com.andnor.tradenet.domain.telegram.service.impl;
+
+import com.andnor.tradenet.domain.analytics.service.PnlAnalyticsService;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.TelegramCommandHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PairStatsCommandHandler implements TelegramCommandHandler {
+  private final PnlAnalyticsService pnlAnalyticsService;
+  private final MessageFormatter messageFormatter;
+
+  @Override
+  public String getCommand() {
+    return "/pair";
+  }
+
+  @Override
+  public String handle(String arguments) {
+    if (arguments == null || arguments.isBlank()) {
+      return "Usage: /pair SYMBOL";
+    }
+    String symbol = arguments.trim().toUpperCase();
+    return pnlAnalyticsService.getPairSnapshot(symbol)
+            .map(messageFormatter::formatPnlSnapshot)
+            .orElse("No positions recorded for " + symbol);
+  }
+}
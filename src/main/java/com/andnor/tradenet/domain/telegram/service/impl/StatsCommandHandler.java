@@ -0,0 +1,35 @@
+package com.andnor.tradenet.domain.telegram.service.impl;
+
+import com.andnor.tradenet.domain.analytics.model.PnlSnapshot;
+import com.andnor.tradenet.domain.analytics.service.PnlAnalyticsService;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.TelegramCommandHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StatsCommandHandler implements TelegramCommandHandler {
+  private static final int TOP_PAIRS = 5;
+
+  private final PnlAnalyticsService pnlAnalyticsService;
+  private final MessageFormatter messageFormatter;
+
+  @Override
+  public String getCommand() {
+    return "/stats";
+  }
+
+  @Override
+  public String handle(String arguments) {
+    StringBuilder message = new StringBuilder(messageFormatter.formatPnlSnapshot(pnlAnalyticsService.getAccountSnapshot()));
+    List<PnlSnapshot> pairs = pnlAnalyticsService.getPairSnapshots();
+    if (!pairs.isEmpty()) {
+      message.append("\n\n🏆 Top pairs:");
+      pairs.stream().limit(TOP_PAIRS).forEach(pair -> message.append(String.format("\n%s: $%s", pair.scope(), pair.netPnl())));
+    }
+    return message.toString();
+  }
+}
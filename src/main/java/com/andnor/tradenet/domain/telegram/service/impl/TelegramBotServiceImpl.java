@@ -1,7 +1,9 @@
 package com.andnor.tradenet.domain.telegram.service.impl;
 
 import com.andnor.tradenet.domain.telegram.service.TelegramBotService;
+import com.andnor.tradenet.domain.telegram.service.TelegramCommandHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
@@ -22,8 +24,12 @@ public class TelegramBotServiceImpl extends TelegramLongPollingBot implements Te
 
   private final static List<Long> activeChats = List.of(1894823688L);
 
-  public TelegramBotServiceImpl(@Value("${telegram.bot.token}") String botToken) {
+  private final ObjectProvider<TelegramCommandHandler> commandHandlers;
+
+  public TelegramBotServiceImpl(@Value("${telegram.bot.token}") String botToken,
+          ObjectProvider<TelegramCommandHandler> commandHandlers) {
     super(botToken);
+    this.commandHandlers = commandHandlers;
   }
 
   @Override
@@ -50,10 +56,35 @@ public class TelegramBotServiceImpl extends TelegramLongPollingBot implements Te
 
       if (START.equals(message)) {
         startCommand(chatId);
+      } else if (message.startsWith("/") && activeChats.contains(chatId)) {
+        handleCommand(chatId, message);
       }
     }
   }
 
+  private void handleCommand(Long chatId, String message) {
+    String[] parts = message.trim().split("\\s+", 2);
+    String arguments = parts.length > 1 ? parts[1] : "";
+
+    commandHandlers.orderedStream()
+            .filter(handler -> handler.getCommand().equals(parts[0]))
+            .findFirst()
+            .ifPresent(handler -> {
+              String reply;
+              try {
+                reply = handler.handle(arguments);
+              } catch (Exception e) {
+                log.error("Failed to handle command {}: {}", parts[0], e.getMessage(), e);
+                reply = "❌ " + parts[0] + " failed: " + e.getMessage();
+              }
+              SendMessage response = new SendMessage();
+              response.setChatId(chatId.toString());
+              response.setText(reply);
+              response.setParseMode(HTML);
+              sendMessage(response);
+            });
+  }
+
   private void startCommand(Long chatId) {
     SendMessage message = new SendMessage();
     message.setChatId(chatId.toString());
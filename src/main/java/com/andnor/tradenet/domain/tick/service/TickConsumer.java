@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.tick.service;
+
+@FunctionalInterface
+public interface TickConsumer {
+  void accept(int symbolId, long exchangeTime, long receiveTime, long priceE8);
+}
@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.tick.service;
+
+import java.math.BigDecimal;
+
+public interface TickListener {
+  void onTick(String symbol, long exchangeTime, long receiveTime, BigDecimal price);
+}
@@ -0,0 +1,11 @@
+package com.andnor.tradenet.domain.tick.service;
+
+import java.time.LocalDate;
+
+public interface TickReader {
+  long scan(LocalDate day, long fromTime, long toTime, TickConsumer consumer);
+
+  String symbolOf(int symbolId);
+
+  int symbolIdOf(String symbol);
+}
@@ -0,0 +1,33 @@
+package com.andnor.tradenet.domain.tick.service.impl;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+final class TickFileFormat {
+  static final int MAGIC = 0x544E544B;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 64;
+  static final int MAGIC_OFFSET = 0;
+  static final int VERSION_OFFSET = 4;
+  static final int COMMITTED_OFFSET = 8;
+  static final int EPOCH_DAY_OFFSET = 16;
+
+  static final int BLOCK_HEADER_SIZE = 24;
+  static final int BLOCK_LENGTH_OFFSET = 0;
+  static final int BLOCK_COUNT_OFFSET = 4;
+  static final int BLOCK_MIN_TIME_OFFSET = 8;
+  static final int BLOCK_MAX_TIME_OFFSET = 16;
+
+  static final int PRICE_SCALE = 8;
+  static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private TickFileFormat() {
+  }
+
+  static Path fileFor(Path directory, LocalDate day) {
+    return directory.resolve("ticks-" + FILE_DATE.format(day) + ".bin");
+  }
+}
@@ -0,0 +1,114 @@
+package com.andnor.tradenet.domain.tick.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.tick.service.TickConsumer;
+import com.andnor.tradenet.domain.tick.service.TickReader;
+import com.andnor.tradenet.domain.tick.util.VarInts;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static com.andnor.tradenet.domain.tick.service.impl.TickFileFormat.*;
+
+@Service
+@RequiredArgsConstructor
+public class TickFileReader implements TickReader {
+  private final TradingProperties tradingProperties;
+  private final TickSymbolDictionary symbolDictionary;
+
+  @Override
+  public long scan(LocalDate day, long fromTime, long toTime, TickConsumer consumer) {
+    Path file = fileFor(Path.of(tradingProperties.getTicks().getDirectory()), day);
+    if (!Files.exists(file)) {
+      return 0;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) {
+        return 0;
+      }
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+        throw new IllegalStateException("Not a tick file: " + file);
+      }
+      long committed = Math.min(header.getLong(COMMITTED_OFFSET), channel.size());
+      return scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, committed), fromTime, toTime, consumer);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read tick file " + file, e);
+    }
+  }
+
+  @Override
+  public String symbolOf(int symbolId) {
+    return symbolDictionary.symbolOf(symbolId);
+  }
+
+  @Override
+  public int symbolIdOf(String symbol) {
+    return symbolDictionary.lookup(symbol);
+  }
+
+  static long scan(ByteBuffer data, long fromTime, long toTime, TickConsumer consumer) {
+    int[] symbolBlocks = new int[256];
+    long[] lastTimes = new long[256];
+    long[] lastPrices = new long[256];
+    int blockNumber = 0;
+    long matched = 0;
+
+    int blockStart = HEADER_SIZE;
+    int limit = data.limit();
+    while (blockStart + BLOCK_HEADER_SIZE <= limit) {
+      int length = data.getInt(blockStart + BLOCK_LENGTH_OFFSET);
+      int count = data.getInt(blockStart + BLOCK_COUNT_OFFSET);
+      int payloadStart = blockStart + BLOCK_HEADER_SIZE;
+      int payloadEnd = Math.min(payloadStart + length, limit);
+      if (length <= 0) {
+        break;
+      }
+
+      long minTime = data.getLong(blockStart + BLOCK_MIN_TIME_OFFSET);
+      long maxTime = data.getLong(blockStart + BLOCK_MAX_TIME_OFFSET);
+      if (maxTime >= fromTime && minTime <= toTime) {
+        blockNumber++;
+        data.position(payloadStart);
+        for (int i = 0; i < count && data.position() < payloadEnd; i++) {
+          int symbolId = (int) VarInts.getVarLong(data);
+          if (symbolId >= symbolBlocks.length) {
+            int size = Math.max(symbolId + 1, symbolBlocks.length * 2);
+            symbolBlocks = Arrays.copyOf(symbolBlocks, size);
+            lastTimes = Arrays.copyOf(lastTimes, size);
+            lastPrices = Arrays.copyOf(lastPrices, size);
+          }
+          if (symbolBlocks[symbolId] != blockNumber) {
+            symbolBlocks[symbolId] = blockNumber;
+            lastTimes[symbolId] = 0;
+            lastPrices[symbolId] = 0;
+          }
+
+          long exchangeTime = lastTimes[symbolId] + VarInts.unZigZag(VarInts.getVarLong(data));
+          long receiveTime = exchangeTime + VarInts.unZigZag(VarInts.getVarLong(data));
+          long priceE8 = lastPrices[symbolId] + VarInts.unZigZag(VarInts.getVarLong(data));
+          lastTimes[symbolId] = exchangeTime;
+          lastPrices[symbolId] = priceE8;
+
+          if (exchangeTime >= fromTime && exchangeTime <= toTime) {
+            consumer.accept(symbolId, exchangeTime, receiveTime, priceE8);
+            matched++;
+          }
+        }
+      }
+      blockStart = payloadStart + length;
+    }
+    return matched;
+  }
+}
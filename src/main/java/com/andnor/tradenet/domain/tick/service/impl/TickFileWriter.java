@@ -0,0 +1,134 @@
+package com.andnor.tradenet.domain.tick.service.impl;
+
+import com.andnor.tradenet.domain.tick.util.VarInts;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static com.andnor.tradenet.domain.tick.service.impl.TickFileFormat.*;
+
+final class TickFileWriter implements AutoCloseable {
+  private static final int MAX_RECORD_SIZE = 4 * VarInts.MAX_VARLONG_BYTES;
+
+  private final FileChannel channel;
+  private final int blockSize;
+  private final int mapChunkSize;
+  private final long epochDay;
+  private MappedByteBuffer buffer;
+  private int blockStart;
+  private int blockCount;
+  private long blockMinTime;
+  private long blockMaxTime;
+  private int blockEpoch;
+  private int[] symbolEpochs = new int[256];
+  private long[] lastTimes = new long[256];
+  private long[] lastPrices = new long[256];
+
+  TickFileWriter(Path directory, LocalDate day, int blockSize, int mapChunkSize) throws IOException {
+    Files.createDirectories(directory);
+    this.channel = FileChannel.open(fileFor(directory, day),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.blockSize = blockSize;
+    this.mapChunkSize = mapChunkSize;
+    this.epochDay = day.toEpochDay();
+
+    long existingSize = channel.size();
+    map(Math.max(existingSize, mapChunkSize));
+    if (existingSize >= HEADER_SIZE && buffer.getInt(MAGIC_OFFSET) == MAGIC) {
+      buffer.position((int) buffer.getLong(COMMITTED_OFFSET));
+    } else {
+      buffer.putInt(MAGIC_OFFSET, MAGIC);
+      buffer.putInt(VERSION_OFFSET, VERSION);
+      buffer.putLong(EPOCH_DAY_OFFSET, epochDay);
+      buffer.putLong(COMMITTED_OFFSET, HEADER_SIZE);
+      buffer.position(HEADER_SIZE);
+    }
+    startBlock();
+  }
+
+  long getEpochDay() {
+    return epochDay;
+  }
+
+  void append(int symbolId, long exchangeTime, long receiveTime, long priceE8) throws IOException {
+    if (buffer.position() - blockStart - BLOCK_HEADER_SIZE >= blockSize) {
+      finishBlock();
+      startBlock();
+    }
+    if (buffer.remaining() < MAX_RECORD_SIZE + BLOCK_HEADER_SIZE) {
+      map(buffer.capacity() + (long) mapChunkSize);
+    }
+    if (symbolId >= symbolEpochs.length) {
+      int size = Math.max(symbolId + 1, symbolEpochs.length * 2);
+      symbolEpochs = Arrays.copyOf(symbolEpochs, size);
+      lastTimes = Arrays.copyOf(lastTimes, size);
+      lastPrices = Arrays.copyOf(lastPrices, size);
+    }
+    if (symbolEpochs[symbolId] != blockEpoch) {
+      symbolEpochs[symbolId] = blockEpoch;
+      lastTimes[symbolId] = 0;
+      lastPrices[symbolId] = 0;
+    }
+
+    VarInts.putVarLong(buffer, symbolId);
+    VarInts.putVarLong(buffer, VarInts.zigZag(exchangeTime - lastTimes[symbolId]));
+    VarInts.putVarLong(buffer, VarInts.zigZag(receiveTime - exchangeTime));
+    VarInts.putVarLong(buffer, VarInts.zigZag(priceE8 - lastPrices[symbolId]));
+    lastTimes[symbolId] = exchangeTime;
+    lastPrices[symbolId] = priceE8;
+
+    blockCount++;
+    blockMinTime = Math.min(blockMinTime, exchangeTime);
+    blockMaxTime = Math.max(blockMaxTime, exchangeTime);
+  }
+
+  void commit() {
+    if (blockCount == 0) {
+      return;
+    }
+    finishBlock();
+    buffer.putLong(COMMITTED_OFFSET, buffer.position());
+  }
+
+  @Override
+  public void close() throws IOException {
+    commit();
+    long committed = blockCount == 0 ? blockStart : buffer.position();
+    buffer.putLong(COMMITTED_OFFSET, committed);
+    buffer.force();
+    buffer = null;
+    channel.truncate(committed);
+    channel.close();
+  }
+
+  private void startBlock() {
+    blockStart = buffer.position();
+    blockCount = 0;
+    blockMinTime = Long.MAX_VALUE;
+    blockMaxTime = Long.MIN_VALUE;
+    blockEpoch++;
+    buffer.position(blockStart + BLOCK_HEADER_SIZE);
+  }
+
+  private void finishBlock() {
+    buffer.putInt(blockStart + BLOCK_LENGTH_OFFSET, buffer.position() - blockStart - BLOCK_HEADER_SIZE);
+    buffer.putInt(blockStart + BLOCK_COUNT_OFFSET, blockCount);
+    buffer.putLong(blockStart + BLOCK_MIN_TIME_OFFSET, blockMinTime);
+    buffer.putLong(blockStart + BLOCK_MAX_TIME_OFFSET, blockMaxTime);
+  }
+
+  private void map(long size) throws IOException {
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Tick file for epoch day " + epochDay + " exceeds " + Integer.MAX_VALUE + " bytes");
+    }
+    int position = buffer == null ? 0 : buffer.position();
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    buffer.position(position);
+  }
+}
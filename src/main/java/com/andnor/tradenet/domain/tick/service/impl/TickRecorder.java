@@ -0,0 +1,179 @@
+package com.andnor.tradenet.domain.tick.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.tick.service.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.andnor.tradenet.domain.tick.service.impl.TickFileFormat.MILLIS_PER_DAY;
+import static com.andnor.tradenet.domain.tick.service.impl.TickFileFormat.PRICE_SCALE;
+
+@Service
+@Slf4j
+public class TickRecorder implements TickListener {
+  private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+  private static final long DROP_REPORT_INTERVAL_MS = 60_000;
+
+  private final TradingProperties.Ticks properties;
+  private final TickSymbolDictionary symbolDictionary;
+  private final int mask;
+  private final AtomicLong claimed = new AtomicLong();
+  private final AtomicLongArray published;
+  private final int[] symbolIds;
+  private final long[] exchangeTimes;
+  private final long[] receiveTimes;
+  private final BigDecimal[] prices;
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile long consumed;
+  private volatile boolean running;
+  private Thread writerThread;
+  private TickFileWriter writer;
+  private long lastDropReport;
+
+  public TickRecorder(TradingProperties tradingProperties, TickSymbolDictionary symbolDictionary) {
+    this.properties = tradingProperties.getTicks();
+    this.symbolDictionary = symbolDictionary;
+    int capacity = Integer.highestOneBit(Math.max(2, properties.getRingCapacity() - 1)) << 1;
+    this.mask = capacity - 1;
+    this.published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1);
+    }
+    this.symbolIds = new int[capacity];
+    this.exchangeTimes = new long[capacity];
+    this.receiveTimes = new long[capacity];
+    this.prices = new BigDecimal[capacity];
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!properties.isEnabled()) {
+      log.info("Tick recording is disabled");
+      return;
+    }
+    running = true;
+    writerThread = new Thread(this::drainLoop, "tick-recorder");
+    writerThread.setDaemon(true);
+    writerThread.start();
+    log.info("Recording ticks to {}", Path.of(properties.getDirectory()).toAbsolutePath());
+  }
+
+  @Override
+  public void onTick(String symbol, long exchangeTime, long receiveTime, BigDecimal price) {
+    if (!running) {
+      return;
+    }
+
+    long sequence;
+    do {
+      sequence = claimed.get();
+      if (sequence - consumed > mask) {
+        dropped.incrementAndGet();
+        return;
+      }
+    } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+    int index = (int) sequence & mask;
+    symbolIds[index] = symbolDictionary.idOf(symbol);
+    exchangeTimes[index] = exchangeTime;
+    receiveTimes[index] = receiveTime;
+    prices[index] = price;
+    published.lazySet(index, sequence);
+  }
+
+  public long getDroppedTicks() {
+    return dropped.get();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (writerThread == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(writerThread);
+    try {
+      writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drainLoop() {
+    long sequence = consumed;
+    while (running || published.get((int) sequence & mask) == sequence) {
+      int drained = 0;
+      int index = (int) sequence & mask;
+      while (published.get(index) == sequence) {
+        write(symbolIds[index], exchangeTimes[index], receiveTimes[index], prices[index]);
+        prices[index] = null;
+        sequence++;
+        consumed = sequence;
+        drained++;
+        index = (int) sequence & mask;
+      }
+
+      if (drained > 0) {
+        if (writer != null) {
+          writer.commit();
+        }
+      } else {
+        reportDrops();
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+    closeWriter();
+    log.info("Tick recorder stopped, {} ticks dropped", dropped.get());
+  }
+
+  private void write(int symbolId, long exchangeTime, long receiveTime, BigDecimal price) {
+    try {
+      long epochDay = Math.floorDiv(receiveTime, MILLIS_PER_DAY);
+      if (writer == null || writer.getEpochDay() != epochDay) {
+        closeWriter();
+        writer = new TickFileWriter(Path.of(properties.getDirectory()), LocalDate.ofEpochDay(epochDay),
+                properties.getBlockSize(), properties.getMapChunkSize());
+      }
+      long priceE8 = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+      writer.append(symbolId, exchangeTime, receiveTime, priceE8);
+    } catch (IOException | ArithmeticException e) {
+      log.error("Failed to record tick for symbol id {}: {}", symbolId, e.getMessage());
+    }
+  }
+
+  private void closeWriter() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      log.error("Failed to close tick file: {}", e.getMessage());
+    }
+    writer = null;
+  }
+
+  private void reportDrops() {
+    long now = System.currentTimeMillis();
+    if (now - lastDropReport < DROP_REPORT_INTERVAL_MS) {
+      return;
+    }
+    lastDropReport = now;
+    long droppedTicks = dropped.get();
+    if (droppedTicks > 0) {
+      log.warn("Tick recorder has dropped {} ticks since start", droppedTicks);
+    }
+  }
+}
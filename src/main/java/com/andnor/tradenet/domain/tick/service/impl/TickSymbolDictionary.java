@@ -0,0 +1,103 @@
+package com.andnor.tradenet.domain.tick.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class TickSymbolDictionary {
+  private static final String FILE_NAME = "symbols.txt";
+
+  private final Path file;
+  private final Map<String, Integer> idsBySymbol = new ConcurrentHashMap<>();
+  private volatile List<String> symbolsById = new ArrayList<>();
+
+  public TickSymbolDictionary(TradingProperties tradingProperties) {
+    this.file = Path.of(tradingProperties.getTicks().getDirectory()).resolve(FILE_NAME);
+    reload();
+  }
+
+  public int idOf(String symbol) {
+    Integer id = idsBySymbol.get(symbol);
+    return id != null ? id : register(symbol);
+  }
+
+  public int lookup(String symbol) {
+    Integer id = idsBySymbol.get(symbol);
+    if (id == null) {
+      reload();
+      id = idsBySymbol.get(symbol);
+    }
+    return id != null ? id : -1;
+  }
+
+  public String symbolOf(int id) {
+    List<String> symbols = symbolsById;
+    if (id >= symbols.size()) {
+      reload();
+      symbols = symbolsById;
+    }
+    return id >= 0 && id < symbols.size() ? symbols.get(id) : null;
+  }
+
+  private synchronized int register(String symbol) {
+    Integer existing = idsBySymbol.get(symbol);
+    if (existing != null) {
+      return existing;
+    }
+
+    int id = symbolsById.size();
+    try {
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, id + " " + symbol + "\n", StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to register tick symbol " + symbol, e);
+    }
+
+    List<String> symbols = new ArrayList<>(symbolsById);
+    symbols.add(symbol);
+    symbolsById = symbols;
+    idsBySymbol.put(symbol, id);
+    return id;
+  }
+
+  private synchronized void reload() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try {
+      List<String> symbols = new ArrayList<>();
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+          continue;
+        }
+        int id = Integer.parseInt(line.substring(0, separator));
+        String symbol = line.substring(separator + 1);
+        while (symbols.size() <= id) {
+          symbols.add(null);
+        }
+        symbols.set(id, symbol);
+        idsBySymbol.putIfAbsent(symbol, id);
+      }
+      if (symbols.size() >= symbolsById.size()) {
+        symbolsById = symbols;
+      }
+    } catch (IOException e) {
+      log.error("Failed to read tick symbol dictionary {}: {}", file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.andnor.tradenet.domain.tick.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+
+@UtilityClass
+public class VarInts {
+  public static final int MAX_VARLONG_BYTES = 10;
+
+  public long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  public long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public void putVarLong(ByteBuffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  public long getVarLong(ByteBuffer buffer) {
+    long result = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      result |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return result;
+  }
+}
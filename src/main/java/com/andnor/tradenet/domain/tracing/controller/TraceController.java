@@ -0,0 +1,25 @@
+package com.andnor.tradenet.domain.tracing.controller;
+
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class TraceController {
+  private final Tracer tracer;
+
+  @GetMapping
+  public List<Trace> getTraces(@RequestParam(defaultValue = "0") long minDurationMs, @RequestParam(required = false) String symbol,
+          @RequestParam(defaultValue = "50") int limit) {
+    return tracer.getTraces(Duration.ofMillis(minDurationMs), symbol, limit);
+  }
+}
@@ -0,0 +1,9 @@
+package com.andnor.tradenet.domain.tracing.model;
+
+import java.time.Instant;
+
+public record Trace(long id, Instant startedAt, String symbol, int droppedSpans, TraceSpan root) {
+  public long durationMicros() {
+    return root.durationMicros();
+  }
+}
@@ -0,0 +1,8 @@
+package com.andnor.tradenet.domain.tracing.model;
+
+import java.util.List;
+import java.util.Map;
+
+public record TraceSpan(String name, long offsetMicros, long durationMicros, Map<String, String> tags, String error,
+        List<TraceSpan> children) {
+}
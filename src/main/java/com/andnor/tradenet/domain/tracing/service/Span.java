@@ -0,0 +1,25 @@
+package com.andnor.tradenet.domain.tracing.service;
+
+public interface Span extends AutoCloseable {
+  Span NOOP = new Span() {
+    @Override
+    public Span tag(String key, Object value) {
+      return this;
+    }
+
+    @Override
+    public void fail(Throwable error) {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
+  Span tag(String key, Object value);
+
+  void fail(Throwable error);
+
+  @Override
+  void close();
+}
@@ -0,0 +1,39 @@
+package com.andnor.tradenet.domain.tracing.service;
+
+import com.andnor.tradenet.domain.tracing.model.Trace;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface Tracer {
+  Span startTrace(String name);
+
+  Span startSpan(String name);
+
+  List<Trace> getTraces(Duration minDuration, String symbol, int limit);
+
+  default <T> T call(String name, Supplier<T> operation) {
+    Span span = startSpan(name);
+    try {
+      return operation.get();
+    } catch (RuntimeException e) {
+      span.fail(e);
+      throw e;
+    } finally {
+      span.close();
+    }
+  }
+
+  default void run(String name, Runnable operation) {
+    Span span = startSpan(name);
+    try {
+      operation.run();
+    } catch (RuntimeException e) {
+      span.fail(e);
+      throw e;
+    } finally {
+      span.close();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.model.TraceSpan;
+import com.andnor.tradenet.domain.tracing.service.Span;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+final class RecordingSpan implements Span {
+  private final RingBufferTracer tracer;
+  private final RecordingSpan parent;
+  private final RecordingSpan root;
+  private final String name;
+  private final long startNanos = System.nanoTime();
+  private final int maxSpans;
+  private Instant startedAt;
+  private Map<String, String> tags;
+  private List<RecordingSpan> children;
+  private String error;
+  private long durationNanos = -1;
+  private int spanCount;
+  private int droppedSpans;
+
+  private RecordingSpan(RingBufferTracer tracer, RecordingSpan parent, String name, int maxSpans) {
+    this.tracer = tracer;
+    this.parent = parent;
+    this.root = parent == null ? this : parent.root;
+    this.name = name;
+    this.maxSpans = maxSpans;
+  }
+
+  static RecordingSpan root(RingBufferTracer tracer, String name, int maxSpans) {
+    RecordingSpan span = new RecordingSpan(tracer, null, name, maxSpans);
+    span.startedAt = Instant.now();
+    return span;
+  }
+
+  RecordingSpan child(String childName) {
+    if (root.spanCount >= root.maxSpans) {
+      root.droppedSpans++;
+      return null;
+    }
+    root.spanCount++;
+    RecordingSpan child = new RecordingSpan(tracer, this, childName, maxSpans);
+    if (children == null) {
+      children = new ArrayList<>();
+    }
+    children.add(child);
+    return child;
+  }
+
+  RecordingSpan getParent() {
+    return parent;
+  }
+
+  boolean isRoot() {
+    return parent == null;
+  }
+
+  long getDurationNanos() {
+    return durationNanos;
+  }
+
+  @Override
+  public Span tag(String key, Object value) {
+    if (tags == null) {
+      tags = new LinkedHashMap<>(4);
+    }
+    tags.put(key, value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value));
+    return this;
+  }
+
+  @Override
+  public void fail(Throwable failure) {
+    if (error == null) {
+      error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (durationNanos >= 0) {
+      return;
+    }
+    durationNanos = System.nanoTime() - startNanos;
+    tracer.onClose(this);
+  }
+
+  Trace toTrace(long id) {
+    String symbol = tags == null ? null : tags.get("symbol");
+    return new Trace(id, startedAt, symbol, droppedSpans, toTraceSpan(startNanos));
+  }
+
+  private TraceSpan toTraceSpan(long traceStartNanos) {
+    long duration = durationNanos >= 0 ? durationNanos : System.nanoTime() - startNanos;
+    List<TraceSpan> childSpans = children == null ? List.of()
+            : children.stream().map(child -> child.toTraceSpan(traceStartNanos)).toList();
+    return new TraceSpan(name, TimeUnit.NANOSECONDS.toMicros(startNanos - traceStartNanos), TimeUnit.NANOSECONDS.toMicros(duration),
+            tags == null ? Map.of() : Collections.unmodifiableMap(tags), error, childSpans);
+  }
+}
@@ -0,0 +1,27 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class RepositoryTracingPostProcessor implements BeanPostProcessor {
+  private final ObjectProvider<Tracer> tracerProvider;
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      Supplier<Tracer> tracer = SingletonSupplier.of(tracerProvider::getObject);
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repository) ->
+              proxyFactory.addAdvice(0, new TracedRepositoryInterceptor(repository.getRepositoryInterface().getSimpleName(), tracer))));
+    }
+    return bean;
+  }
+}
@@ -0,0 +1,105 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.core.util.LogThrottle;
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.service.Span;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class RingBufferTracer implements Tracer {
+  private static final LogThrottle LOG_THROTTLE = new LogThrottle(log, Duration.ofSeconds(30));
+
+  private final boolean enabled;
+  private final int maxSpansPerTrace;
+  private final long slowThresholdNanos;
+  private final TraceRing recent;
+  private final TraceRing slow;
+  private final AtomicLong traceIds = new AtomicLong();
+  private final ThreadLocal<RecordingSpan> current = new ThreadLocal<>();
+
+  public RingBufferTracer(TradingProperties tradingProperties) {
+    TradingProperties.Tracing properties = tradingProperties.getTracing();
+    this.enabled = properties.isEnabled();
+    this.maxSpansPerTrace = properties.getMaxSpansPerTrace();
+    this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    this.recent = new TraceRing(properties.getCapacity());
+    this.slow = new TraceRing(properties.getSlowCapacity());
+  }
+
+  @Override
+  public Span startTrace(String name) {
+    if (!enabled) {
+      return Span.NOOP;
+    }
+    if (current.get() != null) {
+      return startSpan(name);
+    }
+    RecordingSpan root = RecordingSpan.root(this, name, maxSpansPerTrace);
+    current.set(root);
+    return root;
+  }
+
+  @Override
+  public Span startSpan(String name) {
+    RecordingSpan active = current.get();
+    if (active == null) {
+      return Span.NOOP;
+    }
+    RecordingSpan child = active.child(name);
+    if (child == null) {
+      return Span.NOOP;
+    }
+    current.set(child);
+    return child;
+  }
+
+  @Override
+  public List<Trace> getTraces(Duration minDuration, String symbol, int limit) {
+    long minDurationMicros = minDuration.toNanos() / 1_000;
+    Map<Long, Trace> traces = new TreeMap<>(Comparator.reverseOrder());
+    for (Trace trace : slow.snapshot()) {
+      traces.put(trace.id(), trace);
+    }
+    for (Trace trace : recent.snapshot()) {
+      traces.put(trace.id(), trace);
+    }
+    return traces.values().stream()
+            .filter(trace -> trace.durationMicros() >= minDurationMicros)
+            .filter(trace -> symbol == null || symbol.equalsIgnoreCase(trace.symbol()))
+            .limit(Math.max(0, limit))
+            .toList();
+  }
+
+  void onClose(RecordingSpan span) {
+    if (span.isRoot()) {
+      current.remove();
+      export(span);
+    } else if (current.get() == span) {
+      current.set(span.getParent());
+    }
+  }
+
+  private void export(RecordingSpan root) {
+    Trace trace = root.toTrace(traceIds.incrementAndGet());
+    recent.add(trace);
+    if (root.getDurationNanos() >= slowThresholdNanos) {
+      slow.add(trace);
+      if (LOG_THROTTLE.allow("Slow trace", trace.symbol())) {
+        log.warn("Slow {} on {} took {} ms, trace {} is available on /api/admin/traces", trace.root().name(), trace.symbol(),
+                TimeUnit.NANOSECONDS.toMillis(root.getDurationNanos()), trace.id());
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.domain.tracing.model.Trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class TraceRing {
+  private final Trace[] traces;
+  private long next;
+
+  TraceRing(int capacity) {
+    this.traces = new Trace[Math.max(1, capacity)];
+  }
+
+  synchronized void add(Trace trace) {
+    traces[(int) (next++ % traces.length)] = trace;
+  }
+
+  synchronized List<Trace> snapshot() {
+    int size = (int) Math.min(next, traces.length);
+    List<Trace> snapshot = new ArrayList<>(size);
+    for (long index = next - 1; index >= next - size; index--) {
+      snapshot.add(traces[(int) (index % traces.length)]);
+    }
+    return snapshot;
+  }
+}
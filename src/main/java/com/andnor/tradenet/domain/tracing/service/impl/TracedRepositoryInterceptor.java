@@ -0,0 +1,39 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.domain.tracing.service.Span;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+final class TracedRepositoryInterceptor implements MethodInterceptor {
+  private final String prefix;
+  private final Supplier<Tracer> tracer;
+  private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+  TracedRepositoryInterceptor(String repositoryName, Supplier<Tracer> tracer) {
+    this.prefix = "db." + repositoryName + ".";
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Method method = invocation.getMethod();
+    if (method.getDeclaringClass() == Object.class) {
+      return invocation.proceed();
+    }
+    Span span = tracer.get().startSpan(spanNames.computeIfAbsent(method, m -> prefix + m.getName()));
+    try {
+      return invocation.proceed();
+    } catch (Throwable e) {
+      span.fail(e);
+      throw e;
+    } finally {
+      span.close();
+    }
+  }
+}
@@ -1,90 +1,486 @@
 package com.andnor.tradenet.domain.trade;
 
-import com.andnor.tradenet.domain.exchange.impl.BinanceService;
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.impl.BinanceAccount;
+import com.andnor.tradenet.domain.exchange.impl.BinanceAccountRegistry;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.util.ClientOrderIds;
 import com.andnor.tradenet.domain.position.model.PositionStatus;
-import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.model.PositionsBulkClosedEvent;
 import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.tick.service.TickListener;
+import com.andnor.tradenet.domain.trade.model.FlattenReport;
+import com.andnor.tradenet.domain.trade.model.PairLifecycleReport;
+import com.andnor.tradenet.domain.trade.model.TradingReadiness;
+import com.andnor.tradenet.domain.trade.model.WarmUpReport;
+import com.andnor.tradenet.domain.trade.strategy.GridStrategy;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
 import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import com.andnor.tradenet.domain.trade.warmup.TradingWarmUp;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairKeyView;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
-import jakarta.annotation.PostConstruct;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TradingManager {
     private final TradingPairRepository tradingPairRepository;
+    private final TradingPairStateRepository tradingPairStateRepository;
     private final PositionRepository positionRepository;
-    private final BinanceService binanceService;
+    private final ExchangeService exchangeService;
     private final Map<String, TradingThread> activeThreads = new ConcurrentHashMap<>();
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     private final TradingService tradingService;
+    private final TradingProperties tradingProperties;
+    private final ObjectProvider<TickListener> tickListeners;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TradingWarmUp tradingWarmUp;
+    private final BinanceAccountRegistry accountRegistry;
+    private volatile boolean ready;
+    private volatile WarmUpReport warmUpReport;
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void initializeActiveTrading() {
-        if (!binanceService.isHedgeModeEnabled()) {
+        if (!exchangeService.isHedgeModeEnabled()) {
             throw new IllegalStateException(
                     "Account must be in Hedge Mode to use this trading strategy. " +
                     "Please enable Hedge Mode in your Binance Futures account settings."
             );
         }
+        try {
+            warmUpReport = tradingWarmUp.warmUp();
+        } catch (RuntimeException e) {
+            log.error("Warm-up failed, trading goes live without it: {}", e.getMessage(), e);
+        }
         List<TradingPairEntity> activePairs = tradingPairRepository.findAllByActiveTrue();
         for (TradingPairEntity pair : activePairs) {
             startTrading(pair);
         }
+        ready = true;
+        log.info("Trading is live for {} pairs", activePairs.size());
+    }
+
+    public TradingReadiness getReadiness() {
+        return new TradingReadiness(ready, activeThreads.size(), warmUpReport);
     }
 
-    public void startTrading(TradingPairEntity pair) {
-        if (activeThreads.containsKey(pair.getSymbol())) {
-            log.error("Trading already active for {}", pair.getSymbol());
+    public synchronized void startTrading(TradingPairEntity pair) {
+        startTrading(pair, tradingPairStateRepository.findById(pair.getId()).orElse(null));
+    }
+
+    private void startTrading(TradingPairEntity pair, TradingPairStateEntity state) {
+        GridStrategy strategy = createStrategy(pair, state);
+
+        TradingThread tradingThread = activeThreads.get(pair.getSymbol());
+        if (tradingThread != null && tradingThread.addStrategy(strategy)) {
+            return;
+        }
+        if (tradingThread != null && tradingThread.isRunning()) {
+            log.error("Trading already active for {} ({})", pair.getSymbol(), strategy.getTag());
             return;
         }
 
-        TradingThread tradingThread = new TradingThread(pair, binanceService, tradingService, tradingPairRepository);
+        tradingThread = new TradingThread(pair.getSymbol(), exchangeService, new PollingScheduler(tradingProperties.getPoll()),
+                tickListeners.orderedStream().toList(), this::onThreadExit);
+        tradingThread.addStrategy(strategy);
         activeThreads.put(pair.getSymbol(), tradingThread);
+        submit(tradingThread);
+        log.info("Started trading thread for {} with strategy {}", pair.getSymbol(), strategy.getTag());
+    }
+
+    private void submit(TradingThread tradingThread) {
         executorService.submit(tradingThread);
+    }
+
+    private void onThreadExit(TradingThread tradingThread) {
+        if (tradingThread.isRetired()) {
+            return;
+        }
+        if (tradingThread.isRunning()) {
+            tradingThread.stop();
+            log.error("Trading thread for {} exited unexpectedly, keeping it registered for the watchdog", tradingThread.getSymbol());
+            return;
+        }
+        if (activeThreads.remove(tradingThread.getSymbol(), tradingThread)) {
+            log.info("Trading thread for {} exited and was unregistered", tradingThread.getSymbol());
+        }
+    }
+
+    private GridStrategy createStrategy(TradingPairEntity pair, TradingPairStateEntity state) {
+        GridStrategy strategy = new GridStrategy(pair, tradingService, tradingPairRepository, tradingPairStateRepository);
+        if (state != null) {
+            strategy.restoreState(state, tradingProperties.getCheckpoint().getMaxCatchUpAge());
+        }
+        return strategy;
+    }
+
+    public PairLifecycleReport startTradingPairs(Collection<Long> pairIds) {
+        long startedAt = System.currentTimeMillis();
+        Set<Long> requested = new LinkedHashSet<>(pairIds);
+        List<TradingPairEntity> pairs = tradingPairRepository.findAllById(requested);
+        Map<Long, TradingPairStateEntity> states = new HashMap<>();
+        tradingPairStateRepository.findAllById(requested).forEach(state -> states.put(state.getTradingPairId(), state));
+
+        List<Long> started = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        synchronized (this) {
+            for (TradingPairEntity pair : pairs) {
+                if (findStrategy(pair.getId()) != null) {
+                    skipped.add(pair.getId());
+                    continue;
+                }
+                try {
+                    pair.setActive(true);
+                    startTrading(pair, states.get(pair.getId()));
+                    started.add(pair.getId());
+                } catch (Exception e) {
+                    log.error("Failed to start trading for {} ({}): {}", pair.getSymbol(), pair.getStrategyTag(), e.getMessage());
+                    failed.add(pair.getId());
+                }
+            }
+        }
+        if (!started.isEmpty()) {
+            tradingPairRepository.activateAll(started);
+        }
+
+        PairLifecycleReport report = new PairLifecycleReport(started, skipped, missingOf(requested, pairs), failed,
+                System.currentTimeMillis() - startedAt);
+        log.info("Started {} trading pairs in {} ms ({} already running, {} missing, {} failed)", started.size(),
+                report.getDurationMillis(), skipped.size(), report.getMissing().size(), failed.size());
+        return report;
+    }
+
+    public PairLifecycleReport stopTradingPairs(Collection<Long> pairIds, boolean hardStop) {
+        long startedAt = System.currentTimeMillis();
+        Set<Long> requested = new LinkedHashSet<>(pairIds);
+        List<TradingPairEntity> stopped = new ArrayList<>();
+        synchronized (this) {
+            for (TradingThread thread : activeThreads.values()) {
+                boolean removed = false;
+                for (TradingPairEntity pair : thread.getTradingPairs()) {
+                    if (requested.contains(pair.getId()) && thread.removeStrategy(pair.getId()) != null) {
+                        stopped.add(pair);
+                        removed = true;
+                    }
+                }
+                if (removed && thread.getStrategies().isEmpty()) {
+                    thread.stop();
+                    activeThreads.remove(thread.getSymbol(), thread);
+                    log.info("Stopped trading thread for {}", thread.getSymbol());
+                }
+            }
+        }
+
+        Set<Long> failed = ConcurrentHashMap.newKeySet();
+        List<Long> stoppedIds = stopped.stream().map(TradingPairEntity::getId).toList();
+        if (!stopped.isEmpty() && !hardStop) {
+            int closed = positionRepository.updateOpenPositionsStatus(stoppedIds, PositionStatus.CLOSED, Instant.now());
+            eventPublisher.publishEvent(new PositionsBulkClosedEvent(stoppedIds));
+            log.info("Marked {} open positions of {} stopped pairs as closed", closed, stoppedIds.size());
+        } else if (!stopped.isEmpty()) {
+            closeConcurrently(stopped, failed);
+        }
+
+        List<TradingPairEntity> pairs = tradingPairRepository.findAllById(requested);
+        if (!pairs.isEmpty()) {
+            tradingPairRepository.deactivateAll(pairs.stream().map(TradingPairEntity::getId).toList());
+        }
+
+        List<Long> skipped = pairs.stream().map(TradingPairEntity::getId).filter(id -> !stoppedIds.contains(id)).toList();
+        PairLifecycleReport report = new PairLifecycleReport(stoppedIds, skipped, missingOf(requested, pairs),
+                stoppedIds.stream().filter(failed::contains).toList(), System.currentTimeMillis() - startedAt);
+        log.info("Stopped {} trading pairs in {} ms ({} not running, {} missing, {} failed)", stoppedIds.size(),
+                report.getDurationMillis(), skipped.size(), report.getMissing().size(), report.getFailed().size());
+        return report;
+    }
+
+    private void closeConcurrently(List<TradingPairEntity> pairs, Set<Long> failed) {
+        try (ExecutorService closeExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore requestBudget = new Semaphore(tradingProperties.getFlatten().getMaxConcurrentRequests());
+            for (TradingPairEntity pair : pairs) {
+                closeExecutor.execute(() -> runWithinBudget(requestBudget, pair.getId(), failed, () -> closePositions(true, pair)));
+            }
+
+            closeExecutor.shutdown();
+            if (!closeExecutor.awaitTermination(tradingProperties.getFlatten().getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.error("Closing positions of {} stopped pairs did not finish within {}", pairs.size(),
+                        tradingProperties.getFlatten().getTimeout());
+                closeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> missingOf(Set<Long> requested, List<TradingPairEntity> found) {
+        Set<Long> foundIds = new HashSet<>();
+        found.forEach(pair -> foundIds.add(pair.getId()));
+        return requested.stream().filter(id -> !foundIds.contains(id)).toList();
+    }
+
+    public boolean applyConfig(TradingPairEntity pair) {
+        TradingStrategy strategy = findStrategy(pair.getId());
+        return strategy != null && strategy.applyConfig(pair);
+    }
+
+    public boolean isTrading(Long pairId) {
+        return findStrategy(pairId) != null;
+    }
 
-        log.info("Started trading thread for {}", pair.getSymbol());
+    private TradingStrategy findStrategy(Long pairId) {
+        for (TradingThread thread : activeThreads.values()) {
+            TradingStrategy strategy = thread.findStrategy(pairId);
+            if (strategy != null) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+
+    public boolean restartTrading(String symbol) {
+        TradingThread stalled = activeThreads.get(symbol);
+        if (stalled == null) {
+            return false;
+        }
+        stalled.retire();
+
+        Duration gracePeriod = tradingProperties.getWatchdog().getRestartGracePeriod();
+        boolean exited;
+        try {
+            exited = stalled.awaitTermination(gracePeriod);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exited = false;
+        }
+
+        synchronized (this) {
+            if (activeThreads.get(symbol) != stalled) {
+                log.warn("Trading thread for {} changed while restarting, skipping restart", symbol);
+                return false;
+            }
+            TradingThread replacement = new TradingThread(symbol, exchangeService, new PollingScheduler(tradingProperties.getPoll()),
+                    tickListeners.orderedStream().toList(), this::onThreadExit);
+            try {
+                if (exited) {
+                    stalled.getStrategies().forEach(replacement::addStrategy);
+                } else {
+                    log.error("Trading thread for {} did not exit within {}, restoring its strategies from the last checkpoint", symbol,
+                            gracePeriod);
+                    for (TradingStrategy strategy : stalled.getStrategies()) {
+                        TradingPairEntity pair = strategy.getTradingPair();
+                        replacement.addStrategy(createStrategy(pair, tradingPairStateRepository.findById(pair.getId()).orElse(null)));
+                    }
+                }
+            } catch (RuntimeException e) {
+                activeThreads.remove(symbol, stalled);
+                log.error("Failed to restart trading thread for {}, its strategies stopped: {}", symbol, e.getMessage(), e);
+                return false;
+            }
+            activeThreads.put(symbol, replacement);
+            submit(replacement);
+            log.warn("Restarted trading thread for {} with {} strategies", symbol, replacement.getStrategies().size());
+            return true;
+        }
+    }
+
+    public Collection<TradingThread> getActiveThreads() {
+        return activeThreads.values();
+    }
+
+    public List<TradingStrategy> getActiveStrategies() {
+        return activeThreads.values().stream()
+                .flatMap(thread -> thread.getStrategies().stream())
+                .toList();
     }
 
     public void stopTrading(String symbol, boolean hardStop) {
-        log.info("Stopping trading thread for {}", symbol);
-        TradingThread thread = activeThreads.remove(symbol);
+        TradingThread thread = activeThreads.get(symbol);
         if (thread != null) {
-            TradingPairEntity tradingPair = thread.getTradingPair();
-            closePositions(hardStop, tradingPair);
-            tradingPair.setActive(false);
-            thread.stop();
-            log.info("Stopped trading thread for {}", symbol);
+            log.info("Stopping trading thread for {}", symbol);
+            stopTradingPairs(thread.getTradingPairs().stream().map(TradingPairEntity::getId).toList(), hardStop);
         }
     }
 
     private void closePositions(boolean hardStop, TradingPairEntity tradingPair) {
-        List<PositionEntity> positions = positionRepository.findAllByTradingPair_Id(tradingPair.getId());
-        if (hardStop) {
-            for (PositionEntity position : positions) {
-                try {
-                    binanceService.closePosition(position);
-                    position.setStatus(PositionStatus.CLOSED);
-                } catch (Exception e) {
-                    log.error("Error while closing position {}", position.getId(), e);
-                    position.setStatus(PositionStatus.ERROR);
+        if (!hardStop) {
+            int closed = positionRepository.updateOpenPositionsStatus(List.of(tradingPair.getId()), PositionStatus.CLOSED, Instant.now());
+            eventPublisher.publishEvent(new PositionsBulkClosedEvent(List.of(tradingPair.getId())));
+            log.info("Marked {} open positions of {} ({}) as closed", closed, tradingPair.getSymbol(), tradingPair.getStrategyTag());
+            return;
+        }
+
+        int notClosed = tradingService.closeOpenPositions(tradingPair);
+        if (notClosed > 0) {
+            throw new IllegalStateException(notClosed + " positions of " + tradingPair.getSymbol() + " were not closed");
+        }
+    }
+
+    public FlattenReport flattenAll() {
+        long startedAt = System.currentTimeMillis();
+        List<TradingThread> threads = new ArrayList<>(activeThreads.values());
+        log.warn("Flattening accounts: stopping {} trading threads", threads.size());
+        threads.forEach(TradingThread::stop);
+        activeThreads.clear();
+        awaitStopped(threads, tradingProperties.getFlatten().getThreadStopTimeout());
+
+        List<TradingPairEntity> activePairs = tradingPairRepository.findAllByActiveTrue();
+        Map<String, List<PositionRisk>> openPositions = new LinkedHashMap<>();
+        Map<String, Set<String>> symbols = new LinkedHashMap<>();
+        for (BinanceAccount account : accountRegistry.getAccounts()) {
+            List<PositionRisk> accountPositions = account.exchange().getOpenPositionRisks();
+            Set<String> accountSymbols = new HashSet<>();
+            activePairs.stream()
+                    .filter(pair -> account.name().equals(pair.getAccount()))
+                    .forEach(pair -> accountSymbols.add(pair.getSymbol()));
+            accountPositions.forEach(position -> accountSymbols.add(position.symbol()));
+            openPositions.put(account.name(), accountPositions);
+            symbols.put(account.name(), accountSymbols);
+        }
+
+        Set<String> failedSymbols = ConcurrentHashMap.newKeySet();
+        try (ExecutorService flattenExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BinanceAccount account : accountRegistry.getAccounts()) {
+                ExchangeService accountExchange = account.exchange();
+                Semaphore requestBudget = new Semaphore(tradingProperties.getFlatten().getMaxConcurrentRequests());
+                for (String symbol : symbols.get(account.name())) {
+                    String label = labelOf(account.name(), symbol);
+                    flattenExecutor.execute(() -> runWithinBudget(requestBudget, label, failedSymbols,
+                            () -> accountExchange.cancelAllOpenOrders(symbol)));
+                }
+                for (PositionRisk position : openPositions.get(account.name())) {
+                    String label = labelOf(account.name(), position.symbol());
+                    if (!"LONG".equals(position.positionSide()) && !"SHORT".equals(position.positionSide())) {
+                        log.error("Cannot flatten {} position on {} outside of hedge mode", position.positionSide(), label);
+                        failedSymbols.add(label);
+                        continue;
+                    }
+                    PositionType type = PositionType.valueOf(position.positionSide());
+                    flattenExecutor.execute(() -> runWithinBudget(requestBudget, label, failedSymbols,
+                            () -> accountExchange.closeSide(position.symbol(), type, position.positionAmt().abs(),
+                                    ClientOrderIds.forFlatten(position.symbol(), type, startedAt))));
+                }
+            }
+
+            flattenExecutor.shutdown();
+            if (!flattenExecutor.awaitTermination(tradingProperties.getFlatten().getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.error("Flatten requests did not finish within {}", tradingProperties.getFlatten().getTimeout());
+                flattenExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int symbolCount = 0;
+        int closeOrderCount = 0;
+        Set<String> nonFlatLabels = new TreeSet<>();
+        for (BinanceAccount account : accountRegistry.getAccounts()) {
+            Set<String> nonFlatSymbols = new HashSet<>();
+            account.exchange().getOpenPositionRisks().forEach(position -> nonFlatSymbols.add(position.symbol()));
+            persistFlattenedState(account.name(), symbols.get(account.name()), nonFlatSymbols);
+            nonFlatSymbols.forEach(symbol -> nonFlatLabels.add(labelOf(account.name(), symbol)));
+            symbolCount += symbols.get(account.name()).size();
+            closeOrderCount += openPositions.get(account.name()).size();
+        }
+
+        FlattenReport report = new FlattenReport(symbolCount, closeOrderCount, new ArrayList<>(new TreeSet<>(failedSymbols)),
+                new ArrayList<>(nonFlatLabels), System.currentTimeMillis() - startedAt);
+        log.warn("Flatten finished in {} ms: {} symbols, {} close orders, {} failed, {} not flat", report.getDurationMillis(),
+                report.getSymbolCount(), report.getCloseOrderCount(), report.getFailedSymbols(), report.getNonFlatSymbols());
+        return report;
+    }
+
+    private void awaitStopped(List<TradingThread> threads, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (TradingThread thread : threads) {
+            try {
+                Duration left = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+                if (!thread.awaitTermination(left)) {
+                    log.error("Trading thread for {} did not stop within {}, retiring it", thread.getSymbol(), timeout);
+                    thread.retire();
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-        } else {
-            positions.forEach(p -> p.setStatus(PositionStatus.CLOSED));
         }
-        positionRepository.saveAll(positions);
+    }
+
+    private String labelOf(String account, String symbol) {
+        return BinanceAccountRegistry.DEFAULT_ACCOUNT.equals(account) ? symbol : account + ":" + symbol;
+    }
+
+    private <T> void runWithinBudget(Semaphore requestBudget, T target, Set<T> failedTargets, Runnable request) {
+        try {
+            requestBudget.acquire();
+            try {
+                request.run();
+            } finally {
+                requestBudget.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedTargets.add(target);
+        } catch (Exception e) {
+            log.error("Exchange request failed for {}: {}", target, e.getMessage());
+            failedTargets.add(target);
+        }
+    }
+
+    private void persistFlattenedState(String account, Set<String> symbols, Set<String> nonFlatSymbols) {
+        if (symbols.isEmpty()) {
+            return;
+        }
+        List<TradingPairKeyView> pairs = tradingPairRepository.findAllByAccountAndSymbolIn(account, symbols);
+        List<Long> flatPairIds = new ArrayList<>();
+        List<Long> nonFlatPairIds = new ArrayList<>();
+        for (TradingPairKeyView pair : pairs) {
+            (nonFlatSymbols.contains(pair.getSymbol()) ? nonFlatPairIds : flatPairIds).add(pair.getId());
+        }
+        if (!pairs.isEmpty()) {
+            tradingPairRepository.deactivateAll(pairs.stream().map(TradingPairKeyView::getId).toList());
+        }
+
+        if (!flatPairIds.isEmpty()) {
+            positionRepository.updateOpenPositionsStatus(flatPairIds, PositionStatus.CLOSED, Instant.now());
+            eventPublisher.publishEvent(new PositionsBulkClosedEvent(flatPairIds));
+        }
+        if (!nonFlatPairIds.isEmpty()) {
+            positionRepository.updateOpenPositionsStatus(nonFlatPairIds, PositionStatus.ERROR, null);
+            eventPublisher.publishEvent(new PositionsBulkClosedEvent(nonFlatPairIds));
+        }
     }
 
     public void stopAllTrading() {
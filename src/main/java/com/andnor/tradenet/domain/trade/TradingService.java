@@ -1,108 +1,274 @@
 package com.andnor.tradenet.domain.trade;
 
-import com.andnor.tradenet.domain.exchange.impl.BinanceService;
+import com.andnor.tradenet.core.util.CircuitOpenException;
+import com.andnor.tradenet.core.util.LogThrottle;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.util.ClientOrderIds;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionOpenedEvent;
 import com.andnor.tradenet.domain.position.model.PositionStatus;
 import com.andnor.tradenet.domain.position.model.PositionType;
 import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionOrdersView;
 import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.risk.model.ExposureReservation;
+import com.andnor.tradenet.domain.risk.service.RiskEngine;
 import com.andnor.tradenet.domain.telegram.model.MessageType;
 import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.tracing.service.Span;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
 import com.andnor.tradenet.domain.trade.model.AlgorithmAction;
 import com.andnor.tradenet.domain.trade.model.LevelClosingResult;
+import com.andnor.tradenet.domain.trade.model.SideClosePlan;
+import com.andnor.tradenet.domain.trade.strategy.TickContext;
+import com.andnor.tradenet.domain.trade.util.ClosePlanner;
 import com.andnor.tradenet.domain.trade.util.TradeUtils;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TradingService {
+  private static final LogThrottle LOG_THROTTLE = new LogThrottle(log, Duration.ofSeconds(30));
+  private static final String FILLED = "FILLED";
+
   private final PositionRepository positionRepository;
-  private final BinanceService binanceService;
+  private final ExchangeService exchangeService;
   private final MessageService messageService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final RiskEngine riskEngine;
+  private final Tracer tracer;
 
-  public void processLevelCrossing(TradingPairEntity pair, BigDecimal currentPrice, BigDecimal newLevelPrice, BigDecimal prevLevelPrice) {
+  public void processLevelCrossing(TradingPairEntity pair, BigDecimal currentPrice, BigDecimal newLevelPrice, BigDecimal prevLevelPrice,
+          long crossingSequence, TickContext context) {
     if (prevLevelPrice == null && pair.getStartPrice().equals(newLevelPrice)) {
       return;
     } else if (prevLevelPrice == null) {
       prevLevelPrice = pair.getStartPrice();
     }
 
-    log.info("Processing level crossing for {}: {} -> Level {}", pair.getSymbol(), currentPrice, newLevelPrice);
+    log.debug("Processing level crossing for {}: {} -> Level {}", pair.getSymbol(), currentPrice, newLevelPrice);
+    boolean isUpward = newLevelPrice.compareTo(prevLevelPrice) > 0;
+    long crossingId = ClientOrderIds.crossingId(pair, newLevelPrice, isUpward, crossingSequence);
+    Span trace = tracer.startTrace("crossing")
+            .tag("symbol", pair.getSymbol())
+            .tag("account", pair.getAccount())
+            .tag("strategy", pair.getStrategyTag())
+            .tag("level", newLevelPrice)
+            .tag("price", currentPrice)
+            .tag("crossingId", crossingId);
+    try {
+      LevelClosingResult levelClosingResult = new LevelClosingResult();
+      levelClosingResult.setLevel(newLevelPrice);
+
+      closePositionsWhereProtectiveOrderExecuted(pair, levelClosingResult, context);
+      closeTakeProfitPositions(pair, newLevelPrice, crossingId, levelClosingResult, context);
+
+      AlgorithmAction action = determineAction(pair, newLevelPrice, isUpward, levelClosingResult, context);
+      trace.tag("action", action);
+      executeAction(pair, newLevelPrice, isUpward, action, crossingId, context);
+    } catch (RuntimeException e) {
+      trace.fail(e);
+      throw e;
+    } finally {
+      trace.close();
+    }
+  }
 
-    closePositionsWhereStopLossOrderExecuted(pair);
+  private void closePositionsWhereProtectiveOrderExecuted(TradingPairEntity pair, LevelClosingResult result, TickContext context) {
+    List<PositionOrdersView> openPositions = positionRepository.findOpenPositionOrders(pair.getId());
+    if (openPositions.isEmpty()) {
+      return;
+    }
+    List<Long> openOrderIds = context.getOpenOrderIds(pair);
+
+    List<Long> executedPositionIds = new ArrayList<>();
+    for (PositionOrdersView position : openPositions) {
+      if ((position.takeProfitOrderId() != null && !openOrderIds.contains(position.takeProfitOrderId()))
+              || (position.stopLossOrderId() != null && !openOrderIds.contains(position.stopLossOrderId()))) {
+        executedPositionIds.add(position.id());
+      }
+    }
+    if (executedPositionIds.isEmpty()) {
+      return;
+    }
+    context.ensureActive(pair);
 
-    LevelClosingResult levelClosingResult = closeTakeProfitPositions(pair, newLevelPrice);
+    for (PositionEntity position : positionRepository.findAllWithTradingPairByIdIn(executedPositionIds)) {
+      Long stopLossOrderId = position.getStopLossOrderId();
+      Long takeProfitOrderId = position.getTakeProfitOrderId();
 
-    boolean isUpward = newLevelPrice.compareTo(prevLevelPrice) > 0;
+      if (takeProfitOrderId != null && !openOrderIds.contains(takeProfitOrderId)) {
+        OrderResult takeProfit = exchangeService.queryOrder(pair, takeProfitOrderId);
+        if (FILLED.equals(takeProfit.status())) {
+          log.info("Take profit order {} was executed for position {}, closing position", takeProfitOrderId, position.getId());
+          exchangeService.cancelOrder(pair, stopLossOrderId);
 
-    AlgorithmAction action = determineAction(pair, newLevelPrice, isUpward, levelClosingResult);
-    executeAction(pair, newLevelPrice, isUpward, action);
-  }
+          markClosed(position, fillPrice(takeProfit, position.getTakeProfitPrice()), result);
+          positionRepository.save(position);
+          eventPublisher.publishEvent(new PositionClosedEvent(position));
+
+          broadcastPositionMessage(MessageType.SUCCESSFULLY_CLOSED_POSITION, position);
+          continue;
+        } else if (isGone(takeProfit)) {
+          log.warn("Take profit order {} of position {} ended as {} without a fill, the position will close on level crossing",
+                  takeProfitOrderId, position.getId(), takeProfit.status());
+          position.setTakeProfitOrderId(null);
+          positionRepository.save(position);
+        }
+      }
 
-  private void closePositionsWhereStopLossOrderExecuted(TradingPairEntity pair) {
-    List<PositionEntity> openPositions = positionRepository.getAllByStatusAndTradingPair(PositionStatus.OPEN, pair);
-    List<Long> openOrderIds = binanceService.getOpenOrderIdsByTradingPair(pair);
+      if (stopLossOrderId != null && !openOrderIds.contains(stopLossOrderId)) {
+        OrderResult stopLoss = exchangeService.queryOrder(pair, stopLossOrderId);
+        if (FILLED.equals(stopLoss.status())) {
+          log.info("Stop loss order {} was executed for position {}, closing position", stopLossOrderId, position.getId());
+          exchangeService.cancelOrder(pair, position.getTakeProfitOrderId());
 
-    for (PositionEntity position : openPositions) {
-      if (position.getStopLossOrderId() != null && !openOrderIds.contains(position.getStopLossOrderId())) {
-          log.info("Stop loss order {} was executed for position {}, closing position",
-                  position.getStopLossOrderId(), position.getId());
           position.setStatus(PositionStatus.CLOSED);
+          position.setEndPrice(fillPrice(stopLoss, position.getStopLossPrice()));
           position.setClosedAt(Instant.now());
           positionRepository.save(position);
+          eventPublisher.publishEvent(new PositionClosedEvent(position));
+        } else if (isGone(stopLoss)) {
+          log.error("Stop loss order {} of position {} ended as {} without a fill, the position is no longer protected",
+                  stopLossOrderId, position.getId(), stopLoss.status());
+          position.setStopLossOrderId(null);
+          positionRepository.save(position);
+        }
       }
     }
   }
 
-  private LevelClosingResult closeTakeProfitPositions(TradingPairEntity pair, BigDecimal level) {
+  private boolean isGone(OrderResult order) {
+    return !FILLED.equals(order.status()) && !"NEW".equals(order.status()) && !"PARTIALLY_FILLED".equals(order.status());
+  }
+
+  private BigDecimal fillPrice(OrderResult order, BigDecimal plannedPrice) {
+    return order.avgPrice() != null && order.avgPrice().signum() > 0 ? order.avgPrice() : plannedPrice;
+  }
+
+  private void closeTakeProfitPositions(TradingPairEntity pair, BigDecimal level, long crossingId, LevelClosingResult result,
+          TickContext context) {
     List<PositionEntity> positionsToClose = positionRepository.findPositionsToClose(pair.getId(), level);
 
-    LevelClosingResult result = new LevelClosingResult();
-    result.setLevel(level);
+    for (SideClosePlan plan : ClosePlanner.plan(positionsToClose)) {
+      context.ensureActive(pair);
+      closeSide(pair, "level " + level.toPlainString(), ClientOrderIds.forClose(pair, plan.getType(), crossingId), plan, result);
+    }
+
+    log.info("Completed closing positions for {} at level {}: {} long, {} short closed, {} failed", pair.getSymbol(), level,
+            result.getClosedLongPositions(), result.getClosedShortPositions(), result.getFailedPositions());
+  }
 
-    for (PositionEntity position : positionsToClose) {
-      try {
-        binanceService.closePosition(position);
+  public int closeOpenPositions(TradingPairEntity pair) {
+    List<PositionEntity> openPositions = positionRepository.findOpenByTradingPairId(pair.getId());
+    LevelClosingResult result = new LevelClosingResult();
+    for (SideClosePlan plan : ClosePlanner.plan(openPositions)) {
+      long newestPositionId = plan.getPositions().stream().mapToLong(PositionEntity::getId).max().orElseThrow();
+      closeSide(pair, "hard stop", ClientOrderIds.forPositionClose(pair, plan.getType(), newestPositionId), plan, result);
+    }
 
-        position.setStatus(PositionStatus.CLOSED);
-        position.setEndPrice(level);
-        position.setClosedAt(Instant.now());
-        positionRepository.save(position);
+    int notClosed = (int) openPositions.stream().filter(position -> position.getStatus() != PositionStatus.CLOSED).count();
+    log.info("Hard stop of {} ({}) closed {} long and {} short positions, {} not closed", pair.getSymbol(), pair.getStrategyTag(),
+            result.getClosedLongPositions(), result.getClosedShortPositions(), notClosed);
+    return notClosed;
+  }
 
-        if (position.getType() == PositionType.LONG) {
-          result.incrementClosedLongPositions();
+  private void closeSide(TradingPairEntity pair, String trigger, String clientOrderId, SideClosePlan plan, LevelClosingResult result) {
+    List<PositionEntity> remaining = new ArrayList<>(plan.getPositions());
+    boolean exchangeUnavailable = false;
+    try {
+      Set<Long> goneOrderIds = exchangeService.cancelOrders(pair, plan.getProtectiveOrderIds());
+
+      List<PositionEntity> toMarketClose = new ArrayList<>(remaining.size());
+      for (PositionEntity position : plan.getPositions()) {
+        BigDecimal protectiveFillPrice = protectiveFillPrice(pair, position.getTakeProfitOrderId(), position.getTakeProfitPrice(),
+                goneOrderIds);
+        if (protectiveFillPrice == null) {
+          protectiveFillPrice = protectiveFillPrice(pair, position.getStopLossOrderId(), position.getStopLossPrice(), goneOrderIds);
+        }
+        if (protectiveFillPrice != null) {
+          markClosed(position, protectiveFillPrice, result);
+          remaining.remove(position);
         } else {
-          result.incrementClosedShortPositions();
+          toMarketClose.add(position);
         }
+      }
 
-        messageService.broadcastPositionMessage(MessageType.SUCCESSFULLY_CLOSED_POSITION, position);
-
-      } catch (Exception e) {
-        log.error("Failed to close position {} for pair {} at level {}: {}", position.getId(), pair.getSymbol(), level, e.getMessage(), e);
+      BigDecimal quantity = ClosePlanner.totalQuantity(toMarketClose);
+      if (quantity.signum() > 0) {
+        OrderResult fill = exchangeService.closeSide(pair, plan.getType(), quantity, clientOrderId);
+        for (PositionEntity position : ClosePlanner.allocateFill(toMarketClose, fill.executedQty())) {
+          markClosed(position, fill.avgPrice(), result);
+          remaining.remove(position);
+        }
+      }
+    } catch (CircuitOpenException e) {
+      exchangeUnavailable = true;
+      log.warn("Exchange unavailable while closing {} positions for pair {} on {}, {} positions stay open: {}", plan.getType(),
+              pair.getSymbol(), trigger, remaining.size(), e.getMessage());
+    } catch (Exception e) {
+      log.error("Failed to close {} positions for pair {} on {}: {}", plan.getType(), pair.getSymbol(), trigger, e.getMessage(), e);
+    }
 
+    if (!exchangeUnavailable) {
+      for (PositionEntity position : remaining) {
+        log.error("Position {} for pair {} was not closed on {}", position.getId(), pair.getSymbol(), trigger);
         position.setStatus(PositionStatus.ERROR);
-        positionRepository.save(position);
-
         result.incrementFailedPositions();
       }
     }
+    positionRepository.saveAll(plan.getPositions());
 
-    log.info("Completed closing positions for {} at level {}: {} long, {} short closed, {} failed", pair.getSymbol(), level,
-            result.getClosedLongPositions(), result.getClosedShortPositions(), result.getFailedPositions());
+    for (PositionEntity position : plan.getPositions()) {
+      if (!position.getStatus().isTerminal()) {
+        continue;
+      }
+      eventPublisher.publishEvent(new PositionClosedEvent(position));
+      if (position.getStatus() == PositionStatus.CLOSED) {
+        broadcastPositionMessage(MessageType.SUCCESSFULLY_CLOSED_POSITION, position);
+      }
+    }
+  }
 
-    return result;
+  private BigDecimal protectiveFillPrice(TradingPairEntity pair, Long orderId, BigDecimal plannedPrice, Set<Long> goneOrderIds) {
+    if (orderId == null || !goneOrderIds.contains(orderId)) {
+      return null;
+    }
+    OrderResult order = exchangeService.queryOrder(pair, orderId);
+    return FILLED.equals(order.status()) ? fillPrice(order, plannedPrice) : null;
+  }
+
+  private void markClosed(PositionEntity position, BigDecimal endPrice, LevelClosingResult result) {
+    position.setStatus(PositionStatus.CLOSED);
+    position.setEndPrice(endPrice);
+    position.setClosedAt(Instant.now());
+
+    if (position.getType() == PositionType.LONG) {
+      result.incrementClosedLongPositions();
+    } else {
+      result.incrementClosedShortPositions();
+    }
   }
 
-  private AlgorithmAction determineAction(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, LevelClosingResult closingResult) {
-    if (binanceService.getAccountBalance().compareTo(pair.getPositionAmountUsdt()) < 0) {
-      log.info("Not enough balance to open position for {} at level {}", pair.getSymbol(), newLevelPrice);
+  private AlgorithmAction determineAction(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, LevelClosingResult closingResult,
+          TickContext context) {
+    if (context.getAvailableBalance(pair).compareTo(pair.getPositionAmountUsdt()) < 0) {
+      if (LOG_THROTTLE.allow("Not enough balance", pair.getSymbol())) {
+        log.info("Not enough balance to open position for {} at level {}", pair.getSymbol(), newLevelPrice);
+      }
       return AlgorithmAction.DO_NOTHING;
     }
 
@@ -129,53 +295,91 @@ public class TradingService {
     }
   }
 
-  private void executeAction(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, AlgorithmAction action) {
+  private void executeAction(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, AlgorithmAction action, long crossingId,
+          TickContext context) {
+    if (action != AlgorithmAction.DO_NOTHING) {
+      context.ensureActive(pair);
+    }
     switch (action) {
     case OPEN_TREND_POSITION:
-      log.info("Opening trend position for {} at level {}", pair.getSymbol(), newLevelPrice);
-      openTrendPosition(pair, newLevelPrice, isUpward);
+      log.debug("Opening trend position for {} at level {}", pair.getSymbol(), newLevelPrice);
+      if (openTrendPosition(pair, newLevelPrice, isUpward, crossingId)) {
+        context.reserveBalance(pair, pair.getPositionAmountUsdt());
+      }
       break;
     case OPEN_COUNTER_TREND_POSITION:
-      log.info("Opening counter-trend position for {} at level {}", pair.getSymbol(), newLevelPrice);
-      openCounterTrendPosition(pair, newLevelPrice, isUpward);
+      log.debug("Opening counter-trend position for {} at level {}", pair.getSymbol(), newLevelPrice);
+      if (openCounterTrendPosition(pair, newLevelPrice, isUpward, crossingId)) {
+        context.reserveBalance(pair, pair.getPositionAmountUsdt());
+      }
       break;
     case DO_NOTHING:
-      log.info("No action needed for {} at level {}", pair.getSymbol(), newLevelPrice);
+      log.debug("No action needed for {} at level {}", pair.getSymbol(), newLevelPrice);
       break;
     }
   }
 
-  private void openTrendPosition(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward) {
+  private boolean openTrendPosition(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, long crossingId) {
     PositionType positionType = isUpward ? PositionType.LONG : PositionType.SHORT;
     BigDecimal takeProfitLevelPrice = calculateNextLevel(pair, newLevelPrice, isUpward);
 
     try {
-      PositionEntity position = binanceService.openPosition(pair, positionType, newLevelPrice, takeProfitLevelPrice);
-      positionRepository.save(position);
-
-      messageService.broadcastPositionMessage(MessageType.SUCCESSFULLY_OPENED_POSITION, position);
-
+      return openPosition(pair, positionType, newLevelPrice, takeProfitLevelPrice, crossingId);
     } catch (Exception e) {
       log.error("Failed to open {} position for {} at level {}: {}", positionType, pair.getSymbol(), newLevelPrice, e.getMessage(), e);
       throw new RuntimeException("Failed to open trend position", e);
     }
   }
 
-  private void openCounterTrendPosition(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward) {
+  private boolean openCounterTrendPosition(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward, long crossingId) {
     PositionType positionType = isUpward ? PositionType.SHORT : PositionType.LONG;
     BigDecimal takeProfitLevelPrice = calculatePreviousLevel(pair, newLevelPrice, isUpward);
 
     try {
-      PositionEntity position = binanceService.openPosition(pair, positionType, newLevelPrice, takeProfitLevelPrice);
-      positionRepository.save(position);
-
-      messageService.broadcastPositionMessage(MessageType.SUCCESSFULLY_OPENED_POSITION, position);
+      return openPosition(pair, positionType, newLevelPrice, takeProfitLevelPrice, crossingId);
     } catch (Exception e) {
       log.error("Failed to open counter-trend {} position for {} at level {}: {}", positionType, pair.getSymbol(), newLevelPrice, e.getMessage(), e);
       throw new RuntimeException("Failed to open counter-trend position", e);
     }
   }
 
+  private boolean openPosition(TradingPairEntity pair, PositionType positionType, BigDecimal newLevelPrice, BigDecimal takeProfitLevelPrice,
+          long crossingId) {
+    ExposureReservation reservation = riskEngine.reserve(pair, positionType, pair.getPositionAmountUsdt());
+    if (!reservation.isAccepted()) {
+      if (LOG_THROTTLE.allow("Risk limit blocks position", pair.getSymbol())) {
+        log.warn("Risk limit {} blocks {} position for {} at level {}", reservation.getRejectedBy(), positionType, pair.getSymbol(),
+                newLevelPrice);
+      }
+      return false;
+    }
+
+    PositionEntity position;
+    try {
+      position = exchangeService.openPosition(pair, positionType, newLevelPrice, takeProfitLevelPrice, crossingId);
+    } catch (RuntimeException e) {
+      riskEngine.release(reservation);
+      throw e;
+    }
+    riskEngine.confirm(reservation, position);
+    positionRepository.save(position);
+    eventPublisher.publishEvent(new PositionOpenedEvent(position));
+    broadcastPositionMessage(MessageType.SUCCESSFULLY_OPENED_POSITION, position);
+
+    if (position.getStatus() != PositionStatus.OPEN) {
+      log.warn("Position {} for {} ended as {} right after opening", position.getId(), pair.getSymbol(), position.getStatus());
+      eventPublisher.publishEvent(new PositionClosedEvent(position));
+      if (position.getStatus() == PositionStatus.CLOSED) {
+        broadcastPositionMessage(MessageType.SUCCESSFULLY_CLOSED_POSITION, position);
+      }
+    }
+    return true;
+  }
+
+  private void broadcastPositionMessage(MessageType messageType, PositionEntity position) {
+    tracer.run("notify.positionMessage", () -> messageService.broadcastPositionMessage(messageType, position));
+  }
+
   private boolean hasOpenTrendPosition(TradingPairEntity pair, BigDecimal newLevelPrice, boolean isUpward) {
     PositionType trendType = isUpward ? PositionType.LONG : PositionType.SHORT;
     return positionRepository.existsOpenPositionAtLevel(pair.getId(), newLevelPrice, trendType);
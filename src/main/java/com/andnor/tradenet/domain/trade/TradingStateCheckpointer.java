@@ -0,0 +1,96 @@
+package com.andnor.tradenet.domain.trade;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.trade.strategy.GridStrategy;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradingStateCheckpointer {
+    private final TradingManager tradingManager;
+    private final TradingPairStateRepository tradingPairStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TradingProperties tradingProperties;
+    private final Map<Long, Long> checkpointedVersions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trading-state-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = tradingProperties.getCheckpoint().getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpointSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int checkpoint() {
+        Instant now = Instant.now();
+        List<TradingPairStateEntity> states = new ArrayList<>();
+        Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+        for (TradingStrategy strategy : tradingManager.getActiveStrategies()) {
+            if (!(strategy instanceof GridStrategy grid)) {
+                continue;
+            }
+            Long pairId = grid.getTradingPair().getId();
+            long version = grid.getStateVersion();
+            if (grid.getLastPrice() == null || Long.valueOf(version).equals(checkpointedVersions.get(pairId))) {
+                continue;
+            }
+            states.add(TradingPairStateEntity.builder()
+                    .tradingPairId(pairId)
+                    .startPrice(grid.getTradingPair().getStartPrice())
+                    .lastPrice(grid.getLastPrice())
+                    .currentLevelPrice(grid.getCurrentLevelPrice())
+                    .lastCrossingAt(grid.getLastCrossingAt())
+                    .updatedAt(now)
+                    .build());
+            versions.put(pairId, version);
+        }
+
+        if (states.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> states.forEach(state -> tradingPairStateRepository.upsert(
+                state.getTradingPairId(), state.getStartPrice(), state.getLastPrice(), state.getCurrentLevelPrice(),
+                state.getLastCrossingAt(), state.getUpdatedAt())));
+        checkpointedVersions.putAll(versions);
+        return states.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        checkpointSafely();
+    }
+
+    private void checkpointSafely() {
+        try {
+            int written = checkpoint();
+            if (written > 0) {
+                log.debug("Checkpointed trading state for {} pairs", written);
+            }
+        } catch (Exception e) {
+            log.error("Failed to checkpoint trading state: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.andnor.tradenet.domain.trade;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.trade.model.PairHealth;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
+import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradingWatchdog {
+    private final TradingManager tradingManager;
+    private final MessageService messageService;
+    private final MessageFormatter messageFormatter;
+    private final MeterRegistry meterRegistry;
+    private final TradingProperties tradingProperties;
+    private final Map<String, Long> alertedAt = new ConcurrentHashMap<>();
+    private final Set<String> restarting = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger stalledPairs = new AtomicInteger();
+    private final AtomicLong maxTickAgeMillis = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trading-watchdog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        return thread;
+    });
+    private final ExecutorService restartExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("trading-watchdog-restart-", 0).factory());
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("trading.watchdog.stalled.pairs", stalledPairs, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("trading.watchdog.max.tick.age", maxTickAgeMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        TradingProperties.Watchdog properties = tradingProperties.getWatchdog();
+        if (properties.isEnabled()) {
+            long intervalMillis = properties.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        restartExecutor.shutdownNow();
+    }
+
+    public List<PairHealth> getHealth() {
+        List<PairHealth> health = new ArrayList<>();
+        for (TradingThread thread : tradingManager.getActiveThreads()) {
+            health.add(inspect(thread, thread.getSlowestTickNanos().get()));
+        }
+        return health;
+    }
+
+    public List<PairHealth> check() {
+        List<PairHealth> unhealthy = new ArrayList<>();
+        int stalled = 0;
+        long maxAge = 0;
+
+        for (TradingThread thread : tradingManager.getActiveThreads()) {
+            PairHealth health = inspect(thread, thread.takeSlowestTickNanos());
+            maxAge = Math.max(maxAge, health.getTickAgeMillis());
+            if (health.isStalled()) {
+                stalled++;
+            }
+
+            if (health.isStalled() || health.isSloBreached()) {
+                unhealthy.add(health);
+                report(thread, health);
+            } else if (alertedAt.remove(health.getSymbol()) != null) {
+                log.info("Trading loop for {} recovered, last tick {} ms ago", health.getSymbol(), health.getTickAgeMillis());
+                messageService.broadcastMessage(messageFormatter.formatStallRecovery(health));
+            }
+        }
+
+        stalledPairs.set(stalled);
+        maxTickAgeMillis.set(maxAge);
+        return unhealthy;
+    }
+
+    private PairHealth inspect(TradingThread thread, long slowestTickNanos) {
+        TradingProperties.Watchdog properties = tradingProperties.getWatchdog();
+        long now = System.currentTimeMillis();
+        long tickStartedNanos = thread.getTickStartedNanos();
+        long tickAge = now - thread.getLastTickAt();
+        long inFlight = tickStartedNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tickStartedNanos);
+        long slowest = TimeUnit.NANOSECONDS.toMillis(slowestTickNanos);
+        long maxTickDuration = properties.getMaxTickDuration().toMillis();
+
+        String reason = null;
+        boolean stalled = true;
+        if (thread.isFinished()) {
+            reason = "worker exited";
+        } else if (inFlight > maxTickDuration) {
+            reason = String.format("tick in flight for %d ms", inFlight);
+        } else if (tickAge > properties.getMaxTickAge().toMillis() && thread.getPollingScheduler().getConsecutiveFailures() > 0) {
+            stalled = false;
+            reason = String.format("exchange unavailable, %d failed polls", thread.getPollingScheduler().getConsecutiveFailures());
+        } else if (tickAge > properties.getMaxTickAge().toMillis()) {
+            reason = String.format("no tick for %d ms", tickAge);
+        } else {
+            stalled = false;
+            if (slowest > maxTickDuration) {
+                reason = String.format("tick took %d ms", slowest);
+            }
+        }
+
+        List<String> stackSample = stalled ? sampleStack(thread.getWorker(), properties.getStackDepth()) : List.of();
+        List<String> strategies = thread.getStrategies().stream().map(TradingStrategy::getTag).toList();
+        return new PairHealth(thread.getSymbol(), strategies, thread.getTickCount().get(), tickAge, inFlight,
+                TimeUnit.NANOSECONDS.toMillis(thread.getLastTickNanos()), slowest, stalled, reason != null, reason, stackSample);
+    }
+
+    private void report(TradingThread thread, PairHealth health) {
+        TradingProperties.Watchdog properties = tradingProperties.getWatchdog();
+        Counter.builder(health.isStalled() ? "trading.watchdog.stalls" : "trading.watchdog.slo.breaches")
+                .tag("symbol", health.getSymbol())
+                .register(meterRegistry)
+                .increment();
+
+        long now = System.currentTimeMillis();
+        Long previous = alertedAt.get(health.getSymbol());
+        if (previous != null && now - previous < properties.getAlertCooldown().toMillis()) {
+            return;
+        }
+        alertedAt.put(health.getSymbol(), now);
+
+        if (!health.isStalled()) {
+            log.warn("Trading loop for {} breached latency SLO: {}", health.getSymbol(), health.getReason());
+        } else {
+            log.error("Trading loop for {} stalled: {} (last tick {} ms ago, in flight {} ms)\n    at {}", health.getSymbol(),
+                    health.getReason(), health.getTickAgeMillis(), health.getInFlightMillis(),
+                    String.join("\n    at ", health.getStackSample()));
+        }
+
+        if (health.isStalled() && properties.isRestartStalled() && tradingManager.getActiveThreads().contains(thread)
+                && restarting.add(health.getSymbol())) {
+            restartExecutor.execute(() -> restart(health));
+        } else {
+            messageService.broadcastMessage(messageFormatter.formatStallAlert(health, false));
+        }
+    }
+
+    private void restart(PairHealth health) {
+        boolean restarted = false;
+        try {
+            restarted = tradingManager.restartTrading(health.getSymbol());
+            if (restarted) {
+                Counter.builder("trading.watchdog.restarts")
+                        .tag("symbol", health.getSymbol())
+                        .register(meterRegistry)
+                        .increment();
+            }
+        } catch (Exception e) {
+            log.error("Failed to restart trading loop for {}: {}", health.getSymbol(), e.getMessage(), e);
+        } finally {
+            restarting.remove(health.getSymbol());
+        }
+        messageService.broadcastMessage(messageFormatter.formatStallAlert(health, restarted));
+    }
+
+    private List<String> sampleStack(Thread worker, int depth) {
+        if (worker == null) {
+            return List.of();
+        }
+        return Arrays.stream(worker.getStackTrace())
+                .limit(depth)
+                .map(StackTraceElement::toString)
+                .toList();
+    }
+
+    private void checkSafely() {
+        try {
+            check();
+        } catch (Exception e) {
+            log.error("Trading watchdog check failed: {}", e.getMessage());
+        }
+    }
+}
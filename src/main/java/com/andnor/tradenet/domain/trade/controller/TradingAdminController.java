@@ -0,0 +1,40 @@
+package com.andnor.tradenet.domain.trade.controller;
+
+import com.andnor.tradenet.domain.trade.TradingManager;
+import com.andnor.tradenet.domain.trade.TradingWatchdog;
+import com.andnor.tradenet.domain.trade.model.FlattenReport;
+import com.andnor.tradenet.domain.trade.model.PairHealth;
+import com.andnor.tradenet.domain.trade.model.TradingReadiness;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/trading")
+@RequiredArgsConstructor
+public class TradingAdminController {
+  private final TradingManager tradingManager;
+  private final TradingWatchdog tradingWatchdog;
+
+  @PostMapping("/flatten")
+  public FlattenReport flattenAll() {
+    return tradingManager.flattenAll();
+  }
+
+  @GetMapping("/readiness")
+  public ResponseEntity<TradingReadiness> readiness() {
+    TradingReadiness readiness = tradingManager.getReadiness();
+    return ResponseEntity.status(readiness.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(readiness);
+  }
+
+  @GetMapping("/health")
+  public List<PairHealth> health() {
+    return tradingWatchdog.getHealth();
+  }
+}
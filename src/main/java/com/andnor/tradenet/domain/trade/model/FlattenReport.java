@@ -0,0 +1,20 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class FlattenReport {
+    private int symbolCount;
+    private int closeOrderCount;
+    private List<String> failedSymbols;
+    private List<String> nonFlatSymbols;
+    private long durationMillis;
+
+    public boolean isFlat() {
+        return nonFlatSymbols.isEmpty();
+    }
+}
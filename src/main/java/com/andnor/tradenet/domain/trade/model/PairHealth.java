@@ -0,0 +1,22 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PairHealth {
+    private String symbol;
+    private List<String> strategies;
+    private long ticks;
+    private long tickAgeMillis;
+    private long inFlightMillis;
+    private long lastTickMillis;
+    private long slowestTickMillis;
+    private boolean stalled;
+    private boolean sloBreached;
+    private String reason;
+    private List<String> stackSample;
+}
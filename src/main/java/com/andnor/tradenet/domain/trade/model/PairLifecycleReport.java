@@ -0,0 +1,16 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PairLifecycleReport {
+    private List<Long> applied;
+    private List<Long> skipped;
+    private List<Long> missing;
+    private List<Long> failed;
+    private long durationMillis;
+}
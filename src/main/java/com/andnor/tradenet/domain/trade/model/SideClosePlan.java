@@ -0,0 +1,16 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SideClosePlan {
+  private PositionType type;
+  private List<PositionEntity> positions;
+  private List<Long> protectiveOrderIds;
+}
@@ -0,0 +1,12 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TradingReadiness {
+    private boolean ready;
+    private int activePairs;
+    private WarmUpReport warmUp;
+}
@@ -0,0 +1,14 @@
+package com.andnor.tradenet.domain.trade.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class WarmUpReport {
+    private int ticks;
+    private int crossings;
+    private long coldCrossingMicros;
+    private long warmCrossingMicros;
+    private long durationMillis;
+}
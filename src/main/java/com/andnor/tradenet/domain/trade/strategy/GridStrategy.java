@@ -0,0 +1,217 @@
+package com.andnor.tradenet.domain.trade.strategy;
+
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.trade.TradingService;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
+import com.andnor.tradenet.domain.trade.util.TradeUtils;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Getter
+public class GridStrategy implements TradingStrategy {
+  @Getter(AccessLevel.NONE)
+  private final AtomicReference<TradingPairEntity> config;
+  private final TradingService tradingService;
+  private final TradingPairRepository tradingPairRepository;
+  private final TradingPairStateRepository tradingPairStateRepository;
+  private volatile BigDecimal lastPrice;
+  private volatile BigDecimal currentLevelPrice;
+  private volatile Instant lastCrossingAt;
+  private volatile long stateVersion;
+  private volatile long crossingSequence;
+  private boolean firstCrossingMeasured;
+  @Getter(AccessLevel.NONE)
+  private TradingPairEntity anchoredConfig;
+
+  public GridStrategy(TradingPairEntity tradingPair, TradingService tradingService, TradingPairRepository tradingPairRepository,
+          TradingPairStateRepository tradingPairStateRepository) {
+    this.config = new AtomicReference<>(tradingPair.toBuilder().build());
+    this.tradingService = tradingService;
+    this.tradingPairRepository = tradingPairRepository;
+    this.tradingPairStateRepository = tradingPairStateRepository;
+  }
+
+  @Override
+  public TradingPairEntity getTradingPair() {
+    return config.get();
+  }
+
+  @Override
+  public void onTick(TickerPrice ticker, TickContext context) {
+    BigDecimal currentPrice = ticker.price();
+    TradingPairEntity tradingPair = config.get();
+    if (tradingPair.getStartPrice() == null) {
+      tradingPair = config.updateAndGet(current -> current.getStartPrice() != null ? current
+              : current.toBuilder().startPrice(currentPrice).build());
+      tradingPairRepository.initializeStartPrice(tradingPair.getId(), tradingPair.getStartPrice());
+      log.info("Start price for {} ({}) set to {}", tradingPair.getSymbol(), getTag(), tradingPair.getStartPrice());
+    }
+
+    if (anchoredConfig != tradingPair) {
+      if (anchoredConfig != null && !sameLattice(anchoredConfig, tradingPair)) {
+        reanchorLevel(tradingPair);
+      }
+      anchoredConfig = tradingPair;
+    }
+
+    if (lastPrice != null && lastPrice.compareTo(currentPrice) != 0) {
+      processLevelCrossings(tradingPair, lastPrice, currentPrice, context);
+    }
+
+    if (lastPrice == null || lastPrice.compareTo(currentPrice) != 0) {
+      lastPrice = currentPrice;
+      stateVersion++;
+    }
+  }
+
+  @Override
+  public long nextPollDelayMillis(TickerPrice ticker, PollingScheduler pollingScheduler) {
+    TradingPairEntity tradingPair = config.get();
+    return pollingScheduler.nextDelayMillis(ticker.price(), tradingPair.getStartPrice(), TradeUtils.calculateStep(tradingPair),
+            currentLevelPrice);
+  }
+
+  @Override
+  public boolean applyConfig(TradingPairEntity updated) {
+    TradingPairEntity current = config.get();
+    if (!Objects.equals(current.getId(), updated.getId())) {
+      return false;
+    }
+    if (!Objects.equals(current.getAccount(), updated.getAccount()) || !Objects.equals(current.getSymbol(), updated.getSymbol())
+            || !Objects.equals(current.getStrategyTag(), updated.getStrategyTag())) {
+      log.warn("Cannot reload {} ({}) in place: account, symbol or strategy changed, restart the pair instead",
+              current.getSymbol(), getTag());
+      return false;
+    }
+
+    TradingPairEntity snapshot = updated.toBuilder().build();
+    TradingPairEntity previous = config.getAndUpdate(existing -> snapshot.getStartPrice() != null ? snapshot
+            : snapshot.toBuilder().startPrice(existing.getStartPrice()).build());
+    if (sameConfig(previous, snapshot)) {
+      return false;
+    }
+
+    log.info("Reloaded config for {} ({}): grid {}% -> {}%, stop-loss {}%/{}% -> {}%/{}%, amount {} -> {} USDT",
+            snapshot.getSymbol(), getTag(), previous.getGridLevelPercentage(), snapshot.getGridLevelPercentage(),
+            previous.getLongStopLossPercentage(), previous.getShortStopLossPercentage(), snapshot.getLongStopLossPercentage(),
+            snapshot.getShortStopLossPercentage(), previous.getPositionAmountUsdt(), snapshot.getPositionAmountUsdt());
+    return true;
+  }
+
+  private boolean sameLattice(TradingPairEntity a, TradingPairEntity b) {
+    return sameValue(a.getGridLevelPercentage(), b.getGridLevelPercentage()) && sameValue(a.getStartPrice(), b.getStartPrice());
+  }
+
+  private void reanchorLevel(TradingPairEntity tradingPair) {
+    if (currentLevelPrice == null || tradingPair.getStartPrice() == null) {
+      return;
+    }
+    BigDecimal step = TradeUtils.calculateStep(tradingPair);
+    BigDecimal n = currentLevelPrice.subtract(tradingPair.getStartPrice()).divide(step, 0, RoundingMode.HALF_UP);
+    BigDecimal level = tradingPair.getStartPrice().add(n.multiply(step));
+    log.info("Grid of {} ({}) moved, re-anchoring level {} -> {}", tradingPair.getSymbol(), getTag(), currentLevelPrice, level);
+    currentLevelPrice = level;
+    stateVersion++;
+  }
+
+  private boolean sameConfig(TradingPairEntity a, TradingPairEntity b) {
+    return sameValue(a.getGridLevelPercentage(), b.getGridLevelPercentage())
+            && sameValue(a.getLongStopLossPercentage(), b.getLongStopLossPercentage())
+            && sameValue(a.getShortStopLossPercentage(), b.getShortStopLossPercentage())
+            && sameValue(a.getPositionAmountUsdt(), b.getPositionAmountUsdt())
+            && (b.getStartPrice() == null || sameValue(a.getStartPrice(), b.getStartPrice()))
+            && Objects.equals(a.getLeverage(), b.getLeverage());
+  }
+
+  private boolean sameValue(BigDecimal a, BigDecimal b) {
+    return a == null ? b == null : b != null && a.compareTo(b) == 0;
+  }
+
+  private void processLevelCrossings(TradingPairEntity tradingPair, BigDecimal oldPrice, BigDecimal newPrice, TickContext context) {
+    BigDecimal step = TradeUtils.calculateStep(tradingPair);
+
+    BigDecimal newLevelPrice = findGridLevelPrice(tradingPair.getStartPrice(), step, oldPrice, newPrice);
+    if (newLevelPrice != null && (currentLevelPrice == null || !currentLevelPrice.equals(newLevelPrice))) {
+      log.info("Level crossing detected for {} ({}): {} -> {} (Level: {})", tradingPair.getSymbol(), getTag(), oldPrice, newPrice,
+              newLevelPrice);
+
+      long startedAt = System.nanoTime();
+      tradingService.processLevelCrossing(tradingPair, newPrice, newLevelPrice, currentLevelPrice, crossingSequence, context);
+      tradingPairStateRepository.advanceCrossingSequence(tradingPair.getId(), crossingSequence + 1, Instant.now());
+      crossingSequence++;
+      if (!firstCrossingMeasured) {
+        firstCrossingMeasured = true;
+        log.info("First crossing for {} ({}) processed in {} ms", tradingPair.getSymbol(), getTag(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+      }
+      currentLevelPrice = newLevelPrice;
+      lastCrossingAt = Instant.now();
+      stateVersion++;
+    }
+  }
+
+  public BigDecimal findGridLevelPrice(BigDecimal startPrice, BigDecimal step, BigDecimal oldPrice, BigDecimal newPrice) {
+    int cmp = newPrice.compareTo(oldPrice);
+
+    if (cmp == 0)
+      return null;
+
+    BigDecimal diff = newPrice.subtract(startPrice);
+    BigDecimal n = diff.divide(step, 0, RoundingMode.DOWN);
+    BigDecimal candidate = startPrice.add(n.multiply(step));
+
+    if (cmp > 0) {
+      if (candidate.compareTo(oldPrice) <= 0) {
+        candidate = candidate.add(step);
+      }
+
+      if (candidate.compareTo(oldPrice) > 0 && candidate.compareTo(newPrice) <= 0) {
+        return candidate;
+      }
+    } else {
+      while (candidate.compareTo(newPrice) < 0) {
+        candidate = candidate.add(step);
+      }
+
+      if (candidate.compareTo(oldPrice) < 0) {
+        return candidate;
+      }
+    }
+
+    return null;
+  }
+
+  public void restoreState(TradingPairStateEntity state, Duration maxCatchUpAge) {
+    TradingPairEntity tradingPair = config.get();
+    crossingSequence = state.getCrossingSequence();
+    if (tradingPair.getStartPrice() == null || state.getStartPrice() == null
+            || tradingPair.getStartPrice().compareTo(state.getStartPrice()) != 0) {
+      log.info("Ignoring saved state for {} ({}): grid start price has changed", tradingPair.getSymbol(), getTag());
+      return;
+    }
+
+    currentLevelPrice = state.getCurrentLevelPrice();
+    lastCrossingAt = state.getLastCrossingAt();
+    if (Duration.between(state.getUpdatedAt(), Instant.now()).compareTo(maxCatchUpAge) <= 0) {
+      lastPrice = state.getLastPrice();
+    } else {
+      log.warn("Saved state for {} ({}) is older than {}, skipping catch-up of missed crossings", tradingPair.getSymbol(), getTag(),
+              maxCatchUpAge);
+    }
+    log.info("Restored state for {} ({}): last price {}, level {}, saved at {}", tradingPair.getSymbol(), getTag(), lastPrice,
+            currentLevelPrice, state.getUpdatedAt());
+  }
+}
@@ -0,0 +1,40 @@
+package com.andnor.tradenet.domain.trade.strategy;
+
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+public class TickContext {
+  private final ExchangeService exchangeService;
+  private final BooleanSupplier retired;
+  private final Map<String, List<Long>> openOrderIds = new HashMap<>();
+  private final Map<String, BigDecimal> availableBalances = new HashMap<>();
+
+  public TickContext(ExchangeService exchangeService, BooleanSupplier retired) {
+    this.exchangeService = exchangeService;
+    this.retired = retired;
+  }
+
+  public void ensureActive(TradingPairEntity tradingPair) {
+    if (retired.getAsBoolean()) {
+      throw new IllegalStateException("Trading loop for " + tradingPair.getSymbol() + " was retired, skipping order call");
+    }
+  }
+
+  public List<Long> getOpenOrderIds(TradingPairEntity tradingPair) {
+    return openOrderIds.computeIfAbsent(tradingPair.getAccount(), account -> exchangeService.getOpenOrderIdsByTradingPair(tradingPair));
+  }
+
+  public BigDecimal getAvailableBalance(TradingPairEntity tradingPair) {
+    return availableBalances.computeIfAbsent(tradingPair.getAccount(), account -> exchangeService.getAccountBalance(tradingPair));
+  }
+
+  public void reserveBalance(TradingPairEntity tradingPair, BigDecimal amount) {
+    availableBalances.put(tradingPair.getAccount(), getAvailableBalance(tradingPair).subtract(amount));
+  }
+}
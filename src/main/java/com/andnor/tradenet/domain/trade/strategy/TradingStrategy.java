@@ -0,0 +1,19 @@
+package com.andnor.tradenet.domain.trade.strategy;
+
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+
+public interface TradingStrategy {
+  TradingPairEntity getTradingPair();
+
+  default String getTag() {
+    return getTradingPair().getStrategyTag();
+  }
+
+  void onTick(TickerPrice ticker, TickContext context);
+
+  long nextPollDelayMillis(TickerPrice ticker, PollingScheduler pollingScheduler);
+
+  boolean applyConfig(TradingPairEntity config);
+}
@@ -0,0 +1,98 @@
+package com.andnor.tradenet.domain.trade.thread;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class PollingScheduler {
+  private final long minIntervalMs;
+  private final long maxIntervalMs;
+  private final double volatilityWindowMs;
+  private final double crossingSigmas;
+  private final int warmUpSamples;
+  private final long errorBackoffInitialMs;
+  private final long errorBackoffMaxMs;
+  private double variancePerMs;
+  private double lastPrice;
+  private long lastSampleAt;
+  private int samples;
+  private volatile int consecutiveFailures;
+
+  public PollingScheduler(TradingProperties.Poll properties) {
+    this.minIntervalMs = properties.getMinInterval().toMillis();
+    this.maxIntervalMs = Math.max(minIntervalMs, properties.getMaxInterval().toMillis());
+    this.volatilityWindowMs = properties.getVolatilityWindow().toMillis();
+    this.crossingSigmas = properties.getCrossingSigmas();
+    this.warmUpSamples = properties.getWarmUpSamples();
+    this.errorBackoffInitialMs = Math.max(1, properties.getErrorBackoffInitial().toMillis());
+    this.errorBackoffMaxMs = Math.max(errorBackoffInitialMs, properties.getErrorBackoffMax().toMillis());
+  }
+
+  public void recordPrice(BigDecimal price, long timestamp) {
+    double value = price.doubleValue();
+    if (samples > 0 && timestamp > lastSampleAt && lastPrice > 0) {
+      long elapsed = timestamp - lastSampleAt;
+      double logReturn = Math.log(value / lastPrice);
+      double alpha = 1 - Math.exp(-elapsed / volatilityWindowMs);
+      variancePerMs += alpha * (logReturn * logReturn / elapsed - variancePerMs);
+    }
+    lastPrice = value;
+    lastSampleAt = timestamp;
+    samples++;
+  }
+
+  public long nextDelayMillis(BigDecimal price, BigDecimal startPrice, BigDecimal step, BigDecimal currentLevelPrice) {
+    if (samples < warmUpSamples || startPrice == null || step.signum() <= 0) {
+      return minIntervalMs;
+    }
+
+    double distance = distanceToActionableLevel(price.doubleValue(), startPrice.doubleValue(), step.doubleValue(),
+            currentLevelPrice == null ? Double.NaN : currentLevelPrice.doubleValue());
+    double relativeDistance = distance / price.doubleValue();
+    if (variancePerMs <= 0) {
+      return maxIntervalMs;
+    }
+
+    double sigmaDistance = relativeDistance / crossingSigmas;
+    double interval = sigmaDistance * sigmaDistance / variancePerMs;
+    return (long) Math.max(minIntervalMs, Math.min(maxIntervalMs, interval));
+  }
+
+  public long nextFailureDelayMillis() {
+    consecutiveFailures++;
+    long ceiling = Math.min(errorBackoffMaxMs, errorBackoffInitialMs << Math.min(consecutiveFailures - 1, 20));
+    return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+  }
+
+  public long nextBlockedDelayMillis(long retryAfterMillis) {
+    return Math.max(retryAfterMillis, errorBackoffInitialMs) + ThreadLocalRandom.current().nextLong(errorBackoffInitialMs + 1);
+  }
+
+  public int recordSuccess() {
+    int failures = consecutiveFailures;
+    consecutiveFailures = 0;
+    return failures;
+  }
+
+  public int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  public double getVolatilityPerSecond() {
+    return Math.sqrt(variancePerMs * 1000);
+  }
+
+  static double distanceToActionableLevel(double price, double startPrice, double step, double currentLevelPrice) {
+    double lower = startPrice + Math.floor((price - startPrice) / step) * step;
+    double upper = lower + step;
+    double tolerance = step * 1e-6;
+    if (Math.abs(lower - currentLevelPrice) < tolerance) {
+      lower -= step;
+    }
+    if (Math.abs(upper - currentLevelPrice) < tolerance) {
+      upper += step;
+    }
+    return Math.max(0, Math.min(price - lower, upper - price));
+  }
+}
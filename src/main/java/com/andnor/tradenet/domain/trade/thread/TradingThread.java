@@ -1,114 +1,282 @@
 package com.andnor.tradenet.domain.trade.thread;
 
-import com.andnor.tradenet.domain.exchange.impl.BinanceService;
-import com.andnor.tradenet.domain.trade.TradingService;
+import com.andnor.tradenet.core.util.CircuitOpenException;
+import com.andnor.tradenet.core.util.LogThrottle;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.tick.service.TickListener;
+import com.andnor.tradenet.domain.trade.strategy.TickContext;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
 import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
-import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Slf4j
 @Getter
 public class TradingThread implements Runnable {
-  private static final long TIME_INTERVAL = 300;
-  private final TradingPairEntity tradingPair;
-  private final BinanceService binanceService;
-  private final TradingService tradingService;
-  private final TradingPairRepository tradingPairRepository;
+  private static final LogThrottle LOG_THROTTLE = new LogThrottle(log, Duration.ofSeconds(30));
+
+  private final String symbol;
+  private final ExchangeService exchangeService;
+  private final PollingScheduler pollingScheduler;
+  private final List<TickListener> tickListeners;
+  private final List<TradingStrategy> strategies = new CopyOnWriteArrayList<>();
+  private final AtomicLong tickCount = new AtomicLong();
+  private final AtomicLong slowestTickNanos = new AtomicLong();
+  @Getter(AccessLevel.NONE)
+  private final String strategyFailure;
+  @Getter(AccessLevel.NONE)
+  private final String listenerFailure;
+  @Getter(AccessLevel.NONE)
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  @Getter(AccessLevel.NONE)
+  private final Consumer<TradingThread> exitHandler;
   private volatile boolean running = true;
-  private BigDecimal lastPrice;
-  private BigDecimal currentLevelPrice;
+  private volatile boolean retired;
+  private volatile boolean finished;
+  private volatile Thread worker;
+  private volatile long lastTickAt = System.currentTimeMillis();
+  private volatile long tickStartedNanos;
+  private volatile long lastTickNanos;
+
+  public TradingThread(String symbol, ExchangeService exchangeService, PollingScheduler pollingScheduler,
+          List<TickListener> tickListeners) {
+    this(symbol, exchangeService, pollingScheduler, tickListeners, thread -> { });
+  }
+
+  public TradingThread(String symbol, ExchangeService exchangeService, PollingScheduler pollingScheduler,
+          List<TickListener> tickListeners, Consumer<TradingThread> exitHandler) {
+    this.symbol = symbol;
+    this.exchangeService = exchangeService;
+    this.pollingScheduler = pollingScheduler;
+    this.tickListeners = tickListeners;
+    this.exitHandler = exitHandler;
+    this.strategyFailure = "Strategy failed for " + symbol;
+    this.listenerFailure = "Tick listener failed for " + symbol;
+  }
 
-  public TradingThread(TradingPairEntity tradingPair, BinanceService binanceService, TradingService tradingService,
-          TradingPairRepository tradingPairRepository) {
-    this.tradingPair = tradingPair;
-    this.binanceService = binanceService;
-    this.tradingService = tradingService;
-    this.tradingPairRepository = tradingPairRepository;
+  public synchronized boolean addStrategy(TradingStrategy strategy) {
+    if (!running) {
+      return false;
+    }
+    Long pairId = strategy.getTradingPair().getId();
+    for (TradingStrategy existing : strategies) {
+      if (existing.getTradingPair().getId().equals(pairId)) {
+        return false;
+      }
+    }
+    strategies.add(strategy);
+    log.info("Strategy {} for {} subscribed to price feed ({} strategies)", strategy.getTag(), symbol, strategies.size());
+    return true;
+  }
+
+  public TradingStrategy findStrategy(Long pairId) {
+    for (TradingStrategy strategy : strategies) {
+      if (strategy.getTradingPair().getId().equals(pairId)) {
+        return strategy;
+      }
+    }
+    return null;
+  }
+
+  public TradingStrategy removeStrategy(Long pairId) {
+    TradingStrategy strategy = findStrategy(pairId);
+    if (strategy == null || !strategies.remove(strategy)) {
+      return null;
+    }
+    log.info("Strategy {} for {} unsubscribed from price feed ({} strategies)", strategy.getTag(), symbol, strategies.size());
+    return strategy;
   }
 
   @Override
   public void run() {
-    log.info("Starting trading thread for {}", tradingPair.getSymbol());
-    BigDecimal startPrice = binanceService.getCurrentPrice(tradingPair);
+    log.info("Starting price feed for {}", symbol);
+    worker = Thread.currentThread();
+    lastTickAt = System.currentTimeMillis();
 
-    if (tradingPair.getStartPrice() == null) {
-      tradingPair.setStartPrice(startPrice);
+    try {
+      poll();
+    } finally {
+      finished = true;
+      try {
+        exitHandler.accept(this);
+      } finally {
+        terminated.countDown();
+        log.info("Price feed stopped for {}", symbol);
+      }
     }
+  }
 
-    tradingPairRepository.save(tradingPair);
-    log.info("Current price for {} set to {}", tradingPair.getSymbol(), startPrice);
-
+  private void poll() {
     while (running) {
       try {
-        BigDecimal currentPrice = binanceService.getCurrentPrice(tradingPair);
-
-        if (lastPrice != null && lastPrice.compareTo(currentPrice) != 0) {
-          processLevelCrossings(tradingPair, lastPrice, currentPrice);
+        Iterator<TradingStrategy> subscribed = strategies.iterator();
+        if (!subscribed.hasNext()) {
+          if (stopIfIdle()) {
+            break;
+          }
+          continue;
         }
-
-        lastPrice = currentPrice;
-        Thread.sleep(TIME_INTERVAL);
+        TickerPrice ticker = exchangeService.getTicker(subscribed.next().getTradingPair());
+        boolean healthy = processTick(ticker, System.currentTimeMillis());
+        Thread.sleep(healthy ? recoveredDelayMillis(ticker) : pollingScheduler.nextFailureDelayMillis());
 
       } catch (InterruptedException e) {
-        log.info("Trading thread for {} interrupted", tradingPair.getSymbol());
+        log.info("Price feed for {} interrupted", symbol);
         Thread.currentThread().interrupt();
         break;
+      } catch (CircuitOpenException e) {
+        log.debug("Price feed for {} paused: {}", symbol, e.getMessage());
+        if (!pause(pollingScheduler.nextBlockedDelayMillis(e.getRetryAfterMillis()))) {
+          break;
+        }
       } catch (Exception e) {
-        log.error("Error in trading thread for {}: {}", tradingPair.getSymbol(), e.getMessage());
+        long delay = pollingScheduler.nextFailureDelayMillis();
+        logFailure(e, delay);
+        if (!pause(delay)) {
+          break;
+        }
       }
     }
-
-    log.info("Trading thread stopped for {}", tradingPair.getSymbol());
   }
 
-  private void processLevelCrossings(TradingPairEntity pair, BigDecimal oldPrice, BigDecimal newPrice) {
-    BigDecimal step = pair.getStartPrice().multiply(pair.getGridLevelPercentage()).divide(BigDecimal.valueOf(100), 8, RoundingMode.HALF_UP);
-
-    BigDecimal newLevelPrice = findGridLevelPrice(pair.getStartPrice(), step, oldPrice, newPrice);
-    if (newLevelPrice != null && (currentLevelPrice == null || !currentLevelPrice.equals(newLevelPrice))) {
-      log.info("Level crossing detected for {}: {} -> {} (Level: {})", pair.getSymbol(), oldPrice, newPrice, newLevelPrice);
-
-      tradingService.processLevelCrossing(pair, newPrice, newLevelPrice, currentLevelPrice);
-      currentLevelPrice = newLevelPrice;
+  private synchronized boolean stopIfIdle() {
+    if (!strategies.isEmpty()) {
+      return false;
     }
+    running = false;
+    log.info("No strategies left for {}, stopping price feed", symbol);
+    return true;
   }
 
-  public BigDecimal findGridLevelPrice(BigDecimal startPrice, BigDecimal step, BigDecimal oldPrice, BigDecimal newPrice) {
-    int cmp = newPrice.compareTo(oldPrice);
+  private long recoveredDelayMillis(TickerPrice ticker) {
+    int failures = pollingScheduler.recordSuccess();
+    if (failures > 0) {
+      log.info("Price feed for {} recovered after {} failed polls", symbol, failures);
+    }
+    return nextDelayMillis(ticker);
+  }
 
-    if (cmp == 0)
-      return null;
+  private void logFailure(Exception e, long delay) {
+    int failures = pollingScheduler.getConsecutiveFailures();
+    if (failures == 1) {
+      log.error("Error in price feed for {}: {}, retrying in {} ms", symbol, e.getMessage(), delay);
+    } else if (Integer.bitCount(failures) == 1) {
+      log.warn("Price feed for {} still failing after {} attempts: {}, retrying in {} ms", symbol, failures, e.getMessage(), delay);
+    } else {
+      log.debug("Price feed for {} failed ({} attempts): {}", symbol, failures, e.getMessage());
+    }
+  }
 
-    BigDecimal diff = newPrice.subtract(startPrice);
-    BigDecimal n = diff.divide(step, 0, RoundingMode.DOWN);
-    BigDecimal candidate = startPrice.add(n.multiply(step));
+  private boolean pause(long delay) {
+    try {
+      Thread.sleep(delay);
+      return true;
+    } catch (InterruptedException e) {
+      log.info("Price feed for {} interrupted", symbol);
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
 
-    if (cmp > 0) {
-      if (candidate.compareTo(oldPrice) <= 0) {
-        candidate = candidate.add(step);
-      }
+  public boolean processTick(TickerPrice ticker, long receivedAt) {
+    long startedAt = System.nanoTime();
+    tickStartedNanos = startedAt;
+    try {
+      publishTick(ticker, receivedAt);
+      pollingScheduler.recordPrice(ticker.price(), ticker.time() > 0 ? ticker.time() : receivedAt);
+      return dispatch(ticker);
+    } finally {
+      long elapsed = System.nanoTime() - startedAt;
+      tickStartedNanos = 0;
+      lastTickNanos = elapsed;
+      slowestTickNanos.accumulateAndGet(elapsed, Math::max);
+      tickCount.incrementAndGet();
+      lastTickAt = System.currentTimeMillis();
+    }
+  }
 
-      if (candidate.compareTo(oldPrice) > 0 && candidate.compareTo(newPrice) <= 0) {
-        return candidate;
+  private boolean dispatch(TickerPrice ticker) {
+    if (strategies.isEmpty()) {
+      return true;
+    }
+    TickContext context = new TickContext(exchangeService, this::isRetired);
+    int failed = 0;
+    for (TradingStrategy strategy : strategies) {
+      if (!running) {
+        break;
       }
-    } else {
-      while (candidate.compareTo(newPrice) < 0) {
-        candidate = candidate.add(step);
+      try {
+        strategy.onTick(ticker, context);
+      } catch (CircuitOpenException e) {
+        failed++;
+        log.debug("Strategy {} for {} skipped: {}", strategy.getTag(), symbol, e.getMessage());
+      } catch (Exception e) {
+        failed++;
+        if (LOG_THROTTLE.allow(strategyFailure, strategy.getTag())) {
+          log.error("Strategy {} failed for {}: {}", strategy.getTag(), symbol, e.getMessage());
+        }
       }
+    }
+    return failed < strategies.size();
+  }
+
+  public long takeSlowestTickNanos() {
+    return slowestTickNanos.getAndSet(0);
+  }
 
-      if (candidate.compareTo(oldPrice) < 0) {
-        return candidate;
+  private long nextDelayMillis(TickerPrice ticker) {
+    long delay = Long.MAX_VALUE;
+    for (TradingStrategy strategy : strategies) {
+      delay = Math.min(delay, strategy.nextPollDelayMillis(ticker, pollingScheduler));
+    }
+    return delay == Long.MAX_VALUE ? 0 : delay;
+  }
+
+  private void publishTick(TickerPrice ticker, long receivedAt) {
+    for (TickListener listener : tickListeners) {
+      try {
+        listener.onTick(symbol, ticker.time(), receivedAt, ticker.price());
+      } catch (Exception e) {
+        if (LOG_THROTTLE.allow(listenerFailure, listener.getClass().getSimpleName())) {
+          log.error("Tick listener {} failed for {}: {}", listener.getClass().getSimpleName(), symbol, e.getMessage());
+        }
       }
     }
+  }
 
-    return null;
+  public List<TradingPairEntity> getTradingPairs() {
+    return strategies.stream().map(TradingStrategy::getTradingPair).toList();
   }
 
   public void stop() {
     running = false;
   }
+
+  public boolean awaitTermination(Duration timeout) throws InterruptedException {
+    return worker == null || terminated.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public void abort() {
+    running = false;
+    Thread current = worker;
+    if (current != null) {
+      current.interrupt();
+    }
+  }
+
+  public void retire() {
+    retired = true;
+    abort();
+  }
 }
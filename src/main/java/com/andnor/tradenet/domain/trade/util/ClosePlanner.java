@@ -0,0 +1,62 @@
+package com.andnor.tradenet.domain.trade.util;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.trade.model.SideClosePlan;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@UtilityClass
+public class ClosePlanner {
+  public List<SideClosePlan> plan(List<PositionEntity> positions) {
+    Map<PositionType, List<PositionEntity>> bySide = new EnumMap<>(PositionType.class);
+    for (PositionEntity position : positions) {
+      bySide.computeIfAbsent(position.getType(), type -> new ArrayList<>()).add(position);
+    }
+
+    List<SideClosePlan> plans = new ArrayList<>(bySide.size());
+    for (Map.Entry<PositionType, List<PositionEntity>> entry : bySide.entrySet()) {
+      List<PositionEntity> sidePositions = entry.getValue();
+      sidePositions.sort(Comparator.comparing(PositionEntity::getOpenedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+      List<Long> protectiveOrderIds = new ArrayList<>(sidePositions.size() * 2);
+      for (PositionEntity position : sidePositions) {
+        if (position.getStopLossOrderId() != null) {
+          protectiveOrderIds.add(position.getStopLossOrderId());
+        }
+        if (position.getTakeProfitOrderId() != null) {
+          protectiveOrderIds.add(position.getTakeProfitOrderId());
+        }
+      }
+      plans.add(new SideClosePlan(entry.getKey(), sidePositions, protectiveOrderIds));
+    }
+    return plans;
+  }
+
+  public BigDecimal totalQuantity(List<PositionEntity> positions) {
+    BigDecimal total = BigDecimal.ZERO;
+    for (PositionEntity position : positions) {
+      total = total.add(position.getQuantity());
+    }
+    return total;
+  }
+
+  public List<PositionEntity> allocateFill(List<PositionEntity> positions, BigDecimal executedQty) {
+    List<PositionEntity> filled = new ArrayList<>(positions.size());
+    BigDecimal remaining = executedQty;
+    for (PositionEntity position : positions) {
+      if (remaining.compareTo(position.getQuantity()) < 0) {
+        break;
+      }
+      remaining = remaining.subtract(position.getQuantity());
+      filled.add(position);
+    }
+    return filled;
+  }
+}
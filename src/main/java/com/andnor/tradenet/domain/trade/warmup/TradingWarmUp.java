@@ -0,0 +1,151 @@
+package com.andnor.tradenet.domain.trade.warmup;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.impl.BinanceResponseDecoder;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.risk.service.impl.ExposureRiskEngine;
+import com.andnor.tradenet.domain.telegram.model.MessageType;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.tracing.service.impl.RingBufferTracer;
+import com.andnor.tradenet.domain.trade.TradingService;
+import com.andnor.tradenet.domain.trade.model.WarmUpReport;
+import com.andnor.tradenet.domain.trade.strategy.GridStrategy;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
+import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradingWarmUp {
+  private static final String SYMBOL = "WARMUPUSDT";
+  private static final BigDecimal START_PRICE = new BigDecimal("100.00");
+  private static final BigDecimal PRICE_STEP = new BigDecimal("0.25");
+  private static final int HALF_WAVE_STEPS = 14;
+  private static final long TICK_INTERVAL_MS = 250;
+
+  private final BinanceResponseDecoder decoder;
+  private final MessageFormatter messageFormatter;
+  private final PositionRepository positionRepository;
+  private final TradingPairRepository tradingPairRepository;
+  private final TradingPairStateRepository tradingPairStateRepository;
+  private final TradingProperties tradingProperties;
+  private final TransactionTemplate transactionTemplate;
+
+  public WarmUpReport warmUp() {
+    return transactionTemplate.execute(status -> {
+      status.setRollbackOnly();
+      return warmUpInTransaction();
+    });
+  }
+
+  private WarmUpReport warmUpInTransaction() {
+    long startedAt = System.currentTimeMillis();
+    TradingProperties.Warmup properties = tradingProperties.getWarmup();
+
+    TradingPairEntity pair = tradingPairRepository.save(TradingPairEntity.builder()
+            .account("warmup")
+            .symbol(SYMBOL)
+            .startPrice(START_PRICE)
+            .gridLevelPercentage(BigDecimal.ONE)
+            .longStopLossPercentage(new BigDecimal("5"))
+            .shortStopLossPercentage(new BigDecimal("5"))
+            .positionAmountUsdt(new BigDecimal("100"))
+            .leverage(1)
+            .active(false)
+            .build());
+
+    RingBufferTracer tracer = new RingBufferTracer(tradingProperties);
+    WarmUpExchangeService exchange = new WarmUpExchangeService(decoder, SYMBOL,
+            () -> positionRepository.findOpenByTradingPairId(pair.getId()), START_PRICE, tracer);
+    ExposureRiskEngine riskEngine = new ExposureRiskEngine(positionRepository, new TradingProperties());
+    TradingService tradingService = new TradingService(positionRepository, exchange, new FormattingMessageService(),
+            event -> {
+              if (event instanceof PositionClosedEvent closed) {
+                riskEngine.onPositionClosed(closed);
+              }
+            }, riskEngine, tracer);
+    GridStrategy strategy = new GridStrategy(pair, tradingService, tradingPairRepository, tradingPairStateRepository);
+    TradingThread thread = new TradingThread(SYMBOL, exchange, new PollingScheduler(tradingProperties.getPoll()), List.of());
+    thread.addStrategy(strategy);
+
+    long[] crossingNanos = new long[properties.getIterations()];
+    int crossings = 0;
+    long time = startedAt;
+    for (int i = 0; i < properties.getIterations(); i++) {
+      int phase = i % (4 * HALF_WAVE_STEPS);
+      int offset = phase < 2 * HALF_WAVE_STEPS ? phase - HALF_WAVE_STEPS : 3 * HALF_WAVE_STEPS - phase;
+      BigDecimal price = START_PRICE.add(PRICE_STEP.multiply(BigDecimal.valueOf(offset)));
+      time += TICK_INTERVAL_MS;
+
+      TickerPrice ticker = exchange.nextTicker(SYMBOL, price, time);
+      BigDecimal levelBefore = strategy.getCurrentLevelPrice();
+      long tickStartedAt = System.nanoTime();
+      thread.processTick(ticker, time);
+      long elapsed = System.nanoTime() - tickStartedAt;
+      if (!Objects.equals(levelBefore, strategy.getCurrentLevelPrice())) {
+        crossingNanos[crossings++] = elapsed;
+      }
+    }
+
+    for (int i = 0; i < properties.getDatabaseIterations(); i++) {
+      warmUpQueries(pair);
+    }
+
+    long cold = crossings > 0 ? crossingNanos[0] / 1_000 : 0;
+    long warm = crossings > 1 ? warmMedianNanos(crossingNanos, crossings) / 1_000 : cold;
+    WarmUpReport report = new WarmUpReport(properties.getIterations(), crossings, cold, warm,
+            System.currentTimeMillis() - startedAt);
+    log.info("Warm-up finished in {} ms: {} ticks, {} crossings, first crossing {} us, warm crossing p50 {} us, rolling back {} positions",
+            report.getDurationMillis(), report.getTicks(), report.getCrossings(), report.getColdCrossingMicros(),
+            report.getWarmCrossingMicros(), positionRepository.findOpenByTradingPairId(pair.getId()).size());
+    return report;
+  }
+
+  private void warmUpQueries(TradingPairEntity pair) {
+    positionRepository.existsByTradingPairId(pair.getId());
+    positionRepository.findPositionsToClose(pair.getId(), START_PRICE);
+    positionRepository.existsOpenPositionAtLevel(pair.getId(), START_PRICE, PositionType.LONG);
+    positionRepository.findOpenPositionOrders(pair.getId());
+    positionRepository.findOpenByTradingPairId(pair.getId());
+    tradingPairRepository.findById(pair.getId());
+  }
+
+  private long warmMedianNanos(long[] crossingNanos, int crossings) {
+    int from = Math.max(1, crossings / 2);
+    long[] warm = Arrays.copyOfRange(crossingNanos, from, crossings);
+    Arrays.sort(warm);
+    return warm[warm.length / 2];
+  }
+
+  private class FormattingMessageService implements MessageService {
+    @Override
+    public void broadcastMessage(String message) {
+    }
+
+    @Override
+    public void broadcastPositionMessage(MessageType messageType, PositionEntity position) {
+      if (messageType == MessageType.SUCCESSFULLY_OPENED_POSITION) {
+        messageFormatter.formatPositionOpening(position);
+      } else if (messageType == MessageType.SUCCESSFULLY_CLOSED_POSITION) {
+        messageFormatter.formatPositionClosure(position);
+      }
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.andnor.tradenet.domain.trade.warmup;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.core.model.SymbolInfo;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.impl.BinanceResponseDecoder;
+import com.andnor.tradenet.domain.exchange.impl.BinanceService;
+import com.andnor.tradenet.domain.exchange.impl.ExecutionCostRecorder;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class WarmUpExchangeService implements ExchangeService {
+  private static final BigDecimal BALANCE = new BigDecimal("1000000");
+
+  private final BinanceResponseDecoder decoder;
+  private final BinanceService orderPaths;
+  private final Supplier<List<PositionEntity>> openPositions;
+  private volatile BigDecimal marketPrice;
+
+  public WarmUpExchangeService(BinanceResponseDecoder decoder, String symbol, Supplier<List<PositionEntity>> openPositions,
+          BigDecimal initialPrice, Tracer tracer) {
+    this.decoder = decoder;
+    this.openPositions = openPositions;
+    this.marketPrice = initialPrice;
+    SymbolInfo symbolInfo = SymbolInfo.builder()
+            .quantityPrecision(3)
+            .pricePrecision(2)
+            .stepSize(new BigDecimal("0.001"))
+            .tickSize(new BigDecimal("0.01"))
+            .build();
+    this.orderPaths = new BinanceService(decoder, null, null, new WarmUpOrderGateway(decoder, () -> marketPrice), null,
+            Map.of(symbol, symbolInfo), new TradingProperties(), new ExecutionCostRecorder(new SimpleMeterRegistry()),
+            tracer);
+  }
+
+  public TickerPrice nextTicker(String symbol, BigDecimal price, long time) {
+    marketPrice = price;
+    return decode(() -> decoder.decodeTicker("{\"symbol\":\"" + symbol + "\",\"price\":\"" + price.toPlainString()
+            + "\",\"time\":" + time + "}"));
+  }
+
+  @Override
+  public boolean isHedgeModeEnabled() {
+    return decode(() -> decoder.decodeDualSidePosition("{\"dualSidePosition\":true}"));
+  }
+
+  @Override
+  public BigDecimal getCurrentPrice(TradingPairEntity tradingPair) {
+    return marketPrice;
+  }
+
+  @Override
+  public TickerPrice getTicker(TradingPairEntity tradingPair) {
+    return new TickerPrice(tradingPair.getSymbol(), marketPrice, System.currentTimeMillis());
+  }
+
+  @Override
+  public PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal takeProfitPrice,
+          long crossingId) {
+    return orderPaths.openPosition(tradingPair, type, entryPrice, takeProfitPrice, crossingId);
+  }
+
+  @Override
+  public void closePosition(PositionEntity positionEntity) {
+  }
+
+  @Override
+  public OrderResult closeSide(TradingPairEntity tradingPair, PositionType type, BigDecimal quantity, String clientOrderId) {
+    return orderPaths.closeSide(tradingPair, type, quantity, clientOrderId);
+  }
+
+  @Override
+  public OrderResult closeSide(String symbol, PositionType type, BigDecimal quantity, String clientOrderId) {
+    return orderPaths.closeSide(symbol, type, quantity, clientOrderId);
+  }
+
+  @Override
+  public void cancelOrder(TradingPairEntity tradingPair, Long orderId) {
+  }
+
+  @Override
+  public Set<Long> cancelOrders(TradingPairEntity tradingPair, List<Long> orderIds) {
+    StringBuilder response = new StringBuilder("[");
+    for (int i = 0; i < orderIds.size(); i++) {
+      if (i > 0) {
+        response.append(',');
+      }
+      response.append("{\"orderId\":").append(orderIds.get(i)).append(",\"status\":\"CANCELED\"}");
+    }
+    response.append(']');
+    Set<Long> notCancelled = new HashSet<>(orderIds);
+    decode(() -> decoder.decodeOrderResults(response.toString())).forEach(result -> notCancelled.remove(result.orderId()));
+    return notCancelled;
+  }
+
+  @Override
+  public OrderResult queryOrder(TradingPairEntity tradingPair, Long orderId) {
+    return decode(() -> decoder.decodeOrderResult("{\"orderId\":" + orderId + ",\"status\":\"FILLED\",\"avgPrice\":\""
+            + marketPrice.toPlainString() + "\"}"));
+  }
+
+  @Override
+  public void cancelAllOpenOrders(String symbol) {
+  }
+
+  @Override
+  public List<PositionRisk> getOpenPositionRisks() {
+    return List.of();
+  }
+
+  @Override
+  public BigDecimal getAccountBalance() {
+    return decode(() -> decoder.decodeAssetBalance("[{\"asset\":\"USDT\",\"balance\":\"" + BALANCE + "\"}]", "USDT"));
+  }
+
+  @Override
+  public BigDecimal getAccountBalance(TradingPairEntity tradingPair) {
+    return getAccountBalance();
+  }
+
+  @Override
+  public List<Long> getOpenOrderIdsByTradingPair(TradingPairEntity tradingPair) {
+    StringBuilder response = new StringBuilder("[");
+    for (PositionEntity position : openPositions.get()) {
+      if (position.getStatus() != PositionStatus.OPEN) {
+        continue;
+      }
+      appendOrder(response, position.getStopLossOrderId());
+      appendOrder(response, position.getTakeProfitOrderId());
+    }
+    response.append(']');
+    return decode(() -> decoder.decodeOrderIds(response.toString()));
+  }
+
+  private void appendOrder(StringBuilder response, Long orderId) {
+    if (orderId == null) {
+      return;
+    }
+    if (response.length() > 1) {
+      response.append(',');
+    }
+    response.append("{\"orderId\":").append(orderId).append(",\"status\":\"NEW\"}");
+  }
+
+  private <T> T decode(Decoding<T> decoding) {
+    try {
+      return decoding.decode();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Decoding<T> {
+    T decode() throws IOException;
+  }
+}
@@ -0,0 +1,41 @@
+package com.andnor.tradenet.domain.trade.warmup;
+
+import com.andnor.tradenet.domain.exchange.impl.BinanceOrderGateway;
+import com.andnor.tradenet.domain.exchange.impl.BinanceResponseDecoder;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+class WarmUpOrderGateway extends BinanceOrderGateway {
+  private final BinanceResponseDecoder decoder;
+  private final Supplier<BigDecimal> marketPrice;
+  private final AtomicLong orderIds = new AtomicLong();
+
+  WarmUpOrderGateway(BinanceResponseDecoder decoder, Supplier<BigDecimal> marketPrice) {
+    super(null, decoder);
+    this.decoder = decoder;
+    this.marketPrice = marketPrice;
+  }
+
+  @Override
+  public CompletableFuture<OrderResult> submit(String clientOrderId, LinkedHashMap<String, Object> params) {
+    params.put("newClientOrderId", clientOrderId);
+    Object price = params.getOrDefault("stopPrice", marketPrice.get().toPlainString());
+    String response = "{\"orderId\":" + orderIds.incrementAndGet()
+            + ",\"symbol\":\"" + params.get("symbol") + "\""
+            + ",\"clientOrderId\":\"" + clientOrderId + "\""
+            + ",\"status\":\"FILLED\""
+            + ",\"executedQty\":\"" + params.getOrDefault("quantity", "0") + "\""
+            + ",\"avgPrice\":\"" + price + "\"}";
+    try {
+      return CompletableFuture.completedFuture(decoder.decodeOrderResult(response));
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.andnor.tradenet.domain.tradingpair.controller;
+
+import com.andnor.tradenet.domain.trade.model.PairLifecycleReport;
+import com.andnor.tradenet.domain.tradingpair.model.PairConfigUpdate;
+import com.andnor.tradenet.domain.tradingpair.model.PairIdsRequest;
+import com.andnor.tradenet.domain.tradingpair.service.TradingPairService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/pairs")
+@RequiredArgsConstructor
+public class TradingPairAdminController {
+  private final TradingPairService tradingPairService;
+
+  @PostMapping("/start")
+  public PairLifecycleReport start(@RequestBody PairIdsRequest request) {
+    return tradingPairService.start(request.ids());
+  }
+
+  @PostMapping("/stop")
+  public PairLifecycleReport stop(@RequestBody PairIdsRequest request) {
+    return tradingPairService.stop(request.ids(), request.hardStop());
+  }
+
+  @PatchMapping("/config")
+  public PairLifecycleReport updateConfig(@RequestBody List<PairConfigUpdate> updates) {
+    return tradingPairService.updateConfig(updates);
+  }
+}
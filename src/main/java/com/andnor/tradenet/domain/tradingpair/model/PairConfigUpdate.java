@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.tradingpair.model;
+
+import java.math.BigDecimal;
+
+public record PairConfigUpdate(Long id, BigDecimal gridLevelPercentage, BigDecimal longStopLossPercentage,
+                               BigDecimal shortStopLossPercentage, BigDecimal positionAmountUsdt, Integer leverage) {
+}
@@ -0,0 +1,6 @@
+package com.andnor.tradenet.domain.tradingpair.model;
+
+import java.util.List;
+
+public record PairIdsRequest(List<Long> ids, boolean hardStop) {
+}
@@ -1,5 +1,6 @@
 package com.andnor.tradenet.domain.tradingpair.persistence;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,6 +12,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -18,17 +21,27 @@ import java.math.BigDecimal;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "trading_pairs")
 public class TradingPairEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  @Builder.Default
+  @Column(name = "account")
+  private String account = "default";
+
   @Column(name = "symbol")
   private String symbol;
 
+  @Builder.Default
+  @Column(name = "strategy_tag")
+  private String strategyTag = "grid";
+
   @Column(name = "start_price")
   private BigDecimal startPrice;
 
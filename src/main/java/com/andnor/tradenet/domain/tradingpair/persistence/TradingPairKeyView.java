@@ -0,0 +1,7 @@
+package com.andnor.tradenet.domain.tradingpair.persistence;
+
+public interface TradingPairKeyView {
+    Long getId();
+
+    String getSymbol();
+}
@@ -1,9 +1,32 @@
 package com.andnor.tradenet.domain.tradingpair.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface TradingPairRepository extends JpaRepository<TradingPairEntity, Long> {
     List<TradingPairEntity> findAllByActiveTrue();
+
+    List<TradingPairKeyView> findAllByAccountAndSymbolIn(String account, Collection<String> symbols);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TradingPairEntity t SET t.startPrice = :startPrice WHERE t.id = :id AND t.startPrice IS NULL")
+    int initializeStartPrice(@Param("id") Long id, @Param("startPrice") BigDecimal startPrice);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TradingPairEntity t SET t.active = true WHERE t.id IN :ids")
+    int activateAll(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TradingPairEntity t SET t.active = false WHERE t.id IN :ids")
+    int deactivateAll(@Param("ids") Collection<Long> ids);
 }
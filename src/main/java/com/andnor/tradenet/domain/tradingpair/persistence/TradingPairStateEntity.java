@@ -0,0 +1,45 @@
+package com.andnor.tradenet.domain.tradingpair.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "trading_pair_state")
+public class TradingPairStateEntity {
+  @Id
+  @Column(name = "trading_pair_id")
+  private Long tradingPairId;
+
+  @Column(name = "start_price")
+  private BigDecimal startPrice;
+
+  @Column(name = "last_price")
+  private BigDecimal lastPrice;
+
+  @Column(name = "current_level_price")
+  private BigDecimal currentLevelPrice;
+
+  @Column(name = "last_crossing_at")
+  private Instant lastCrossingAt;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  @Column(name = "crossing_sequence")
+  private long crossingSequence;
+}
@@ -0,0 +1,36 @@
+package com.andnor.tradenet.domain.tradingpair.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface TradingPairStateRepository extends JpaRepository<TradingPairStateEntity, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO trading_pair_state " +
+                   "(trading_pair_id, start_price, last_price, current_level_price, last_crossing_at, updated_at) " +
+                   "VALUES (:pairId, :startPrice, :lastPrice, CAST(:currentLevelPrice AS NUMERIC), " +
+                   "CAST(:lastCrossingAt AS TIMESTAMP), :updatedAt) " +
+                   "ON CONFLICT (trading_pair_id) DO UPDATE SET " +
+                   "start_price = EXCLUDED.start_price, last_price = EXCLUDED.last_price, " +
+                   "current_level_price = EXCLUDED.current_level_price, last_crossing_at = EXCLUDED.last_crossing_at, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    void upsert(@Param("pairId") Long pairId, @Param("startPrice") BigDecimal startPrice, @Param("lastPrice") BigDecimal lastPrice,
+                @Param("currentLevelPrice") BigDecimal currentLevelPrice, @Param("lastCrossingAt") Instant lastCrossingAt,
+                @Param("updatedAt") Instant updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO trading_pair_state (trading_pair_id, crossing_sequence, updated_at) " +
+                   "VALUES (:pairId, :crossingSequence, :updatedAt) " +
+                   "ON CONFLICT (trading_pair_id) DO UPDATE SET " +
+                   "crossing_sequence = GREATEST(trading_pair_state.crossing_sequence, EXCLUDED.crossing_sequence)",
+           nativeQuery = true)
+    void advanceCrossingSequence(@Param("pairId") Long pairId, @Param("crossingSequence") long crossingSequence,
+                                 @Param("updatedAt") Instant updatedAt);
+}
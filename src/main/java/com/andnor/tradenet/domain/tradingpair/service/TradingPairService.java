@@ -0,0 +1,19 @@
+package com.andnor.tradenet.domain.tradingpair.service;
+
+import com.andnor.tradenet.domain.trade.model.PairLifecycleReport;
+import com.andnor.tradenet.domain.tradingpair.model.PairConfigUpdate;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TradingPairService {
+  PairLifecycleReport start(Collection<Long> pairIds);
+
+  PairLifecycleReport stop(Collection<Long> pairIds, boolean hardStop);
+
+  PairLifecycleReport updateConfig(List<PairConfigUpdate> updates);
+
+  void synchronize(Collection<Long> pairIds);
+
+  void synchronizeAll();
+}
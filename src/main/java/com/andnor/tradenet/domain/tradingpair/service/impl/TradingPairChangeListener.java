@@ -0,0 +1,160 @@
+package com.andnor.tradenet.domain.tradingpair.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.trade.TradingManager;
+import com.andnor.tradenet.domain.tradingpair.service.TradingPairService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradingPairChangeListener {
+  private static final String CHANNEL = "trading_pairs_changed";
+  private static final int MAX_WAIT_MILLIS = 500;
+  private static final long RECONNECT_BACKOFF_INITIAL_MILLIS = 500;
+
+  private final DataSourceProperties dataSourceProperties;
+  private final TradingPairService tradingPairService;
+  private final TradingManager tradingManager;
+  private final TradingProperties tradingProperties;
+  private final Set<Long> pending = new LinkedHashSet<>();
+  private volatile boolean running;
+  private volatile Thread worker;
+  private boolean resyncRequired;
+  private long pendingSince;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!tradingProperties.getPairSync().isEnabled()) {
+      return;
+    }
+    running = true;
+    worker = Thread.ofPlatform().name("trading-pair-listener").daemon().start(this::listen);
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    Thread current = worker;
+    if (current != null) {
+      current.interrupt();
+    }
+  }
+
+  private void listen() {
+    long backoff = RECONNECT_BACKOFF_INITIAL_MILLIS;
+    while (running) {
+      try (Connection connection = connect()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        log.info("Listening for trading pair changes on {}", CHANNEL);
+        backoff = RECONNECT_BACKOFF_INITIAL_MILLIS;
+        receive(connection.unwrap(PGConnection.class));
+      } catch (SQLException e) {
+        if (!running) {
+          break;
+        }
+        onConnectionLost();
+        log.warn("Trading pair change listener disconnected: {}, reconnecting in {} ms", e.getMessage(), backoff);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        backoff = Math.min(backoff * 2, tradingProperties.getPairSync().getReconnectBackoffMax().toMillis());
+      }
+    }
+    log.info("Trading pair change listener stopped");
+  }
+
+  private Connection connect() throws SQLException {
+    Properties properties = new Properties();
+    if (dataSourceProperties.determineUsername() != null) {
+      properties.setProperty("user", dataSourceProperties.determineUsername());
+    }
+    if (dataSourceProperties.determinePassword() != null) {
+      properties.setProperty("password", dataSourceProperties.determinePassword());
+    }
+    properties.setProperty("ApplicationName", "tradenet-pair-listener");
+    properties.setProperty("tcpKeepAlive", "true");
+    return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+  }
+
+  private void receive(PGConnection connection) throws SQLException {
+    long debounceMillis = tradingProperties.getPairSync().getDebounce().toMillis();
+    while (running) {
+      receiveOnce(connection, debounceMillis);
+    }
+  }
+
+  void receiveOnce(PGConnection connection, long debounceMillis) throws SQLException {
+    long waitMillis = pending.isEmpty() ? MAX_WAIT_MILLIS
+            : Math.max(1, Math.min(MAX_WAIT_MILLIS, pendingSince + debounceMillis - System.currentTimeMillis()));
+    PGNotification[] notifications = connection.getNotifications((int) waitMillis);
+    if (notifications != null) {
+      for (PGNotification notification : notifications) {
+        enqueue(notification.getParameter());
+      }
+    }
+
+    if (!tradingManager.getReadiness().isReady()) {
+      return;
+    }
+    if (resyncRequired) {
+      resyncRequired = false;
+      pending.clear();
+      synchronizeSafely(null);
+    } else if (!pending.isEmpty() && System.currentTimeMillis() - pendingSince >= debounceMillis) {
+      List<Long> pairIds = List.copyOf(pending);
+      pending.clear();
+      synchronizeSafely(pairIds);
+    }
+  }
+
+  void onConnectionLost() {
+    resyncRequired = true;
+  }
+
+  private void enqueue(String payload) {
+    try {
+      if (pending.isEmpty()) {
+        pendingSince = System.currentTimeMillis();
+      }
+      pending.add(Long.parseLong(payload.trim()));
+    } catch (NumberFormatException e) {
+      log.warn("Ignoring trading pair notification with payload '{}'", payload);
+    }
+  }
+
+  private void synchronizeSafely(List<Long> pairIds) {
+    try {
+      if (pairIds == null) {
+        log.info("Resynchronizing all trading pairs after listener reconnect");
+        tradingPairService.synchronizeAll();
+      } else {
+        tradingPairService.synchronize(pairIds);
+      }
+    } catch (Exception e) {
+      log.error("Failed to synchronize trading pair changes: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.andnor.tradenet.domain.tradingpair.service.impl;
+
+import com.andnor.tradenet.domain.trade.TradingManager;
+import com.andnor.tradenet.domain.trade.model.PairLifecycleReport;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
+import com.andnor.tradenet.domain.tradingpair.model.PairConfigUpdate;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import com.andnor.tradenet.domain.tradingpair.service.TradingPairService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradingPairServiceImpl implements TradingPairService {
+  private final TradingPairRepository tradingPairRepository;
+  private final TradingManager tradingManager;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  public PairLifecycleReport start(Collection<Long> pairIds) {
+    return tradingManager.startTradingPairs(pairIds);
+  }
+
+  @Override
+  public PairLifecycleReport stop(Collection<Long> pairIds, boolean hardStop) {
+    return tradingManager.stopTradingPairs(pairIds, hardStop);
+  }
+
+  @Override
+  public PairLifecycleReport updateConfig(List<PairConfigUpdate> updates) {
+    long startedAt = System.currentTimeMillis();
+    Map<Long, TradingPairEntity> pairs = new HashMap<>();
+    tradingPairRepository.findAllById(updates.stream().map(PairConfigUpdate::id).filter(Objects::nonNull).toList())
+            .forEach(pair -> pairs.put(pair.getId(), pair));
+
+    List<TradingPairEntity> changed = new ArrayList<>();
+    List<Long> missing = new ArrayList<>();
+    List<Long> failed = new ArrayList<>();
+    for (PairConfigUpdate update : updates) {
+      TradingPairEntity pair = pairs.get(update.id());
+      if (pair == null) {
+        missing.add(update.id());
+      } else if (!isValid(update)) {
+        log.warn("Rejected config update for {} ({}): values must be positive", pair.getSymbol(), pair.getStrategyTag());
+        failed.add(update.id());
+      } else {
+        apply(update, pair);
+        changed.add(pair);
+      }
+    }
+
+    List<Long> applied = new ArrayList<>();
+    List<Long> skipped = new ArrayList<>();
+    for (TradingPairEntity pair : tradingPairRepository.saveAll(changed)) {
+      (tradingManager.applyConfig(pair) ? applied : skipped).add(pair.getId());
+    }
+
+    PairLifecycleReport report = new PairLifecycleReport(applied, skipped, missing, failed, System.currentTimeMillis() - startedAt);
+    log.info("Updated config of {} trading pairs in {} ms ({} reloaded live, {} missing, {} rejected)", changed.size(),
+            report.getDurationMillis(), applied.size(), missing.size(), failed.size());
+    return report;
+  }
+
+  @Override
+  public void synchronize(Collection<Long> pairIds) {
+    Cache cache = entityManagerFactory.getCache();
+    pairIds.forEach(id -> cache.evict(TradingPairEntity.class, id));
+    Map<Long, TradingPairEntity> pairs = new HashMap<>();
+    tradingPairRepository.findAllById(pairIds).forEach(pair -> pairs.put(pair.getId(), pair));
+
+    List<Long> toStart = new ArrayList<>();
+    List<Long> toStop = new ArrayList<>();
+    int reloaded = 0;
+    for (Long id : pairIds) {
+      TradingPairEntity pair = pairs.get(id);
+      boolean active = pair != null && pair.isActive();
+      boolean trading = tradingManager.isTrading(id);
+      if (active && !trading) {
+        toStart.add(id);
+      } else if (!active && trading) {
+        toStop.add(id);
+      } else if (active && tradingManager.applyConfig(pair)) {
+        reloaded++;
+      }
+    }
+
+    if (!toStart.isEmpty()) {
+      tradingManager.startTradingPairs(toStart);
+    }
+    if (!toStop.isEmpty()) {
+      tradingManager.stopTradingPairs(toStop, false);
+    }
+    if (reloaded > 0 || !toStart.isEmpty() || !toStop.isEmpty()) {
+      log.info("Synchronized {} changed trading pairs: {} started, {} stopped, {} reloaded", pairIds.size(), toStart.size(),
+              toStop.size(), reloaded);
+    }
+  }
+
+  @Override
+  public void synchronizeAll() {
+    Set<Long> pairIds = new LinkedHashSet<>();
+    tradingPairRepository.findAll().forEach(pair -> pairIds.add(pair.getId()));
+    tradingManager.getActiveStrategies().stream()
+            .map(TradingStrategy::getTradingPair)
+            .forEach(pair -> pairIds.add(pair.getId()));
+    synchronize(pairIds);
+  }
+
+  private boolean isValid(PairConfigUpdate update) {
+    return isPositive(update.gridLevelPercentage()) && isPositive(update.longStopLossPercentage())
+            && isPositive(update.shortStopLossPercentage()) && isPositive(update.positionAmountUsdt())
+            && (update.leverage() == null || update.leverage() > 0);
+  }
+
+  private boolean isPositive(BigDecimal value) {
+    return value == null || value.signum() > 0;
+  }
+
+  private void apply(PairConfigUpdate update, TradingPairEntity pair) {
+    if (update.gridLevelPercentage() != null) {
+      pair.setGridLevelPercentage(update.gridLevelPercentage());
+    }
+    if (update.longStopLossPercentage() != null) {
+      pair.setLongStopLossPercentage(update.longStopLossPercentage());
+    }
+    if (update.shortStopLossPercentage() != null) {
+      pair.setShortStopLossPercentage(update.shortStopLossPercentage());
+    }
+    if (update.positionAmountUsdt() != null) {
+      pair.setPositionAmountUsdt(update.positionAmountUsdt());
+    }
+    if (update.leverage() != null) {
+      pair.setLeverage(update.leverage());
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.andnor.tradenet.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+  private final CircuitBreaker breaker = new CircuitBreaker("exchange.test", 4, 4, 0.5, Duration.ofMillis(50), 1);
+
+  @Test
+  void staysClosedUntilMinimumCallsAreRecorded() {
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void opensWhenFailureRateReachesThreshold() {
+    breaker.onSuccess();
+    breaker.onSuccess();
+    breaker.onFailure();
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+    assertThat(breaker.getRetryAfterMillis()).isPositive();
+  }
+
+  @Test
+  void oldOutcomesSlideOutOfTheWindow() {
+    breaker.onFailure();
+    breaker.onSuccess();
+    breaker.onSuccess();
+    breaker.onSuccess();
+    breaker.onSuccess();
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void admitsLimitedProbesAfterOpenDurationAndClosesOnSuccess() throws InterruptedException {
+    breaker.trip(Duration.ofMillis(20));
+    assertThat(breaker.tryAcquire()).isFalse();
+
+    Thread.sleep(40);
+
+    assertThat(breaker.tryAcquire()).isTrue();
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+
+    breaker.onSuccess();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void failedProbeReopensTheCircuit() throws InterruptedException {
+    breaker.trip(Duration.ofMillis(20));
+    Thread.sleep(40);
+    assertThat(breaker.tryAcquire()).isTrue();
+
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void tripNeverShortensAnOpenCircuit() {
+    breaker.trip(Duration.ofSeconds(30));
+    breaker.trip(Duration.ofMillis(10));
+
+    assertThat(breaker.getRetryAfterMillis()).isGreaterThan(Duration.ofSeconds(20).toMillis());
+  }
+}
@@ -0,0 +1,88 @@
+package com.andnor.tradenet.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LogThrottleTest {
+  private static final Duration INTERVAL = Duration.ofHours(1);
+
+  private final Logger logger = mock(Logger.class);
+  private final LogThrottle throttle = new LogThrottle(logger, INTERVAL);
+
+  @Test
+  void allowsFirstOccurrenceAndCountsRepeats() {
+    assertThat(throttle.allow("Strategy failed for BTCUSDT", "grid")).isTrue();
+    assertThat(throttle.allow("Strategy failed for BTCUSDT", "grid")).isFalse();
+    assertThat(throttle.allow("Strategy failed for BTCUSDT", "grid")).isFalse();
+
+    assertThat(throttle.getSuppressed("Strategy failed for BTCUSDT", "grid")).isEqualTo(2);
+  }
+
+  @Test
+  void throttlesEachSubjectOfAMessageSeparately() {
+    assertThat(throttle.allow("Not enough balance", "BTCUSDT")).isTrue();
+    assertThat(throttle.allow("Not enough balance", "ETHUSDT")).isTrue();
+    assertThat(throttle.allow("Risk limit blocks position", "BTCUSDT")).isTrue();
+    assertThat(throttle.allow("Not enough balance", "BTCUSDT")).isFalse();
+
+    assertThat(throttle.getSuppressed("Not enough balance", "BTCUSDT")).isEqualTo(1);
+    assertThat(throttle.getSuppressed("Not enough balance", "ETHUSDT")).isZero();
+  }
+
+  @Test
+  void allowsAgainOnceTheIntervalHasPassed() throws InterruptedException {
+    LogThrottle shortThrottle = new LogThrottle(logger, Duration.ofMillis(20));
+    assertThat(shortThrottle.allow("Slow trace", "BTCUSDT")).isTrue();
+    assertThat(shortThrottle.allow("Slow trace", "BTCUSDT")).isFalse();
+
+    Thread.sleep(40);
+
+    assertThat(shortThrottle.allow("Slow trace", "BTCUSDT")).isTrue();
+  }
+
+  @Test
+  void reportsAndResetsSuppressedCountsPerSubject() {
+    throttle.allow("Not enough balance", "BTCUSDT");
+    throttle.allow("Not enough balance", "BTCUSDT");
+    throttle.allow("Not enough balance", "BTCUSDT");
+    throttle.allow("Not enough balance", "ETHUSDT");
+
+    throttle.reportSuppressed();
+
+    verify(logger).warn(anyString(), eq(2L), eq("Not enough balance"), eq("BTCUSDT"), eq(INTERVAL));
+    verify(logger, never()).warn(anyString(), eq(0L), eq("Not enough balance"), eq("ETHUSDT"), eq(INTERVAL));
+    assertThat(throttle.getSuppressed("Not enough balance", "BTCUSDT")).isZero();
+  }
+
+  @Test
+  void repeatedChecksDoNotAllocate() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+    String message = "Strategy failed for BTCUSDT";
+    String subject = "grid";
+    for (int i = 0; i < 10_000; i++) {
+      throttle.allow(message, subject);
+    }
+
+    long threadId = Thread.currentThread().threadId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 100_000; i++) {
+      throttle.allow(message, subject);
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    assertThat(allocated).isLessThan(4_096);
+  }
+}
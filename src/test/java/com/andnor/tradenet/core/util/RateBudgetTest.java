@@ -0,0 +1,72 @@
+package com.andnor.tradenet.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RateBudgetTest {
+
+  @Test
+  void grantsPermitsUpToCapacityWithoutWaiting() {
+    RateBudget budget = new RateBudget(3, Duration.ofMinutes(1));
+
+    assertThat(budget.tryAcquire(1, Duration.ZERO)).isTrue();
+    assertThat(budget.tryAcquire(2, Duration.ZERO)).isTrue();
+    assertThat(budget.tryAcquire(1, Duration.ZERO)).isFalse();
+    assertThat(budget.getAvailable()).isCloseTo(0.0, within(0.01));
+  }
+
+  @Test
+  void refusesImmediatelyWhenRefillWouldExceedMaxWait() {
+    RateBudget budget = new RateBudget(1, Duration.ofMinutes(1));
+    budget.tryAcquire(1, Duration.ZERO);
+
+    long started = System.nanoTime();
+    assertThat(budget.tryAcquire(1, Duration.ofSeconds(1))).isFalse();
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(500));
+  }
+
+  @Test
+  void refusesRequestsLargerThanCapacity() {
+    RateBudget budget = new RateBudget(2, Duration.ofMillis(10));
+
+    assertThat(budget.tryAcquire(3, Duration.ofSeconds(1))).isFalse();
+    assertThat(budget.getAvailable()).isCloseTo(2.0, within(0.01));
+  }
+
+  @Test
+  void waitsForRefillWithinMaxWait() {
+    RateBudget budget = new RateBudget(10, Duration.ofMillis(100));
+    assertThat(budget.tryAcquire(10, Duration.ZERO)).isTrue();
+
+    long started = System.nanoTime();
+    assertThat(budget.tryAcquire(1, Duration.ofSeconds(1))).isTrue();
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(5));
+  }
+
+  @Test
+  void refillIsCappedAtCapacity() throws InterruptedException {
+    RateBudget budget = new RateBudget(5, Duration.ofMillis(10));
+    budget.tryAcquire(5, Duration.ZERO);
+
+    Thread.sleep(50);
+
+    assertThat(budget.getAvailable()).isEqualTo(5.0);
+  }
+
+  @Test
+  void interruptedCallerGivesUp() {
+    RateBudget budget = new RateBudget(1, Duration.ofSeconds(1));
+    budget.tryAcquire(1, Duration.ZERO);
+
+    Thread.currentThread().interrupt();
+    try {
+      assertThat(budget.tryAcquire(1, Duration.ofSeconds(5))).isFalse();
+    } finally {
+      Thread.interrupted();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.andnor.tradenet.domain.candle.controller;
+
+import com.andnor.tradenet.domain.candle.model.CandleInterval;
+import com.andnor.tradenet.domain.candle.service.CandleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MarketController.class)
+class MarketControllerTest {
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private CandleService candleService;
+
+  @Test
+  void returnsCandlesForIntervalCode() throws Exception {
+    when(candleService.getCandles(any(), any(), anyInt())).thenReturn(List.of());
+
+    mockMvc.perform(get("/api/admin/market/btcusdt/candles").param("interval", "5m").param("limit", "10"))
+            .andExpect(status().isOk());
+
+    verify(candleService).getCandles("BTCUSDT", CandleInterval.FIVE_MINUTES, 10);
+  }
+
+  @Test
+  void rejectsUnknownInterval() throws Exception {
+    mockMvc.perform(get("/api/admin/market/BTCUSDT/candles").param("interval", "2h"))
+            .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(candleService);
+  }
+
+  @Test
+  void rejectsLimitOutOfRange() throws Exception {
+    mockMvc.perform(get("/api/admin/market/BTCUSDT/candles").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/admin/market/BTCUSDT/candles").param("limit", "1000000"))
+            .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(candleService);
+  }
+}
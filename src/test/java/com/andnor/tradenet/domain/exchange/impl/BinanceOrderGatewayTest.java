@@ -0,0 +1,69 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BinanceOrderGatewayTest {
+  private static final String CLIENT_ORDER_ID = "tn-1-EL-7-1";
+
+  private final BinanceOrderTransport orderTransport = mock(BinanceOrderTransport.class);
+  private final BinanceResponseDecoder decoder = mock(BinanceResponseDecoder.class);
+  private final BinanceOrderGateway gateway = new BinanceOrderGateway(orderTransport, decoder);
+  private final OrderResult filled = new OrderResult(1L, CLIENT_ORDER_ID, "FILLED", BigDecimal.ONE, new BigDecimal("100"));
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(orderTransport.newOrderAsync(anyMap()))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("timeout")))
+            .thenReturn(CompletableFuture.completedFuture("resubmitted"));
+    when(decoder.decodeOrderResult("found")).thenReturn(filled);
+    when(decoder.decodeOrderResult("resubmitted")).thenReturn(filled);
+  }
+
+  @Test
+  void orderThatShowsUpOnALaterLookupIsNotResubmitted() {
+    when(orderTransport.queryOrderAsync(anyMap()))
+            .thenReturn(CompletableFuture.failedFuture(notFound()))
+            .thenReturn(CompletableFuture.completedFuture("found"));
+
+    assertThat(BinanceOrderGateway.await(gateway.submit(CLIENT_ORDER_ID, marketOrder()))).isEqualTo(filled);
+
+    verify(orderTransport, times(2)).queryOrderAsync(anyMap());
+    verify(orderTransport, times(1)).newOrderAsync(anyMap());
+  }
+
+  @Test
+  void orderIsResubmittedOnlyAfterEveryLookupMissed() {
+    when(orderTransport.queryOrderAsync(anyMap())).thenAnswer(invocation -> CompletableFuture.failedFuture(notFound()));
+
+    assertThat(BinanceOrderGateway.await(gateway.submit(CLIENT_ORDER_ID, marketOrder()))).isEqualTo(filled);
+
+    verify(orderTransport, times(3)).queryOrderAsync(anyMap());
+    verify(orderTransport, times(2)).newOrderAsync(anyMap());
+  }
+
+  private LinkedHashMap<String, Object> marketOrder() {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", "BTCUSDT");
+    params.put("type", "MARKET");
+    return params;
+  }
+
+  private BinanceClientException notFound() {
+    return new BinanceClientException("{\"code\":-2013,\"msg\":\"Order does not exist.\"}", 400);
+  }
+}
@@ -0,0 +1,200 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinanceOrderTransportTest {
+  private static final String API_KEY = "test-key";
+  private static final String SECRET = "test-secret";
+  private static final long SERVER_TIME_SHIFT = 5_000;
+
+  static {
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final List<String> receivedRequests = new CopyOnWriteArrayList<>();
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private BinanceOrderTransport transport;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    serverExecutor = Executors.newFixedThreadPool(4);
+    server.setExecutor(serverExecutor);
+    server.createContext("/fapi/v1/time", exchange ->
+            respond(exchange, 200, "{\"serverTime\":" + (System.currentTimeMillis() + SERVER_TIME_SHIFT) + "}"));
+    server.createContext("/fapi/v1/order", this::handleOrder);
+    server.createContext("/fapi/v1/batchOrders", this::handleOrder);
+    server.start();
+
+    HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+    transport = new BinanceOrderTransport(httpClient, "http://127.0.0.1:" + server.getAddress().getPort(),
+            API_KEY, SECRET, 1000, Duration.ofSeconds(2));
+    transport.warmUp();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+    assertThat(serverExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void signsOrderRequestsAndAppliesServerTimeOffset() {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", "BTCUSDT");
+    params.put("side", "BUY");
+    params.put("type", "MARKET");
+    params.put("quantity", "0.010");
+
+    String response = transport.newOrder(params);
+
+    assertThat(response).contains("\"orderId\":1");
+    String request = receivedRequests.getLast();
+    assertThat(request).startsWith("POST symbol=BTCUSDT&side=BUY&type=MARKET&quantity=0.010&recvWindow=1000&timestamp=");
+
+    long timestamp = Long.parseLong(queryParam(request, "timestamp"));
+    assertThat(timestamp - System.currentTimeMillis()).isBetween(SERVER_TIME_SHIFT - 1_000, SERVER_TIME_SHIFT + 1_000);
+    assertThat(transport.getServerTimeOffset()).isBetween(SERVER_TIME_SHIFT - 1_000, SERVER_TIME_SHIFT + 1_000);
+  }
+
+  @Test
+  void encodesBatchOrdersAsJsonArray() {
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("symbol", "BTCUSDT");
+    first.put("side", "SELL");
+    Map<String, Object> second = new LinkedHashMap<>();
+    second.put("symbol", "BTCUSDT");
+    second.put("side", "BUY");
+
+    transport.placeBatchOrders(List.of(first, second));
+
+    String request = receivedRequests.getLast();
+    assertThat(request).startsWith("POST batchOrders=");
+    assertThat(java.net.URLDecoder.decode(queryParam(request, "batchOrders"), StandardCharsets.UTF_8))
+            .isEqualTo("[{\"symbol\":\"BTCUSDT\",\"side\":\"SELL\"},{\"symbol\":\"BTCUSDT\",\"side\":\"BUY\"}]");
+  }
+
+  @Test
+  void escapesBatchOrderValues() {
+    Map<String, Object> order = new LinkedHashMap<>();
+    order.put("symbol", "BTCUSDT");
+    order.put("newClientOrderId", "grid\"1\\2");
+
+    transport.placeBatchOrders(List.of(order));
+
+    String request = receivedRequests.getLast();
+    assertThat(java.net.URLDecoder.decode(queryParam(request, "batchOrders"), StandardCharsets.UTF_8))
+            .isEqualTo("[{\"symbol\":\"BTCUSDT\",\"newClientOrderId\":\"grid\\\"1\\\\2\"}]");
+  }
+
+  @Test
+  void mapsRejectedOrdersToClientException() {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", "REJECT");
+    params.put("orderId", 42L);
+
+    assertThatThrownBy(() -> transport.cancelOrder(params))
+            .isInstanceOf(BinanceClientException.class)
+            .hasMessageContaining("\"code\":-2011");
+  }
+
+  @Test
+  @Tag("load")
+  void keepsOrderSubmissionTailLatencyLowOnReusedConnections() {
+    LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+    params.put("symbol", "BTCUSDT");
+    params.put("side", "BUY");
+    params.put("type", "MARKET");
+    params.put("quantity", "0.010");
+
+    for (int i = 0; i < 200; i++) {
+      transport.newOrder(params);
+    }
+
+    int samples = 1_000;
+    long[] latencies = new long[samples];
+    for (int i = 0; i < samples; i++) {
+      long start = System.nanoTime();
+      transport.newOrder(params);
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+
+    long p99Micros = latencies[(int) (samples * 0.99)] / 1_000;
+    assertThat(p99Micros).isLessThan(50_000);
+  }
+
+  private void handleOrder(HttpExchange exchange) throws IOException {
+    String query = exchange.getRequestURI().getRawQuery();
+    receivedRequests.add(exchange.getRequestMethod() + " " + query);
+
+    if (!API_KEY.equals(exchange.getRequestHeaders().getFirst("X-MBX-APIKEY")) || !hasValidSignature(query)) {
+      respond(exchange, 400, "{\"code\":-1022,\"msg\":\"Signature for this request is not valid.\"}");
+    } else if (query.startsWith("symbol=REJECT")) {
+      respond(exchange, 400, "{\"code\":-2011,\"msg\":\"Unknown order sent.\"}");
+    } else {
+      respond(exchange, 200, "{\"orderId\":1,\"status\":\"FILLED\",\"executedQty\":\"0.010\",\"avgPrice\":\"100.0\"}");
+    }
+  }
+
+  private boolean hasValidSignature(String query) {
+    int signatureStart = query.lastIndexOf("&signature=");
+    if (signatureStart < 0) {
+      return false;
+    }
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      byte[] expected = mac.doFinal(query.substring(0, signatureStart).getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(expected).equals(query.substring(signatureStart + "&signature=".length()));
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static String queryParam(String request, String name) {
+    for (String pair : request.substring(request.indexOf(' ') + 1).split("&")) {
+      if (pair.startsWith(name + "=")) {
+        return pair.substring(name.length() + 1);
+      }
+    }
+    throw new IllegalArgumentException("No " + name + " in " + request);
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
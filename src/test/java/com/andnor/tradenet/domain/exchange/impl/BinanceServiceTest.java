@@ -0,0 +1,103 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import com.binance.connector.futures.client.impl.UMFuturesClientImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BinanceServiceTest {
+  private static final long TAKE_PROFIT_ORDER_ID = 11L;
+  private static final long STOP_LOSS_ORDER_ID = 12L;
+
+  private final BinanceResponseDecoder decoder = mock(BinanceResponseDecoder.class);
+  private final UMFuturesClientImpl client = mock(UMFuturesClientImpl.class, RETURNS_DEEP_STUBS);
+  private final BinanceOrderTransport orderTransport = mock(BinanceOrderTransport.class);
+  private BinanceService binanceService;
+  private PositionEntity position;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    binanceService = new BinanceService(decoder, client, orderTransport, mock(BinanceOrderGateway.class), mock(HedgedPriceProvider.class),
+            Map.of(), new TradingProperties(), mock(ExecutionCostRecorder.class), mock(Tracer.class));
+    position = PositionEntity.builder()
+            .tradingPair(TradingPairEntity.builder().id(1L).symbol("BTCUSDT").build())
+            .type(PositionType.LONG)
+            .status(PositionStatus.OPEN)
+            .takeProfitPrice(new BigDecimal("101"))
+            .stopLossPrice(new BigDecimal("95"))
+            .takeProfitOrderId(TAKE_PROFIT_ORDER_ID)
+            .stopLossOrderId(STOP_LOSS_ORDER_ID)
+            .build();
+    when(orderTransport.queryOrderAsync(anyMap())).thenReturn(CompletableFuture.completedFuture("order"));
+    when(decoder.decodePositionRisks(any())).thenReturn(List.of());
+  }
+
+  @Test
+  void goneTakeProfitThatFilledClosesThePositionAtItsFillPrice() throws Exception {
+    orderGone(TAKE_PROFIT_ORDER_ID);
+    queried(new OrderResult(TAKE_PROFIT_ORDER_ID, "tp", "FILLED", BigDecimal.ONE, new BigDecimal("101.5")));
+
+    binanceService.closePosition(position);
+
+    assertThat(position.getStatus()).isEqualTo(PositionStatus.CLOSED);
+    assertThat(position.getEndPrice()).isEqualByComparingTo("101.5");
+    assertThat(position.getClosedAt()).isNotNull();
+    verify(orderTransport).cancelOrder(Map.of("symbol", "BTCUSDT", "orderId", STOP_LOSS_ORDER_ID));
+    verify(decoder, never()).decodePositionRisks(any());
+  }
+
+  @Test
+  void goneStopLossThatFilledFallsBackToThePlannedPrice() throws Exception {
+    orderGone(STOP_LOSS_ORDER_ID);
+    queried(new OrderResult(STOP_LOSS_ORDER_ID, "sl", "FILLED", BigDecimal.ONE, BigDecimal.ZERO));
+
+    binanceService.closePosition(position);
+
+    assertThat(position.getStatus()).isEqualTo(PositionStatus.CLOSED);
+    assertThat(position.getEndPrice()).isEqualByComparingTo("95");
+    verify(decoder, never()).decodePositionRisks(any());
+  }
+
+  @Test
+  void goneTakeProfitWithoutFillContinuesToTheMarketClose() throws Exception {
+    orderGone(TAKE_PROFIT_ORDER_ID);
+    queried(new OrderResult(TAKE_PROFIT_ORDER_ID, "tp", "CANCELED", BigDecimal.ZERO, BigDecimal.ZERO));
+
+    binanceService.closePosition(position);
+
+    assertThat(position.getStatus()).isEqualTo(PositionStatus.OPEN);
+    assertThat(position.getEndPrice()).isNull();
+    verify(orderTransport).cancelOrder(Map.of("symbol", "BTCUSDT", "orderId", STOP_LOSS_ORDER_ID));
+    verify(decoder).decodePositionRisks(any());
+  }
+
+  private void orderGone(long orderId) {
+    when(orderTransport.cancelOrder(Map.of("symbol", "BTCUSDT", "orderId", orderId)))
+            .thenThrow(new BinanceClientException("{\"code\":-2011,\"msg\":\"Unknown order sent.\"}", 400));
+  }
+
+  private void queried(OrderResult order) throws Exception {
+    when(decoder.decodeOrderResult("order")).thenReturn(order);
+  }
+}
@@ -0,0 +1,83 @@
+package com.andnor.tradenet.domain.exchange.impl;
+
+import com.andnor.tradenet.core.config.BinanceConfigProperties;
+import com.andnor.tradenet.core.util.CircuitBreaker;
+import com.andnor.tradenet.core.util.CircuitOpenException;
+import com.binance.connector.futures.client.exceptions.BinanceClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExchangeCircuitBreakersTest {
+  private ExchangeCircuitBreakers circuitBreakers;
+
+  @BeforeEach
+  void setUp() {
+    BinanceConfigProperties properties = new BinanceConfigProperties();
+    properties.getBreaker().setWindowSize(4);
+    properties.getBreaker().setMinCalls(2);
+    properties.getBreaker().setOpenDuration(Duration.ofSeconds(30));
+    circuitBreakers = new ExchangeCircuitBreakers(properties);
+  }
+
+  @Test
+  void failsFastOnceTheEndpointCircuitOpens() {
+    fail("exchange.getTicker", new IllegalStateException("timeout"));
+    fail("exchange.getTicker", new IllegalStateException("timeout"));
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThatThrownBy(() -> circuitBreakers.call("exchange.getTicker", calls::incrementAndGet))
+            .isInstanceOf(CircuitOpenException.class)
+            .extracting(e -> ((CircuitOpenException) e).getEndpoint())
+            .isEqualTo("exchange.getTicker");
+    assertThat(calls).hasValue(0);
+    assertThat(circuitBreakers.call("exchange.openPosition", calls::incrementAndGet)).isEqualTo(1);
+  }
+
+  @Test
+  void clientErrorsDoNotCountAsFailures() {
+    fail("exchange.openPosition", new BinanceClientException("{\"code\":-2019}", 400));
+    fail("exchange.openPosition", new BinanceClientException("{\"code\":-2019}", 400));
+
+    assertThat(state("exchange.openPosition")).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void rateLimitOpensOnlyTheEndpointThatHitIt() {
+    circuitBreakers.call("exchange.getTicker", () -> 1);
+    fail("exchange.openPosition", new RuntimeException(new BinanceClientException("rate limited", 429)));
+
+    assertThat(state("exchange.openPosition")).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(state("exchange.getTicker")).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void ipBanOpensEveryCircuit() {
+    circuitBreakers.call("exchange.getTicker", () -> 1);
+    circuitBreakers.call("exchange.cancelOrders", () -> 1);
+    fail("exchange.openPosition", new BinanceClientException("banned", 418));
+
+    assertThat(circuitBreakers.getBreakers())
+            .extracting(CircuitBreaker::getState)
+            .containsOnly(CircuitBreaker.State.OPEN);
+  }
+
+  private void fail(String endpoint, RuntimeException error) {
+    assertThatThrownBy(() -> circuitBreakers.call(endpoint, () -> {
+      throw error;
+    })).isSameAs(error);
+  }
+
+  private CircuitBreaker.State state(String endpoint) {
+    return circuitBreakers.getBreakers().stream()
+            .filter(breaker -> breaker.getName().equals(endpoint))
+            .findFirst()
+            .orElseThrow()
+            .getState();
+  }
+}
@@ -0,0 +1,55 @@
+package com.andnor.tradenet.domain.exchange.util;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientOrderIdsTest {
+  private final TradingPairEntity pair = TradingPairEntity.builder().id(42L).symbol("BTCUSDT").build();
+
+  @Test
+  void replayedCrossingGetsTheSameOrderIds() {
+    long first = ClientOrderIds.crossingId(pair, new BigDecimal("101.50"), true, 7);
+    long replayed = ClientOrderIds.crossingId(pair.toBuilder().build(), new BigDecimal("101.5"), true, 7);
+
+    assertThat(replayed).isEqualTo(first);
+    assertThat(ClientOrderIds.forGridOrder(pair, new BigDecimal("101.5"), PositionType.LONG, ClientOrderIds.ENTRY, replayed))
+            .isEqualTo(ClientOrderIds.forGridOrder(pair, new BigDecimal("101.50"), PositionType.LONG, ClientOrderIds.ENTRY, first));
+  }
+
+  @Test
+  void nextCrossingOrOtherDirectionGetsANewId() {
+    long crossing = ClientOrderIds.crossingId(pair, new BigDecimal("101.5"), true, 7);
+
+    assertThat(ClientOrderIds.crossingId(pair, new BigDecimal("101.5"), true, 8)).isNotEqualTo(crossing);
+    assertThat(ClientOrderIds.crossingId(pair, new BigDecimal("101.5"), false, 7)).isNotEqualTo(crossing);
+    assertThat(ClientOrderIds.crossingId(pair.toBuilder().strategyTag("trend").build(), new BigDecimal("101.5"), true, 7))
+            .isNotEqualTo(crossing);
+  }
+
+  @Test
+  void closeIdsAreDerivedFromPairSideAndCrossing() {
+    long crossing = ClientOrderIds.crossingId(pair, new BigDecimal("101.5"), true, 7);
+    long nextCrossing = ClientOrderIds.crossingId(pair, new BigDecimal("101.5"), true, 8);
+
+    assertThat(ClientOrderIds.forClose(pair.toBuilder().build(), PositionType.LONG, crossing))
+            .isEqualTo(ClientOrderIds.forClose(pair, PositionType.LONG, crossing))
+            .isNotEqualTo(ClientOrderIds.forClose(pair, PositionType.SHORT, crossing))
+            .isNotEqualTo(ClientOrderIds.forClose(pair, PositionType.LONG, nextCrossing))
+            .isNotEqualTo(ClientOrderIds.forPositionClose(pair, PositionType.LONG, crossing));
+  }
+
+  @Test
+  void gridOrderIdsFitBinanceLimit() {
+    TradingPairEntity largePair = pair.toBuilder().id(9_999_999L).build();
+    long crossing = ClientOrderIds.crossingId(largePair, new BigDecimal("65432.10"), false, 1_000_000_000L);
+
+    assertThat(ClientOrderIds.forGridOrder(largePair, new BigDecimal("65432.10"), PositionType.SHORT, ClientOrderIds.MAKER_ENTRY,
+            crossing)).hasSizeLessThanOrEqualTo(36);
+    assertThat(ClientOrderIds.forClose(largePair, PositionType.SHORT, crossing)).hasSizeLessThanOrEqualTo(36);
+  }
+}
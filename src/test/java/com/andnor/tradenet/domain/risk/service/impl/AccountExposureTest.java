@@ -0,0 +1,84 @@
+package com.andnor.tradenet.domain.risk.service.impl;
+
+import com.andnor.tradenet.domain.risk.model.RiskLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountExposureTest {
+  private final AccountExposure exposure = new AccountExposure("default");
+
+  @Test
+  void rejectsReservationBeyondOpenPositionLimit() {
+    assertThat(exposure.tryReserve(100, 100, 2, 0, 0)).isNull();
+    assertThat(exposure.tryReserve(100, -100, 2, 0, 0)).isNull();
+
+    assertThat(exposure.tryReserve(100, 100, 2, 0, 0)).isEqualTo(RiskLimit.OPEN_POSITIONS);
+    assertThat(exposure.getOpenPositions()).isEqualTo(2);
+    assertThat(exposure.getTotalCents()).isEqualTo(200);
+    assertThat(exposure.getNetCents()).isZero();
+    assertThat(exposure.getRejections()).isEqualTo(1);
+  }
+
+  @Test
+  void rollsBackPositionCountWhenTotalNotionalIsBreached() {
+    assertThat(exposure.tryReserve(700, 700, 0, 1_000, 0)).isNull();
+
+    assertThat(exposure.tryReserve(400, 400, 0, 1_000, 0)).isEqualTo(RiskLimit.TOTAL_NOTIONAL);
+    assertThat(exposure.getOpenPositions()).isEqualTo(1);
+    assertThat(exposure.getTotalCents()).isEqualTo(700);
+  }
+
+  @Test
+  void rollsBackCountAndTotalWhenNetNotionalIsBreachedButAllowsReducingNet() {
+    assertThat(exposure.tryReserve(800, 800, 0, 0, 1_000)).isNull();
+
+    assertThat(exposure.tryReserve(300, 300, 0, 0, 1_000)).isEqualTo(RiskLimit.NET_NOTIONAL);
+    assertThat(exposure.getOpenPositions()).isEqualTo(1);
+    assertThat(exposure.getTotalCents()).isEqualTo(800);
+    assertThat(exposure.getNetCents()).isEqualTo(800);
+
+    assertThat(exposure.tryReserve(300, -300, 0, 0, 1_000)).isNull();
+    assertThat(exposure.getNetCents()).isEqualTo(500);
+  }
+
+  @Test
+  void concurrentReservationsNeverExceedLimits() throws Exception {
+    int threads = 8;
+    int attemptsPerThread = 1_000;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> accepted = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (int t = 0; t < threads; t++) {
+        accepted.add(executor.submit(() -> {
+          start.await();
+          int count = 0;
+          for (int i = 0; i < attemptsPerThread; i++) {
+            if (exposure.tryReserve(10, 10, 250, 2_000, 0) == null) {
+              count++;
+            }
+          }
+          return count;
+        }));
+      }
+      start.countDown();
+      int total = 0;
+      for (Future<Integer> future : accepted) {
+        total += future.get(10, TimeUnit.SECONDS);
+      }
+
+      assertThat(total).isEqualTo(200);
+      assertThat(exposure.getOpenPositions()).isEqualTo(200);
+      assertThat(exposure.getTotalCents()).isEqualTo(2_000);
+      assertThat(exposure.getRejections()).isEqualTo((long) threads * attemptsPerThread - 200);
+    }
+  }
+}
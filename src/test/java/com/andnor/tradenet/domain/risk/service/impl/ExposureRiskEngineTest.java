@@ -0,0 +1,98 @@
+package com.andnor.tradenet.domain.risk.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionAggregateView;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.risk.model.ExposureReservation;
+import com.andnor.tradenet.domain.risk.model.ExposureSnapshot;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExposureRiskEngineTest {
+  private final PositionRepository positionRepository = mock(PositionRepository.class);
+  private final ExposureRiskEngine riskEngine = new ExposureRiskEngine(positionRepository, new TradingProperties());
+  private final TradingPairEntity pair = TradingPairEntity.builder().id(1L).symbol("BTCUSDT").build();
+
+  @Test
+  void releasesExposureOfPositionForceClosedRightAfterOpening() {
+    PositionEntity position = open(PositionType.LONG);
+    position.setStatus(PositionStatus.CLOSED);
+
+    riskEngine.onPositionClosed(new PositionClosedEvent(position));
+
+    assertThat(exposure()).extracting(ExposureSnapshot::openPositions, ExposureSnapshot::totalNotional)
+            .containsExactly(0, new BigDecimal("0.00"));
+  }
+
+  @Test
+  void releasesExposureOfPositionMovedToError() {
+    PositionEntity position = open(PositionType.SHORT);
+    position.setStatus(PositionStatus.ERROR);
+
+    riskEngine.onPositionClosed(new PositionClosedEvent(position));
+
+    assertThat(exposure()).extracting(ExposureSnapshot::openPositions, ExposureSnapshot::netNotional)
+            .containsExactly(0, new BigDecimal("0.00"));
+  }
+
+  @Test
+  void keepsExposureForEventOfPositionThatIsStillOpen() {
+    PositionEntity position = open(PositionType.LONG);
+
+    riskEngine.onPositionClosed(new PositionClosedEvent(position));
+
+    assertThat(exposure()).extracting(ExposureSnapshot::openPositions, ExposureSnapshot::totalNotional)
+            .containsExactly(1, new BigDecimal("100.00"));
+  }
+
+  @Test
+  void seedCountsOnlyPositionsThatAreNotTerminal() {
+    List<PositionAggregateView> rows = List.of(row(PositionStatus.OPEN, 2, "300"), row(PositionStatus.CLOSED, 5, "900"),
+            row(PositionStatus.ERROR, 1, "100"));
+    when(positionRepository.aggregateByTradingPair()).thenReturn(rows);
+
+    riskEngine.seed();
+
+    assertThat(exposure()).extracting(ExposureSnapshot::openPositions, ExposureSnapshot::totalNotional)
+            .containsExactly(2, new BigDecimal("300.00"));
+  }
+
+  private PositionEntity open(PositionType type) {
+    ExposureReservation reservation = riskEngine.reserve(pair, type, new BigDecimal("100"));
+    PositionEntity position = PositionEntity.builder()
+            .tradingPair(pair)
+            .type(type)
+            .quantity(BigDecimal.ONE)
+            .startPrice(new BigDecimal("100"))
+            .status(PositionStatus.OPEN)
+            .build();
+    riskEngine.confirm(reservation, position);
+    return position;
+  }
+
+  private ExposureSnapshot exposure() {
+    return riskEngine.getExposures().getFirst();
+  }
+
+  private PositionAggregateView row(PositionStatus status, long count, String entryNotional) {
+    PositionAggregateView row = mock(PositionAggregateView.class);
+    when(row.getTradingPairId()).thenReturn(1L);
+    when(row.getAccount()).thenReturn("default");
+    when(row.getStatus()).thenReturn(status.name());
+    when(row.getType()).thenReturn(PositionType.LONG.name());
+    when(row.getPositionCount()).thenReturn(count);
+    when(row.getEntryNotional()).thenReturn(new BigDecimal(entryNotional));
+    return row;
+  }
+}
@@ -0,0 +1,131 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.model.TraceSpan;
+import com.andnor.tradenet.domain.tracing.service.Span;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTracerTest {
+
+  @Test
+  void nestedSpansFormATreeUnderTheRoot() {
+    RingBufferTracer tracer = tracer(properties -> { });
+
+    Span root = tracer.startTrace("crossing").tag("symbol", "BTCUSDT");
+    Span open = tracer.startSpan("exchange.openPosition");
+    tracer.startSpan("binance.entryOrder").close();
+    tracer.startSpan("binance.stopLoss").close();
+    open.close();
+    tracer.startSpan("notify.positionMessage").close();
+    root.close();
+
+    List<Trace> traces = tracer.getTraces(Duration.ZERO, null, 10);
+    assertThat(traces).hasSize(1);
+    Trace trace = traces.get(0);
+    assertThat(trace.symbol()).isEqualTo("BTCUSDT");
+    assertThat(names(trace.root().children())).containsExactly("exchange.openPosition", "notify.positionMessage");
+    assertThat(names(trace.root().children().get(0).children())).containsExactly("binance.entryOrder", "binance.stopLoss");
+  }
+
+  @Test
+  void traceStartedInsideATraceBecomesAChild() {
+    RingBufferTracer tracer = tracer(properties -> { });
+
+    Span root = tracer.startTrace("crossing");
+    tracer.startTrace("inner").close();
+    root.close();
+
+    List<Trace> traces = tracer.getTraces(Duration.ZERO, null, 10);
+    assertThat(traces).hasSize(1);
+    assertThat(names(traces.get(0).root().children())).containsExactly("inner");
+  }
+
+  @Test
+  void spansOutsideATraceAreNotRecorded() {
+    RingBufferTracer tracer = tracer(properties -> { });
+
+    assertThat(tracer.startSpan("exchange.openPosition")).isSameAs(Span.NOOP);
+    assertThat(tracer.getTraces(Duration.ZERO, null, 10)).isEmpty();
+  }
+
+  @Test
+  void disabledTracerRecordsNothing() {
+    RingBufferTracer tracer = tracer(properties -> properties.setEnabled(false));
+
+    assertThat(tracer.startTrace("crossing")).isSameAs(Span.NOOP);
+    assertThat(tracer.startSpan("exchange.openPosition")).isSameAs(Span.NOOP);
+    assertThat(tracer.getTraces(Duration.ZERO, null, 10)).isEmpty();
+  }
+
+  @Test
+  void spansBeyondTheCapAreDroppedAndCounted() {
+    RingBufferTracer tracer = tracer(properties -> properties.setMaxSpansPerTrace(2));
+
+    Span root = tracer.startTrace("crossing");
+    tracer.startSpan("first").close();
+    tracer.startSpan("second").close();
+    Span dropped = tracer.startSpan("third");
+    Span nested = tracer.startSpan("fourth");
+    nested.close();
+    dropped.close();
+    root.close();
+
+    assertThat(dropped).isSameAs(Span.NOOP);
+    Trace trace = tracer.getTraces(Duration.ZERO, null, 10).get(0);
+    assertThat(trace.droppedSpans()).isEqualTo(2);
+    assertThat(names(trace.root().children())).containsExactly("first", "second");
+  }
+
+  @Test
+  void failedCallIsRecordedOnItsSpan() {
+    RingBufferTracer tracer = tracer(properties -> { });
+
+    Span root = tracer.startTrace("crossing");
+    assertThatThrownBy(() -> tracer.call("exchange.openPosition", () -> {
+      throw new IllegalStateException("rejected");
+    })).isInstanceOf(IllegalStateException.class);
+    root.close();
+
+    TraceSpan span = tracer.getTraces(Duration.ZERO, null, 10).get(0).root().children().get(0);
+    assertThat(span.error()).isEqualTo("IllegalStateException: rejected");
+  }
+
+  @Test
+  void recentRingWrapsWhileSlowTracesAreKept() throws InterruptedException {
+    RingBufferTracer tracer = tracer(properties -> {
+      properties.setCapacity(2);
+      properties.setSlowCapacity(2);
+      properties.setSlowThreshold(Duration.ofMillis(20));
+    });
+
+    Span slow = tracer.startTrace("crossing").tag("symbol", "ETHUSDT");
+    Thread.sleep(30);
+    slow.close();
+    for (int i = 0; i < 3; i++) {
+      tracer.startTrace("crossing").tag("symbol", "BTCUSDT").close();
+    }
+
+    List<Trace> traces = tracer.getTraces(Duration.ZERO, null, 10);
+    assertThat(traces).extracting(Trace::id).containsExactly(4L, 3L, 1L);
+    assertThat(tracer.getTraces(Duration.ofMillis(20), null, 10)).extracting(Trace::id).containsExactly(1L);
+    assertThat(tracer.getTraces(Duration.ZERO, "btcusdt", 1)).extracting(Trace::id).containsExactly(4L);
+  }
+
+  private static RingBufferTracer tracer(Consumer<TradingProperties.Tracing> customizer) {
+    TradingProperties properties = new TradingProperties();
+    customizer.accept(properties.getTracing());
+    return new RingBufferTracer(properties);
+  }
+
+  private static List<String> names(List<TraceSpan> spans) {
+    return spans.stream().map(TraceSpan::name).toList();
+  }
+}
@@ -0,0 +1,56 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.model.TraceSpan;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceRingTest {
+
+  @Test
+  void emptyRingHasEmptySnapshot() {
+    assertThat(new TraceRing(4).snapshot()).isEmpty();
+  }
+
+  @Test
+  void snapshotListsNewestFirst() {
+    TraceRing ring = new TraceRing(4);
+    ring.add(trace(1));
+    ring.add(trace(2));
+    ring.add(trace(3));
+
+    assertThat(ids(ring.snapshot())).containsExactly(3L, 2L, 1L);
+  }
+
+  @Test
+  void wrapsAroundAndKeepsOnlyTheLatestTraces() {
+    TraceRing ring = new TraceRing(3);
+    for (long id = 1; id <= 7; id++) {
+      ring.add(trace(id));
+    }
+
+    assertThat(ids(ring.snapshot())).containsExactly(7L, 6L, 5L);
+  }
+
+  @Test
+  void nonPositiveCapacityKeepsOneTrace() {
+    TraceRing ring = new TraceRing(0);
+    ring.add(trace(1));
+    ring.add(trace(2));
+
+    assertThat(ids(ring.snapshot())).containsExactly(2L);
+  }
+
+  private static Trace trace(long id) {
+    return new Trace(id, Instant.now(), "BTCUSDT", 0, new TraceSpan("crossing", 0, id, Map.of(), null, List.of()));
+  }
+
+  private static List<Long> ids(List<Trace> traces) {
+    return traces.stream().map(Trace::id).toList();
+  }
+}
@@ -0,0 +1,63 @@
+package com.andnor.tradenet.domain.tracing.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.tracing.model.Trace;
+import com.andnor.tradenet.domain.tracing.model.TraceSpan;
+import com.andnor.tradenet.domain.tracing.service.Span;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TracedRepositoryInterceptorTest {
+
+  @Test
+  void repositoryCallsBecomeChildSpansNamedAfterTheRepository() {
+    RingBufferTracer tracer = new RingBufferTracer(new TradingProperties());
+    SampleRepository repository = traced(tracer, new SampleRepository() {
+      @Override
+      public String findName(long id) {
+        return "pair-" + id;
+      }
+    });
+
+    Span root = tracer.startTrace("crossing");
+    assertThat(repository.findName(7)).isEqualTo("pair-7");
+    assertThat(repository.toString()).isNotNull();
+    root.close();
+
+    List<TraceSpan> children = tracer.getTraces(Duration.ZERO, null, 10).get(0).root().children();
+    assertThat(children).extracting(TraceSpan::name).containsExactly("db.SampleRepository.findName");
+  }
+
+  @Test
+  void failedRepositoryCallIsRecordedOnItsSpan() {
+    RingBufferTracer tracer = new RingBufferTracer(new TradingProperties());
+    SampleRepository repository = traced(tracer, id -> {
+      throw new IllegalStateException("connection lost");
+    });
+
+    Span root = tracer.startTrace("crossing");
+    assertThatThrownBy(() -> repository.findName(1)).isInstanceOf(IllegalStateException.class);
+    root.close();
+
+    Trace trace = tracer.getTraces(Duration.ZERO, null, 10).get(0);
+    assertThat(trace.root().children()).singleElement()
+            .satisfies(span -> assertThat(span.error()).contains("connection lost"));
+  }
+
+  private static SampleRepository traced(RingBufferTracer tracer, SampleRepository target) {
+    ProxyFactory proxyFactory = new ProxyFactory(target);
+    proxyFactory.addInterface(SampleRepository.class);
+    proxyFactory.addAdvice(new TracedRepositoryInterceptor(SampleRepository.class.getSimpleName(), () -> tracer));
+    return (SampleRepository) proxyFactory.getProxy();
+  }
+
+  interface SampleRepository {
+    String findName(long id);
+  }
+}
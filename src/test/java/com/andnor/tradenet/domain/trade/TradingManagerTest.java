@@ -0,0 +1,240 @@
+package com.andnor.tradenet.domain.trade;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.impl.BinanceAccount;
+import com.andnor.tradenet.domain.exchange.impl.BinanceAccountRegistry;
+import com.andnor.tradenet.domain.exchange.impl.BinanceService;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.tick.service.TickListener;
+import com.andnor.tradenet.domain.trade.model.FlattenReport;
+import com.andnor.tradenet.domain.trade.strategy.TradingStrategy;
+import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import com.andnor.tradenet.domain.trade.warmup.TradingWarmUp;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradingManagerTest {
+  private final ExchangeService exchangeService = mock(ExchangeService.class);
+  private final BinanceService accountExchange = mock(BinanceService.class);
+  private final BinanceAccountRegistry accountRegistry = mock(BinanceAccountRegistry.class);
+  private final TradingPairStateRepository tradingPairStateRepository = mock(TradingPairStateRepository.class);
+  private final TradingProperties tradingProperties = new TradingProperties();
+  private final CountDownLatch tickEntered = new CountDownLatch(1);
+  private final CountDownLatch releaseTick = new CountDownLatch(1);
+  private final AtomicBoolean tickFinished = new AtomicBoolean();
+  private volatile boolean ignoreInterrupts;
+  private TradingManager tradingManager;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    TickListener blockingListener = (symbol, exchangeTime, receiveTime, price) -> {
+      tickEntered.countDown();
+      awaitRelease();
+      tickFinished.set(true);
+    };
+    ObjectProvider<TickListener> tickListeners = mock(ObjectProvider.class);
+    when(tickListeners.orderedStream()).thenAnswer(invocation -> Stream.of(blockingListener));
+    when(exchangeService.getTicker(any())).thenReturn(new TickerPrice("BTCUSDT", new BigDecimal("100"), 1L));
+    when(accountRegistry.getAccounts()).thenReturn(List.of(new BinanceAccount(BinanceAccountRegistry.DEFAULT_ACCOUNT, accountExchange,
+            null)));
+
+    tradingProperties.getPoll().setMinInterval(Duration.ofMillis(10));
+    tradingProperties.getPoll().setMaxInterval(Duration.ofMillis(50));
+
+    tradingManager = new TradingManager(mock(TradingPairRepository.class), tradingPairStateRepository,
+            mock(PositionRepository.class), exchangeService, mock(TradingService.class), tradingProperties, tickListeners,
+            mock(ApplicationEventPublisher.class), mock(TradingWarmUp.class), accountRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseTick.countDown();
+    tradingManager.stopAllTrading();
+  }
+
+  @Test
+  void flattenWaitsForTickInProgressBeforeTouchingTheAccount() throws Exception {
+    List<Boolean> tickFinishedWhenFlattening = new CopyOnWriteArrayList<>();
+    when(accountExchange.getOpenPositionRisks()).thenAnswer(invocation -> {
+      tickFinishedWhenFlattening.add(tickFinished.get());
+      return List.of();
+    });
+    startTradingAndAwaitTick();
+
+    CompletableFuture<FlattenReport> flatten = CompletableFuture.supplyAsync(tradingManager::flattenAll);
+
+    verify(accountExchange, after(200).never()).getOpenPositionRisks();
+    assertThat(flatten).isNotDone();
+    releaseTick.countDown();
+
+    FlattenReport report = flatten.get(5, TimeUnit.SECONDS);
+    assertThat(report.getFailedSymbols()).isEmpty();
+    assertThat(tickFinishedWhenFlattening).isNotEmpty().containsOnly(true);
+    assertThat(tradingManager.getActiveThreads()).isEmpty();
+  }
+
+  @Test
+  void restartHandsStrategiesToReplacementOnceTheStalledThreadExits() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread stalled = tradingManager.getActiveThreads().iterator().next();
+    TradingStrategy strategy = stalled.getStrategies().getFirst();
+
+    assertThat(tradingManager.restartTrading("BTCUSDT")).isTrue();
+
+    assertThat(stalled.isFinished()).isTrue();
+    assertThat(stalled.isRetired()).isTrue();
+    assertThat(tradingManager.getActiveThreads()).doesNotContain(stalled);
+    assertThat(tradingManager.getActiveStrategies()).containsExactly(strategy);
+  }
+
+  @Test
+  void restartKeepsStrategiesWhenTheStalledThreadExitsBeforeTheSwap() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread stalled = tradingManager.getActiveThreads().iterator().next();
+    TradingStrategy strategy = stalled.getStrategies().getFirst();
+
+    CompletableFuture<Boolean> restart;
+    synchronized (tradingManager) {
+      restart = CompletableFuture.supplyAsync(() -> tradingManager.restartTrading("BTCUSDT"));
+      assertThat(stalled.awaitTermination(Duration.ofSeconds(5))).isTrue();
+      assertThat(tradingManager.getActiveThreads()).containsExactly(stalled);
+    }
+
+    assertThat(restart.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(tradingManager.getActiveThreads()).singleElement().isNotSameAs(stalled);
+    assertThat(tradingManager.getActiveStrategies()).containsExactly(strategy);
+  }
+
+  @Test
+  void restartRestoresStrategiesFromCheckpointWhenTheStalledThreadDoesNotExit() throws Exception {
+    ignoreInterrupts = true;
+    tradingProperties.getWatchdog().setRestartGracePeriod(Duration.ofMillis(100));
+    startTradingAndAwaitTick();
+    TradingThread stalled = tradingManager.getActiveThreads().iterator().next();
+    TradingStrategy strategy = stalled.getStrategies().getFirst();
+
+    assertThat(tradingManager.restartTrading("BTCUSDT")).isTrue();
+
+    assertThat(stalled.isFinished()).isFalse();
+    assertThat(stalled.isRetired()).isTrue();
+    assertThat(tradingManager.getActiveStrategies()).singleElement()
+            .isNotSameAs(strategy)
+            .extracting(active -> active.getTradingPair().getId())
+            .isEqualTo(1L);
+    verify(tradingPairStateRepository, times(2)).findById(1L);
+  }
+
+  @Test
+  void exitedThreadIsUnregistered() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread thread = tradingManager.getActiveThreads().iterator().next();
+
+    thread.abort();
+
+    assertThat(thread.awaitTermination(Duration.ofSeconds(5))).isTrue();
+    assertThat(tradingManager.getActiveThreads()).isEmpty();
+  }
+
+  @Test
+  void unexpectedlyExitedThreadStaysRegisteredUntilRestarted() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread crashed = tradingManager.getActiveThreads().iterator().next();
+    TradingStrategy strategy = crashed.getStrategies().getFirst();
+
+    crashed.getWorker().interrupt();
+
+    assertThat(crashed.awaitTermination(Duration.ofSeconds(5))).isTrue();
+    assertThat(crashed.isRunning()).isFalse();
+    assertThat(tradingManager.getActiveThreads()).containsExactly(crashed);
+
+    assertThat(tradingManager.restartTrading("BTCUSDT")).isTrue();
+    assertThat(tradingManager.getActiveThreads()).singleElement().isNotSameAs(crashed);
+    assertThat(tradingManager.getActiveStrategies()).containsExactly(strategy);
+  }
+
+  @Test
+  void startingPairOnStoppingThreadStartsNewThread() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread stopping = tradingManager.getActiveThreads().iterator().next();
+    stopping.stop();
+
+    tradingManager.startTrading(pair(2L));
+
+    assertThat(tradingManager.getActiveThreads()).singleElement().isNotSameAs(stopping);
+    assertThat(stopping.getStrategies()).hasSize(1);
+    releaseTick.countDown();
+    assertThat(stopping.awaitTermination(Duration.ofSeconds(5))).isTrue();
+    assertThat(tradingManager.getActiveThreads()).singleElement()
+            .satisfies(thread -> assertThat(thread.getTradingPairs()).extracting(TradingPairEntity::getId).containsExactly(2L));
+  }
+
+  @Test
+  void stoppingPairsLeavesOtherIdleThreadsRunning() throws Exception {
+    startTradingAndAwaitTick();
+    TradingThread idle = tradingManager.getActiveThreads().iterator().next();
+    idle.removeStrategy(1L);
+
+    tradingManager.stopTradingPairs(List.of(2L), false);
+
+    assertThat(idle.isRunning()).isTrue();
+    assertThat(tradingManager.getActiveThreads()).containsExactly(idle);
+  }
+
+  private void startTradingAndAwaitTick() throws InterruptedException {
+    tradingManager.startTrading(pair(1L));
+    assertThat(tickEntered.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private TradingPairEntity pair(Long id) {
+    return TradingPairEntity.builder()
+            .id(id)
+            .symbol("BTCUSDT")
+            .account(BinanceAccountRegistry.DEFAULT_ACCOUNT)
+            .gridLevelPercentage(BigDecimal.ONE)
+            .positionAmountUsdt(new BigDecimal("100"))
+            .active(true)
+            .build();
+  }
+
+  private void awaitRelease() {
+    while (true) {
+      try {
+        releaseTick.await(10, TimeUnit.SECONDS);
+        return;
+      } catch (InterruptedException e) {
+        if (!ignoreInterrupts) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.andnor.tradenet.domain.trade;
+
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import com.andnor.tradenet.domain.risk.service.RiskEngine;
+import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradingServiceTest {
+  private final PositionRepository positionRepository = mock(PositionRepository.class);
+  private final ExchangeService exchangeService = mock(ExchangeService.class);
+  private final TradingService tradingService = new TradingService(positionRepository, exchangeService, mock(MessageService.class),
+          mock(ApplicationEventPublisher.class), mock(RiskEngine.class), mock(Tracer.class));
+  private final TradingPairEntity pair = TradingPairEntity.builder()
+          .id(1L)
+          .symbol("BTCUSDT")
+          .strategyTag("grid")
+          .build();
+
+  @Test
+  void hardStopClosesOnlyThePairsOwnQuantityPerSide() {
+    PositionEntity first = position(10L, PositionType.LONG, "0.010", 100L, 101L);
+    PositionEntity second = position(11L, PositionType.LONG, "0.020", 102L, 103L);
+    PositionEntity shortPosition = position(12L, PositionType.SHORT, "0.005", 104L, null);
+    when(positionRepository.findOpenByTradingPairId(1L)).thenReturn(List.of(first, second, shortPosition));
+    when(exchangeService.closeSide(eq(pair), eq(PositionType.LONG), any(), any()))
+            .thenReturn(new OrderResult(1L, "close-long", "FILLED", new BigDecimal("0.030"), new BigDecimal("99")));
+    when(exchangeService.closeSide(eq(pair), eq(PositionType.SHORT), any(), any()))
+            .thenReturn(new OrderResult(2L, "close-short", "FILLED", new BigDecimal("0.005"), new BigDecimal("99")));
+
+    assertThat(tradingService.closeOpenPositions(pair)).isZero();
+
+    verify(exchangeService).cancelOrders(pair, List.of(100L, 101L, 102L, 103L));
+    verify(exchangeService).cancelOrders(pair, List.of(104L));
+    verify(exchangeService).closeSide(pair, PositionType.LONG, new BigDecimal("0.030"), "tn-1-PL-b");
+    verify(exchangeService).closeSide(pair, PositionType.SHORT, new BigDecimal("0.005"), "tn-1-PS-c");
+    verify(exchangeService, never()).closePosition(any());
+    assertThat(List.of(first, second, shortPosition)).extracting(PositionEntity::getStatus).containsOnly(PositionStatus.CLOSED);
+  }
+
+  @Test
+  void hardStopReportsPositionsThatWereNotClosed() {
+    PositionEntity position = position(10L, PositionType.LONG, "0.010", null, null);
+    when(positionRepository.findOpenByTradingPairId(1L)).thenReturn(List.of(position));
+    when(exchangeService.closeSide(eq(pair), eq(PositionType.LONG), any(), any())).thenThrow(new IllegalStateException("rejected"));
+
+    assertThat(tradingService.closeOpenPositions(pair)).isEqualTo(1);
+    assertThat(position.getStatus()).isEqualTo(PositionStatus.ERROR);
+  }
+
+  private PositionEntity position(Long id, PositionType type, String quantity, Long stopLossOrderId, Long takeProfitOrderId) {
+    return PositionEntity.builder()
+            .id(id)
+            .tradingPair(pair)
+            .type(type)
+            .quantity(new BigDecimal(quantity))
+            .status(PositionStatus.OPEN)
+            .stopLossOrderId(stopLossOrderId)
+            .takeProfitOrderId(takeProfitOrderId)
+            .openedAt(Instant.ofEpochSecond(id))
+            .build();
+  }
+}
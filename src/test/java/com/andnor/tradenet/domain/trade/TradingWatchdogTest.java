@@ -0,0 +1,91 @@
+package com.andnor.tradenet.domain.trade;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.telegram.service.MessageFormatter;
+import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.trade.model.PairHealth;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
+import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradingWatchdogTest {
+  private final TradingManager tradingManager = mock(TradingManager.class);
+  private final MessageService messageService = mock(MessageService.class);
+  private final MessageFormatter messageFormatter = mock(MessageFormatter.class);
+  private final TradingProperties tradingProperties = new TradingProperties();
+  private final CountDownLatch restartEntered = new CountDownLatch(1);
+  private final CountDownLatch releaseRestart = new CountDownLatch(1);
+  private TradingWatchdog watchdog;
+  private TradingThread exited;
+
+  @BeforeEach
+  void setUp() {
+    tradingProperties.getWatchdog().setEnabled(false);
+    tradingProperties.getWatchdog().setRestartStalled(true);
+    tradingProperties.getWatchdog().setAlertCooldown(Duration.ZERO);
+    exited = new TradingThread("BTCUSDT", mock(ExchangeService.class), new PollingScheduler(tradingProperties.getPoll()), List.of());
+    exited.run();
+
+    when(tradingManager.getActiveThreads()).thenReturn(List.of(exited));
+    when(tradingManager.restartTrading("BTCUSDT")).thenAnswer(invocation -> {
+      restartEntered.countDown();
+      return releaseRestart.await(5, TimeUnit.SECONDS);
+    });
+    when(messageFormatter.formatStallAlert(any(), eq(true))).thenReturn("restarted");
+    when(messageFormatter.formatStallAlert(any(), eq(false))).thenReturn("not restarted");
+
+    watchdog = new TradingWatchdog(tradingManager, messageService, messageFormatter, new SimpleMeterRegistry(), tradingProperties);
+    watchdog.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseRestart.countDown();
+    watchdog.shutdown();
+  }
+
+  @Test
+  void exitedLoopIsRestartedWithoutBlockingTheCheck() throws Exception {
+    List<PairHealth> unhealthy = watchdog.check();
+
+    assertThat(unhealthy).singleElement().satisfies(health -> {
+      assertThat(health.isStalled()).isTrue();
+      assertThat(health.getReason()).isEqualTo("worker exited");
+    });
+    assertThat(restartEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    releaseRestart.countDown();
+    verify(messageService, timeout(5_000)).broadcastMessage("restarted");
+  }
+
+  @Test
+  void restartInFlightIsNotScheduledAgain() throws Exception {
+    watchdog.check();
+    assertThat(restartEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    watchdog.check();
+
+    verify(messageService).broadcastMessage("not restarted");
+    releaseRestart.countDown();
+    verify(messageService, timeout(5_000)).broadcastMessage("restarted");
+    verify(tradingManager, times(1)).restartTrading("BTCUSDT");
+  }
+}
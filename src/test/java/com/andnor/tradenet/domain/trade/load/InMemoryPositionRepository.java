@@ -0,0 +1,158 @@
+package com.andnor.tradenet.domain.trade.load;
+
+import com.andnor.tradenet.domain.position.model.PositionStatus;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionAggregateView;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.position.persistence.PositionOrdersView;
+import com.andnor.tradenet.domain.position.persistence.PositionRepository;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class InMemoryPositionRepository extends InMemoryRepository<PositionEntity> implements PositionRepository {
+  private final Map<Long, Map<Long, PositionEntity>> openByTradingPair = new ConcurrentHashMap<>();
+
+  @Override
+  protected Long idOf(PositionEntity position) {
+    return position.getId();
+  }
+
+  @Override
+  protected void assignId(PositionEntity position, Long id) {
+    position.setId(id);
+  }
+
+  @Override
+  public <S extends PositionEntity> S save(S position) {
+    super.save(position);
+    Map<Long, PositionEntity> open = openByTradingPair.computeIfAbsent(position.getTradingPair().getId(),
+            id -> new ConcurrentHashMap<>());
+    if (position.getStatus() == PositionStatus.OPEN) {
+      open.put(position.getId(), position);
+    } else {
+      open.remove(position.getId());
+    }
+    return position;
+  }
+
+  @Override
+  public void deleteById(Long id) {
+    findById(id).ifPresent(position -> openByTradingPair.getOrDefault(position.getTradingPair().getId(), Map.of()).remove(id));
+    super.deleteById(id);
+  }
+
+  @Override
+  public List<PositionEntity> findPositionsToClose(Long id, BigDecimal level) {
+    return findOpenByTradingPairId(id).stream()
+            .filter(p -> (p.getType() == PositionType.LONG && p.getTakeProfitPrice().compareTo(level) <= 0)
+                    || (p.getType() == PositionType.SHORT && p.getTakeProfitPrice().compareTo(level) >= 0))
+            .toList();
+  }
+
+  @Override
+  public boolean existsOpenPositionAtLevel(Long id, BigDecimal level, PositionType type) {
+    return findOpenByTradingPairId(id).stream()
+            .filter(p -> p.getType() == type)
+            .anyMatch(p -> type == PositionType.LONG ? p.getGridLevelPrice().compareTo(level) <= 0
+                    : p.getGridLevelPrice().compareTo(level) >= 0);
+  }
+
+  @Override
+  public boolean existsByTradingPairId(Long id) {
+    return !openByTradingPair.getOrDefault(id, Map.of()).isEmpty();
+  }
+
+  @Override
+  public List<PositionEntity> findOpenByTradingPairId(Long id) {
+    return List.copyOf(openByTradingPair.getOrDefault(id, Map.of()).values());
+  }
+
+  @Override
+  public List<PositionOrdersView> findOpenPositionOrders(Long id) {
+    return findOpenByTradingPairId(id).stream()
+            .map(p -> new PositionOrdersView(p.getId(), p.getStopLossOrderId(), p.getTakeProfitOrderId()))
+            .toList();
+  }
+
+  @Override
+  public List<PositionEntity> findAllWithTradingPairByIdIn(Collection<Long> ids) {
+    return findAllById(ids);
+  }
+
+  @Override
+  public int updateOpenPositionsStatus(Collection<Long> pairIds, PositionStatus status, Instant closedAt) {
+    int updated = 0;
+    for (Long pairId : pairIds) {
+      for (PositionEntity position : findOpenByTradingPairId(pairId)) {
+        position.setStatus(status);
+        position.setClosedAt(closedAt);
+        save(position);
+        updated++;
+      }
+    }
+    return updated;
+  }
+
+  @Override
+  public List<PositionAggregateView> aggregateByTradingPair() {
+    Map<List<Object>, Aggregate> aggregates = new LinkedHashMap<>();
+    for (PositionEntity position : findAll()) {
+      if (position.getStatus() == PositionStatus.ERROR) {
+        continue;
+      }
+      List<Object> key = List.of(position.getTradingPair().getId(), position.getStatus(), position.getType());
+      aggregates.computeIfAbsent(key, k -> new Aggregate(position)).add(position);
+    }
+    return new ArrayList<>(aggregates.values());
+  }
+
+  @Getter
+  private static class Aggregate implements PositionAggregateView {
+    private final Long tradingPairId;
+    private final String account;
+    private final String symbol;
+    private final String status;
+    private final String type;
+    private long positionCount;
+    private long pricedCount;
+    private long winCount;
+    private BigDecimal entryNotional = BigDecimal.ZERO;
+    private BigDecimal exitNotional = BigDecimal.ZERO;
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+    private BigDecimal holdSeconds = BigDecimal.ZERO;
+
+    Aggregate(PositionEntity position) {
+      this.tradingPairId = position.getTradingPair().getId();
+      this.account = position.getTradingPair().getAccount();
+      this.symbol = position.getTradingPair().getSymbol();
+      this.status = position.getStatus().name();
+      this.type = position.getType().name();
+    }
+
+    void add(PositionEntity position) {
+      positionCount++;
+      entryNotional = entryNotional.add(position.getQuantity().multiply(position.getStartPrice()));
+      if (position.getEndPrice() == null) {
+        return;
+      }
+      BigDecimal move = position.getEndPrice().subtract(position.getStartPrice());
+      BigDecimal pnl = (position.getType() == PositionType.LONG ? move : move.negate()).multiply(position.getQuantity());
+      pricedCount++;
+      winCount += pnl.signum() > 0 ? 1 : 0;
+      exitNotional = exitNotional.add(position.getQuantity().multiply(position.getEndPrice()));
+      realizedPnl = realizedPnl.add(pnl);
+      if (position.getOpenedAt() != null && position.getClosedAt() != null) {
+        holdSeconds = holdSeconds.add(BigDecimal.valueOf(Duration.between(position.getOpenedAt(), position.getClosedAt()).toSeconds()));
+      }
+    }
+  }
+}
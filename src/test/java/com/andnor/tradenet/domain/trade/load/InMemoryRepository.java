@@ -0,0 +1,214 @@
+package com.andnor.tradenet.domain.trade.load;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+abstract class InMemoryRepository<T> implements JpaRepository<T, Long> {
+  private final Map<Long, T> entities = new ConcurrentHashMap<>();
+  private final AtomicLong nextId = new AtomicLong(1);
+
+  protected abstract Long idOf(T entity);
+
+  protected abstract void assignId(T entity, Long id);
+
+  @Override
+  public <S extends T> S save(S entity) {
+    if (idOf(entity) == null) {
+      assignId(entity, nextId.getAndIncrement());
+    }
+    entities.put(idOf(entity), entity);
+    return entity;
+  }
+
+  @Override
+  public <S extends T> List<S> saveAll(Iterable<S> entities) {
+    List<S> saved = new ArrayList<>();
+    for (S entity : entities) {
+      saved.add(save(entity));
+    }
+    return saved;
+  }
+
+  @Override
+  public <S extends T> S saveAndFlush(S entity) {
+    return save(entity);
+  }
+
+  @Override
+  public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+    return saveAll(entities);
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public Optional<T> findById(Long id) {
+    return Optional.ofNullable(entities.get(id));
+  }
+
+  @Override
+  public boolean existsById(Long id) {
+    return entities.containsKey(id);
+  }
+
+  @Override
+  public List<T> findAll() {
+    return new ArrayList<>(entities.values());
+  }
+
+  @Override
+  public List<T> findAllById(Iterable<Long> ids) {
+    List<T> found = new ArrayList<>();
+    for (Long id : ids) {
+      findById(id).ifPresent(found::add);
+    }
+    return found;
+  }
+
+  @Override
+  public List<T> findAll(Sort sort) {
+    List<T> all = findAll();
+    all.sort(comparator(sort));
+    return all;
+  }
+
+  @Override
+  public Page<T> findAll(Pageable pageable) {
+    List<T> all = findAll(pageable.getSort());
+    if (pageable.isUnpaged()) {
+      return new PageImpl<>(all);
+    }
+    int from = (int) Math.min(pageable.getOffset(), all.size());
+    int to = Math.min(from + pageable.getPageSize(), all.size());
+    return new PageImpl<>(all.subList(from, to), pageable, all.size());
+  }
+
+  @Override
+  public long count() {
+    return entities.size();
+  }
+
+  @Override
+  public T getReferenceById(Long id) {
+    return findById(id).orElseThrow(() -> new EntityNotFoundException("No entity with id " + id));
+  }
+
+  @Override
+  public T getById(Long id) {
+    return getReferenceById(id);
+  }
+
+  @Override
+  public T getOne(Long id) {
+    return getReferenceById(id);
+  }
+
+  @Override
+  public void deleteById(Long id) {
+    entities.remove(id);
+  }
+
+  @Override
+  public void delete(T entity) {
+    deleteById(idOf(entity));
+  }
+
+  @Override
+  public void deleteAllById(Iterable<? extends Long> ids) {
+    ids.forEach(this::deleteById);
+  }
+
+  @Override
+  public void deleteAll(Iterable<? extends T> entities) {
+    entities.forEach(this::delete);
+  }
+
+  @Override
+  public void deleteAll() {
+    deleteAllById(List.copyOf(entities.keySet()));
+  }
+
+  @Override
+  public void deleteAllInBatch(Iterable<T> entities) {
+    deleteAll(entities);
+  }
+
+  @Override
+  public void deleteAllByIdInBatch(Iterable<Long> ids) {
+    deleteAllById(ids);
+  }
+
+  @Override
+  public void deleteAllInBatch() {
+    deleteAll();
+  }
+
+  @Override
+  public <S extends T> Optional<S> findOne(Example<S> example) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T> List<S> findAll(Example<S> example) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T> long count(Example<S> example) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T> boolean exists(Example<S> example) {
+    throw queryByExample();
+  }
+
+  @Override
+  public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+    throw queryByExample();
+  }
+
+  private UnsupportedOperationException queryByExample() {
+    return new UnsupportedOperationException("Query by example is not supported by " + getClass().getSimpleName());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Comparator<T> comparator(Sort sort) {
+    Comparator<T> comparator = (left, right) -> 0;
+    for (Sort.Order order : sort) {
+      Comparator<T> byProperty = Comparator.comparing(
+              entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+              Comparator.nullsFirst(Comparator.naturalOrder()));
+      comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+    }
+    return comparator;
+  }
+}
@@ -0,0 +1,79 @@
+package com.andnor.tradenet.domain.trade.load;
+
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairKeyView;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+class InMemoryTradingPairRepository extends InMemoryRepository<TradingPairEntity> implements TradingPairRepository {
+  @Override
+  protected Long idOf(TradingPairEntity pair) {
+    return pair.getId();
+  }
+
+  @Override
+  protected void assignId(TradingPairEntity pair, Long id) {
+    pair.setId(id);
+  }
+
+  @Override
+  public List<TradingPairEntity> findAll() {
+    return super.findAll().stream().sorted(Comparator.comparing(TradingPairEntity::getId)).toList();
+  }
+
+  @Override
+  public List<TradingPairEntity> findAllByActiveTrue() {
+    return findAll().stream().filter(TradingPairEntity::isActive).toList();
+  }
+
+  @Override
+  public List<TradingPairKeyView> findAllByAccountAndSymbolIn(String account, Collection<String> symbols) {
+    return findAll().stream()
+            .filter(pair -> account.equals(pair.getAccount()) && symbols.contains(pair.getSymbol()))
+            .map(pair -> (TradingPairKeyView) new Key(pair.getId(), pair.getSymbol()))
+            .toList();
+  }
+
+  @Override
+  public int initializeStartPrice(Long id, BigDecimal startPrice) {
+    return findById(id)
+            .filter(pair -> pair.getStartPrice() == null)
+            .map(pair -> {
+              pair.setStartPrice(startPrice);
+              return 1;
+            })
+            .orElse(0);
+  }
+
+  @Override
+  public int activateAll(Collection<Long> ids) {
+    return setActive(ids, true);
+  }
+
+  @Override
+  public int deactivateAll(Collection<Long> ids) {
+    return setActive(ids, false);
+  }
+
+  private int setActive(Collection<Long> ids, boolean active) {
+    List<TradingPairEntity> pairs = findAllById(ids);
+    pairs.forEach(pair -> pair.setActive(active));
+    return pairs.size();
+  }
+
+  private record Key(Long id, String symbol) implements TradingPairKeyView {
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getSymbol() {
+      return symbol;
+    }
+  }
+}
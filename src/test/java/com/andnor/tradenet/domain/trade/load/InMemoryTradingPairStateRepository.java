@@ -0,0 +1,43 @@
+package com.andnor.tradenet.domain.trade.load;
+
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+class InMemoryTradingPairStateRepository extends InMemoryRepository<TradingPairStateEntity> implements TradingPairStateRepository {
+  @Override
+  protected Long idOf(TradingPairStateEntity state) {
+    return state.getTradingPairId();
+  }
+
+  @Override
+  protected void assignId(TradingPairStateEntity state, Long id) {
+    throw new IllegalArgumentException("Trading pair state needs the id of its trading pair");
+  }
+
+  @Override
+  public synchronized void upsert(Long pairId, BigDecimal startPrice, BigDecimal lastPrice, BigDecimal currentLevelPrice,
+          Instant lastCrossingAt, Instant updatedAt) {
+    TradingPairStateEntity state = stateOf(pairId);
+    state.setStartPrice(startPrice);
+    state.setLastPrice(lastPrice);
+    state.setCurrentLevelPrice(currentLevelPrice);
+    state.setLastCrossingAt(lastCrossingAt);
+    state.setUpdatedAt(updatedAt);
+    save(state);
+  }
+
+  @Override
+  public synchronized void advanceCrossingSequence(Long pairId, long crossingSequence, Instant updatedAt) {
+    TradingPairStateEntity state = findById(pairId)
+            .orElseGet(() -> TradingPairStateEntity.builder().tradingPairId(pairId).updatedAt(updatedAt).build());
+    state.setCrossingSequence(Math.max(state.getCrossingSequence(), crossingSequence));
+    save(state);
+  }
+
+  private TradingPairStateEntity stateOf(Long pairId) {
+    return findById(pairId).orElseGet(() -> TradingPairStateEntity.builder().tradingPairId(pairId).build());
+  }
+}
@@ -0,0 +1,393 @@
+package com.andnor.tradenet.domain.trade.load;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.impl.BinanceResponseDecoder;
+import com.andnor.tradenet.domain.exchange.model.OrderResult;
+import com.andnor.tradenet.domain.exchange.model.PositionRisk;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.position.model.PositionClosedEvent;
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.risk.service.impl.ExposureRiskEngine;
+import com.andnor.tradenet.domain.telegram.model.MessageType;
+import com.andnor.tradenet.domain.telegram.service.MessageService;
+import com.andnor.tradenet.domain.tracing.service.Tracer;
+import com.andnor.tradenet.domain.tracing.service.impl.RingBufferTracer;
+import com.andnor.tradenet.domain.trade.TradingService;
+import com.andnor.tradenet.domain.trade.strategy.GridStrategy;
+import com.andnor.tradenet.domain.trade.thread.PollingScheduler;
+import com.andnor.tradenet.domain.trade.thread.TradingThread;
+import com.andnor.tradenet.domain.trade.warmup.WarmUpExchangeService;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("load")
+@Slf4j
+class TradingCapacityLoadTest {
+  private static final String HEADER = "version,started_at,persistence,pairs,ticks,crossings,orders,injected_errors,duration_ms,"
+          + "ticks_per_sec,crossings_per_sec,crossing_p50_us,crossing_p95_us,crossing_p99_us,crossing_max_us,max_feed_lag_ms,heap_used_mb,"
+          + "peak_threads\n";
+  private static final BigDecimal START_PRICE = new BigDecimal("100.00");
+  private static final String PERSISTENCE = "in-memory";
+
+  private final List<Integer> pairSteps = Arrays.stream(System.getProperty("load.pairs", "100,250,500,1000").split(","))
+          .map(String::trim)
+          .map(Integer::parseInt)
+          .toList();
+  private final int ticksPerPair = Integer.getInteger("load.ticks-per-pair", 300);
+  private final long tickIntervalMs = Long.getLong("load.tick-interval-ms", 50);
+  private final long latencyMs = Long.getLong("load.latency-ms", 2);
+  private final long latencyJitterMs = Long.getLong("load.latency-jitter-ms", 3);
+  private final double errorRate = Double.parseDouble(System.getProperty("load.error-rate", "0.01"));
+  private final Path reportDir = Path.of(System.getProperty("load.report-dir", "target/load-report"));
+  private final String historyFile = System.getProperty("load.history-file", "");
+  private final String version = System.getProperty("project.version", "dev");
+
+  private final BinanceResponseDecoder decoder = new BinanceResponseDecoder(new ObjectMapper());
+  private final TradingProperties tradingProperties = new TradingProperties();
+
+  @Test
+  void rampsPairsAndWritesLoadReport() throws Exception {
+    log.warn("Load figures exclude persistence and are not a production capacity: positions and pair state are kept in {} repositories",
+            PERSISTENCE);
+    List<StepResult> results = new ArrayList<>();
+    for (int pairs : pairSteps) {
+      StepResult result = runStep(pairs);
+      log.info("Load step: {}", result);
+      results.add(result);
+      assertThat(result.crossings()).isPositive();
+    }
+    writeReport(results);
+  }
+
+  private StepResult runStep(int pairCount) throws InterruptedException {
+    InMemoryPositionRepository positionRepository = new InMemoryPositionRepository();
+    InMemoryTradingPairRepository tradingPairRepository = tradingPairs(pairCount);
+    InMemoryTradingPairStateRepository tradingPairStateRepository = new InMemoryTradingPairStateRepository();
+    RingBufferTracer tracer = new RingBufferTracer(tradingProperties);
+    FaultInjectingExchange exchange = new FaultInjectingExchange(tracer);
+    ExposureRiskEngine riskEngine = new ExposureRiskEngine(positionRepository, tradingProperties);
+    TradingService tradingService = new TradingService(positionRepository, exchange, new SilentMessageService(), event -> {
+      if (event instanceof PositionClosedEvent closed) {
+        riskEngine.onPositionClosed(closed);
+      }
+    }, riskEngine, tracer);
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+
+    List<SymbolFeed> feeds = new ArrayList<>(pairCount);
+    for (TradingPairEntity pair : tradingPairRepository.findAll()) {
+      TradingThread thread = new TradingThread(pair.getSymbol(), exchange, new PollingScheduler(tradingProperties.getPoll()), List.of());
+      GridStrategy strategy = new GridStrategy(pair, tradingService, tradingPairRepository, tradingPairStateRepository);
+      thread.addStrategy(strategy);
+      exchange.register(pair.getSymbol(), positionRepository, pair.getId());
+      feeds.add(new SymbolFeed(pair.getSymbol(), thread, strategy, new Random(pair.getId()), pair.getId() % 2 == 0));
+    }
+
+    CountDownLatch done = new CountDownLatch(feeds.size());
+    long startedAt = System.currentTimeMillis();
+    for (SymbolFeed feed : feeds) {
+      Thread.ofPlatform().name("load-" + feed.symbol).start(() -> {
+        try {
+          feed.run(exchange, startedAt);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    long durationMs = Math.max(1, System.currentTimeMillis() - startedAt);
+
+    long[] latencies = feeds.stream().flatMapToLong(feed -> Arrays.stream(feed.crossingNanos, 0, feed.crossings)).sorted().toArray();
+    long ticks = (long) pairCount * ticksPerPair;
+    long maxLagMs = feeds.stream().mapToLong(feed -> feed.maxLagMs).max().orElse(0);
+    int peakThreads = threads.getPeakThreadCount();
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    long heapUsedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+
+    return new StepResult(pairCount, ticks, latencies.length, exchange.orders.get(), exchange.injectedErrors.get(), durationMs,
+            ticks * 1000.0 / durationMs, latencies.length * 1000.0 / durationMs, percentileMicros(latencies, 0.50),
+            percentileMicros(latencies, 0.95), percentileMicros(latencies, 0.99), percentileMicros(latencies, 1.0), maxLagMs,
+            heapUsedMb, peakThreads);
+  }
+
+  private InMemoryTradingPairRepository tradingPairs(int count) {
+    InMemoryTradingPairRepository tradingPairRepository = new InMemoryTradingPairRepository();
+    for (long id = 1; id <= count; id++) {
+      tradingPairRepository.save(TradingPairEntity.builder()
+              .id(id)
+              .symbol(String.format("LOAD%04dUSDT", id))
+              .gridLevelPercentage(new BigDecimal("0.5"))
+              .longStopLossPercentage(new BigDecimal("5"))
+              .shortStopLossPercentage(new BigDecimal("5"))
+              .positionAmountUsdt(new BigDecimal("100"))
+              .leverage(1)
+              .active(true)
+              .build());
+    }
+    return tradingPairRepository;
+  }
+
+  private long percentileMicros(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1_000;
+  }
+
+  private void writeReport(List<StepResult> results) throws IOException {
+    Files.createDirectories(reportDir);
+    String startedAt = Instant.now().toString();
+    StringBuilder rows = new StringBuilder();
+    for (StepResult result : results) {
+      rows.append(result.toCsv(version, startedAt)).append('\n');
+    }
+    Files.writeString(reportDir.resolve("load-report.csv"), HEADER + rows);
+    log.info("Load report written to {}", reportDir.toAbsolutePath());
+
+    if (historyFile.isBlank()) {
+      return;
+    }
+    Path history = Path.of(historyFile);
+    if (Files.notExists(history)) {
+      Files.createDirectories(history.toAbsolutePath().getParent());
+      Files.writeString(history, HEADER);
+    }
+    Files.writeString(history, rows, StandardOpenOption.APPEND);
+    log.info("Load results appended to {}", history.toAbsolutePath());
+  }
+
+  private class SymbolFeed {
+    private final String symbol;
+    private final TradingThread thread;
+    private final GridStrategy strategy;
+    private final Random random;
+    private final boolean jumpDiffusion;
+    private final long[] crossingNanos = new long[ticksPerPair];
+    private int crossings;
+    private long maxLagMs;
+
+    SymbolFeed(String symbol, TradingThread thread, GridStrategy strategy, Random random, boolean jumpDiffusion) {
+      this.symbol = symbol;
+      this.thread = thread;
+      this.strategy = strategy;
+      this.random = random;
+      this.jumpDiffusion = jumpDiffusion;
+    }
+
+    void run(FaultInjectingExchange exchange, long startedAt) {
+      double price = START_PRICE.doubleValue();
+      for (int i = 0; i < ticksPerPair; i++) {
+        long scheduledAt = startedAt + i * tickIntervalMs;
+        long now = System.currentTimeMillis();
+        if (now < scheduledAt) {
+          try {
+            Thread.sleep(scheduledAt - now);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        } else {
+          maxLagMs = Math.max(maxLagMs, now - scheduledAt);
+        }
+
+        price = nextPrice(price);
+        long time = System.currentTimeMillis();
+        TickerPrice ticker = exchange.nextTicker(symbol, BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP), time);
+        BigDecimal levelBefore = strategy.getCurrentLevelPrice();
+        long tickStartedAt = System.nanoTime();
+        thread.processTick(ticker, time);
+        long elapsed = System.nanoTime() - tickStartedAt;
+        if (!Objects.equals(levelBefore, strategy.getCurrentLevelPrice())) {
+          crossingNanos[crossings++] = elapsed;
+        }
+      }
+    }
+
+    private double nextPrice(double price) {
+      double logReturn = 0.003 * random.nextGaussian();
+      if (jumpDiffusion && random.nextDouble() < 0.01) {
+        logReturn += 0.02 * random.nextGaussian();
+      }
+      return Math.max(1.0, price * Math.exp(logReturn));
+    }
+  }
+
+  private class FaultInjectingExchange implements ExchangeService {
+    private final Map<String, WarmUpExchangeService> exchanges = new ConcurrentHashMap<>();
+    private final AtomicLong orders = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final Tracer tracer;
+
+    FaultInjectingExchange(Tracer tracer) {
+      this.tracer = tracer;
+    }
+
+    void register(String symbol, InMemoryPositionRepository positionRepository, Long tradingPairId) {
+      exchanges.put(symbol, new WarmUpExchangeService(decoder, symbol, () -> positionRepository.findOpenByTradingPairId(tradingPairId),
+              START_PRICE, tracer));
+    }
+
+    TickerPrice nextTicker(String symbol, BigDecimal price, long time) {
+      return exchanges.get(symbol).nextTicker(symbol, price, time);
+    }
+
+    @Override
+    public boolean isHedgeModeEnabled() {
+      return true;
+    }
+
+    @Override
+    public BigDecimal getCurrentPrice(TradingPairEntity tradingPair) {
+      return exchangeOf(tradingPair.getSymbol()).getCurrentPrice(tradingPair);
+    }
+
+    @Override
+    public TickerPrice getTicker(TradingPairEntity tradingPair) {
+      return exchangeOf(tradingPair.getSymbol()).getTicker(tradingPair);
+    }
+
+    @Override
+    public PositionEntity openPosition(TradingPairEntity tradingPair, PositionType type, BigDecimal entryPrice, BigDecimal takeProfitPrice,
+            long crossingId) {
+      simulateRoundTrip();
+      orders.incrementAndGet();
+      return exchangeOf(tradingPair.getSymbol()).openPosition(tradingPair, type, entryPrice, takeProfitPrice, crossingId);
+    }
+
+    @Override
+    public void closePosition(PositionEntity positionEntity) {
+      simulateRoundTrip();
+    }
+
+    @Override
+    public OrderResult closeSide(TradingPairEntity tradingPair, PositionType type, BigDecimal quantity, String clientOrderId) {
+      simulateRoundTrip();
+      orders.incrementAndGet();
+      return exchangeOf(tradingPair.getSymbol()).closeSide(tradingPair, type, quantity, clientOrderId);
+    }
+
+    @Override
+    public OrderResult closeSide(String symbol, PositionType type, BigDecimal quantity, String clientOrderId) {
+      simulateRoundTrip();
+      orders.incrementAndGet();
+      return exchangeOf(symbol).closeSide(symbol, type, quantity, clientOrderId);
+    }
+
+    @Override
+    public void cancelOrder(TradingPairEntity tradingPair, Long orderId) {
+      simulateRoundTrip();
+    }
+
+    @Override
+    public Set<Long> cancelOrders(TradingPairEntity tradingPair, List<Long> orderIds) {
+      simulateRoundTrip();
+      return exchangeOf(tradingPair.getSymbol()).cancelOrders(tradingPair, orderIds);
+    }
+
+    @Override
+    public OrderResult queryOrder(TradingPairEntity tradingPair, Long orderId) {
+      simulateRoundTrip();
+      return exchangeOf(tradingPair.getSymbol()).queryOrder(tradingPair, orderId);
+    }
+
+    @Override
+    public void cancelAllOpenOrders(String symbol) {
+    }
+
+    @Override
+    public List<PositionRisk> getOpenPositionRisks() {
+      return List.of();
+    }
+
+    @Override
+    public BigDecimal getAccountBalance() {
+      return new BigDecimal("1000000000");
+    }
+
+    @Override
+    public BigDecimal getAccountBalance(TradingPairEntity tradingPair) {
+      simulateRoundTrip();
+      return getAccountBalance();
+    }
+
+    @Override
+    public List<Long> getOpenOrderIdsByTradingPair(TradingPairEntity tradingPair) {
+      simulateRoundTrip();
+      return exchangeOf(tradingPair.getSymbol()).getOpenOrderIdsByTradingPair(tradingPair);
+    }
+
+    private WarmUpExchangeService exchangeOf(String symbol) {
+      return exchanges.get(symbol);
+    }
+
+    private void simulateRoundTrip() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+      if (delay > 0) {
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (random.nextDouble() < errorRate) {
+        injectedErrors.incrementAndGet();
+        throw new IllegalStateException("Injected exchange failure");
+      }
+    }
+  }
+
+  private static class SilentMessageService implements MessageService {
+    @Override
+    public void broadcastMessage(String message) {
+    }
+
+    @Override
+    public void broadcastPositionMessage(MessageType messageType, PositionEntity position) {
+    }
+  }
+
+  private record StepResult(int pairs, long ticks, int crossings, long orders, long injectedErrors, long durationMs,
+          double ticksPerSec, double crossingsPerSec, long crossingP50Micros, long crossingP95Micros, long crossingP99Micros,
+          long crossingMaxMicros, long maxFeedLagMs, long heapUsedMb, int peakThreads) {
+    String toCsv(String version, String startedAt) {
+      return String.join(",", version, startedAt, PERSISTENCE, Integer.toString(pairs), Long.toString(ticks),
+              Integer.toString(crossings), Long.toString(orders), Long.toString(injectedErrors), Long.toString(durationMs),
+              String.format(Locale.ROOT, "%.1f", ticksPerSec), String.format(Locale.ROOT, "%.1f", crossingsPerSec),
+              Long.toString(crossingP50Micros), Long.toString(crossingP95Micros), Long.toString(crossingP99Micros),
+              Long.toString(crossingMaxMicros), Long.toString(maxFeedLagMs), Long.toString(heapUsedMb), Integer.toString(peakThreads));
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.andnor.tradenet.domain.trade.strategy;
+
+import com.andnor.tradenet.domain.exchange.ExchangeService;
+import com.andnor.tradenet.domain.exchange.model.TickerPrice;
+import com.andnor.tradenet.domain.trade.TradingService;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairEntity;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairRepository;
+import com.andnor.tradenet.domain.tradingpair.persistence.TradingPairStateRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class GridStrategyTest {
+  private final TradingPairEntity pair = TradingPairEntity.builder()
+          .id(7L)
+          .account("default")
+          .symbol("BTCUSDT")
+          .strategyTag("grid")
+          .startPrice(new BigDecimal("100"))
+          .gridLevelPercentage(BigDecimal.ONE)
+          .longStopLossPercentage(new BigDecimal("5"))
+          .shortStopLossPercentage(new BigDecimal("5"))
+          .positionAmountUsdt(new BigDecimal("100"))
+          .leverage(1)
+          .active(true)
+          .build();
+  private final TradingService tradingService = mock(TradingService.class);
+  private final GridStrategy strategy = new GridStrategy(pair, tradingService, mock(TradingPairRepository.class),
+          mock(TradingPairStateRepository.class));
+  private final TickContext context = new TickContext(mock(ExchangeService.class), () -> false);
+
+  @Test
+  void appliesChangedGridSettings() {
+    TradingPairEntity updated = pair.toBuilder()
+            .gridLevelPercentage(new BigDecimal("2"))
+            .positionAmountUsdt(new BigDecimal("250"))
+            .build();
+
+    assertThat(strategy.applyConfig(updated)).isTrue();
+
+    assertThat(strategy.getTradingPair().getGridLevelPercentage()).isEqualByComparingTo("2");
+    assertThat(strategy.getTradingPair().getPositionAmountUsdt()).isEqualByComparingTo("250");
+  }
+
+  @Test
+  void keepsItsOwnCopyOfTheAppliedConfig() {
+    TradingPairEntity updated = pair.toBuilder().leverage(3).build();
+    strategy.applyConfig(updated);
+
+    updated.setLeverage(10);
+
+    assertThat(strategy.getTradingPair()).isNotSameAs(updated);
+    assertThat(strategy.getTradingPair().getLeverage()).isEqualTo(3);
+  }
+
+  @Test
+  void ignoresValuesThatOnlyDifferInScale() {
+    TradingPairEntity updated = pair.toBuilder()
+            .gridLevelPercentage(new BigDecimal("1.00"))
+            .positionAmountUsdt(new BigDecimal("100.0"))
+            .build();
+
+    assertThat(strategy.applyConfig(updated)).isFalse();
+  }
+
+  @Test
+  void keepsTheCurrentStartPriceWhenTheUpdateHasNone() {
+    TradingPairEntity updated = pair.toBuilder().startPrice(null).build();
+
+    assertThat(strategy.applyConfig(updated)).isFalse();
+    assertThat(strategy.getTradingPair().getStartPrice()).isEqualByComparingTo("100");
+  }
+
+  @Test
+  void appliesAMovedStartPrice() {
+    TradingPairEntity updated = pair.toBuilder().startPrice(new BigDecimal("120")).build();
+
+    assertThat(strategy.applyConfig(updated)).isTrue();
+    assertThat(strategy.getTradingPair().getStartPrice()).isEqualByComparingTo("120");
+  }
+
+  @Test
+  void rejectsConfigOfAnotherPair() {
+    TradingPairEntity other = pair.toBuilder().id(8L).gridLevelPercentage(new BigDecimal("2")).build();
+
+    assertThat(strategy.applyConfig(other)).isFalse();
+    assertThat(strategy.getTradingPair().getGridLevelPercentage()).isEqualByComparingTo("1");
+  }
+
+  @Test
+  void rejectsIdentityChangesThatNeedARestart() {
+    assertThat(strategy.applyConfig(pair.toBuilder().account("second").gridLevelPercentage(new BigDecimal("2")).build())).isFalse();
+    assertThat(strategy.applyConfig(pair.toBuilder().symbol("ETHUSDT").build())).isFalse();
+    assertThat(strategy.applyConfig(pair.toBuilder().strategyTag("grid-b").build())).isFalse();
+
+    assertThat(strategy.getTradingPair().getAccount()).isEqualTo("default");
+    assertThat(strategy.getTradingPair().getGridLevelPercentage()).isEqualByComparingTo("1");
+  }
+
+  @Test
+  void reanchorsTheCurrentLevelWhenTheGridMoves() {
+    tick("100");
+    tick("101.2");
+    assertThat(strategy.getCurrentLevelPrice()).isEqualByComparingTo("101");
+
+    strategy.applyConfig(pair.toBuilder().startPrice(new BigDecimal("100.3")).build());
+    tick("101.4");
+
+    assertThat(strategy.getCurrentLevelPrice()).isEqualByComparingTo("101.303");
+    verify(tradingService, never()).processLevelCrossing(any(), eq(new BigDecimal("101.4")), any(), any(), anyLong(), any());
+
+    tick("102.4");
+
+    verify(tradingService).processLevelCrossing(any(), eq(new BigDecimal("102.4")), eq(new BigDecimal("102.30600000")),
+            eq(new BigDecimal("101.30300000")), anyLong(), any());
+    assertThat(strategy.getCurrentLevelPrice()).isEqualByComparingTo("102.306");
+  }
+
+  @Test
+  void reanchorsOntoAWiderGridStep() {
+    tick("100");
+    tick("101.2");
+
+    strategy.applyConfig(pair.toBuilder().gridLevelPercentage(new BigDecimal("3")).build());
+    tick("99.9");
+
+    assertThat(strategy.getCurrentLevelPrice()).isEqualByComparingTo("100");
+    verify(tradingService, never()).processLevelCrossing(any(), eq(new BigDecimal("99.9")), any(), any(), anyLong(), any());
+  }
+
+  private void tick(String price) {
+    strategy.onTick(new TickerPrice(pair.getSymbol(), new BigDecimal(price), 0), context);
+  }
+}
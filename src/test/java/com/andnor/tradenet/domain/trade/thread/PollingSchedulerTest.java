@@ -0,0 +1,65 @@
+package com.andnor.tradenet.domain.trade.thread;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PollingSchedulerTest {
+  private final PollingScheduler scheduler = new PollingScheduler(poll());
+
+  @Test
+  void failureDelayDoublesWithJitterUpToTheCap() {
+    long[] ceilings = {100, 200, 400, 800, 1_000, 1_000};
+    for (long ceiling : ceilings) {
+      assertThat(scheduler.nextFailureDelayMillis()).isBetween(ceiling / 2, ceiling);
+    }
+    assertThat(scheduler.getConsecutiveFailures()).isEqualTo(ceilings.length);
+  }
+
+  @Test
+  void successResetsBackoff() {
+    scheduler.nextFailureDelayMillis();
+    scheduler.nextFailureDelayMillis();
+    scheduler.nextFailureDelayMillis();
+
+    assertThat(scheduler.recordSuccess()).isEqualTo(3);
+    assertThat(scheduler.getConsecutiveFailures()).isZero();
+    assertThat(scheduler.nextFailureDelayMillis()).isBetween(50L, 100L);
+  }
+
+  @Test
+  void blockedDelayWaitsAtLeastUntilTheCircuitRetry() {
+    assertThat(scheduler.nextBlockedDelayMillis(5_000)).isBetween(5_000L, 5_100L);
+    assertThat(scheduler.nextBlockedDelayMillis(0)).isBetween(100L, 200L);
+    assertThat(scheduler.getConsecutiveFailures()).isZero();
+  }
+
+  @Test
+  void pollsAtMinimumIntervalUntilVolatilityIsWarmedUp() {
+    scheduler.recordPrice(new BigDecimal("100"), 1_000);
+
+    assertThat(scheduler.nextDelayMillis(new BigDecimal("100"), new BigDecimal("100"), BigDecimal.ONE, null)).isEqualTo(10);
+  }
+
+  @Test
+  void distanceSkipsTheLevelAlreadyActedOn() {
+    assertThat(PollingScheduler.distanceToActionableLevel(100.4, 100, 1, Double.NaN)).isCloseTo(0.4, within(1e-9));
+    assertThat(PollingScheduler.distanceToActionableLevel(100.4, 100, 1, 100)).isCloseTo(0.6, within(1e-9));
+    assertThat(PollingScheduler.distanceToActionableLevel(100.4, 100, 1, 101)).isCloseTo(0.4, within(1e-9));
+  }
+
+  private static TradingProperties.Poll poll() {
+    TradingProperties.Poll poll = new TradingProperties.Poll();
+    poll.setMinInterval(Duration.ofMillis(10));
+    poll.setMaxInterval(Duration.ofSeconds(5));
+    poll.setWarmUpSamples(20);
+    poll.setErrorBackoffInitial(Duration.ofMillis(100));
+    poll.setErrorBackoffMax(Duration.ofSeconds(1));
+    return poll;
+  }
+}
@@ -0,0 +1,75 @@
+package com.andnor.tradenet.domain.trade.util;
+
+import com.andnor.tradenet.domain.position.model.PositionType;
+import com.andnor.tradenet.domain.position.persistence.PositionEntity;
+import com.andnor.tradenet.domain.trade.model.SideClosePlan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClosePlannerTest {
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+  @Test
+  void plansOneCloseOrderPerSideInOpeningOrder() {
+    PositionEntity newerLong = position(1L, PositionType.LONG, "0.010", 20, 11L, 12L);
+    PositionEntity olderLong = position(2L, PositionType.LONG, "0.020", 10, 21L, null);
+    PositionEntity shortPosition = position(3L, PositionType.SHORT, "0.030", 5, 31L, 32L);
+
+    List<SideClosePlan> plans = ClosePlanner.plan(List.of(newerLong, shortPosition, olderLong));
+
+    assertThat(plans).hasSize(2);
+    SideClosePlan longPlan = plans.get(0);
+    assertThat(longPlan.getType()).isEqualTo(PositionType.LONG);
+    assertThat(longPlan.getPositions()).containsExactly(olderLong, newerLong);
+    assertThat(longPlan.getProtectiveOrderIds()).containsExactly(21L, 11L, 12L);
+    SideClosePlan shortPlan = plans.get(1);
+    assertThat(shortPlan.getType()).isEqualTo(PositionType.SHORT);
+    assertThat(shortPlan.getProtectiveOrderIds()).containsExactly(31L, 32L);
+  }
+
+  @Test
+  void sumsPositionQuantities() {
+    List<PositionEntity> positions = List.of(
+            position(1L, PositionType.LONG, "0.010", 0, null, null),
+            position(2L, PositionType.LONG, "0.025", 1, null, null));
+
+    assertThat(ClosePlanner.totalQuantity(positions)).isEqualByComparingTo("0.035");
+    assertThat(ClosePlanner.totalQuantity(List.of())).isEqualByComparingTo("0");
+  }
+
+  @Test
+  void allocatesFullFillToEveryPosition() {
+    List<PositionEntity> positions = List.of(
+            position(1L, PositionType.LONG, "0.010", 0, null, null),
+            position(2L, PositionType.LONG, "0.020", 1, null, null));
+
+    assertThat(ClosePlanner.allocateFill(positions, new BigDecimal("0.030"))).containsExactlyElementsOf(positions);
+  }
+
+  @Test
+  void allocatesPartialFillToOldestPositionsThatFitCompletely() {
+    PositionEntity first = position(1L, PositionType.SHORT, "0.010", 0, null, null);
+    PositionEntity second = position(2L, PositionType.SHORT, "0.020", 1, null, null);
+    PositionEntity third = position(3L, PositionType.SHORT, "0.005", 2, null, null);
+
+    assertThat(ClosePlanner.allocateFill(List.of(first, second, third), new BigDecimal("0.025"))).containsExactly(first);
+    assertThat(ClosePlanner.allocateFill(List.of(first, second, third), BigDecimal.ZERO)).isEmpty();
+  }
+
+  private static PositionEntity position(Long id, PositionType type, String quantity, long openedOffsetSeconds, Long stopLossOrderId,
+          Long takeProfitOrderId) {
+    return PositionEntity.builder()
+            .id(id)
+            .type(type)
+            .quantity(new BigDecimal(quantity))
+            .openedAt(NOW.plusSeconds(openedOffsetSeconds))
+            .stopLossOrderId(stopLossOrderId)
+            .takeProfitOrderId(takeProfitOrderId)
+            .build();
+  }
+}
@@ -0,0 +1,133 @@
+package com.andnor.tradenet.domain.tradingpair.service.impl;
+
+import com.andnor.tradenet.core.config.TradingProperties;
+import com.andnor.tradenet.domain.trade.TradingManager;
+import com.andnor.tradenet.domain.trade.model.TradingReadiness;
+import com.andnor.tradenet.domain.tradingpair.service.TradingPairService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TradingPairChangeListenerTest {
+  private static final long DEBOUNCE_MILLIS = 100;
+
+  private final PGConnection connection = mock(PGConnection.class);
+  private final TradingPairService tradingPairService = mock(TradingPairService.class);
+  private final TradingManager tradingManager = mock(TradingManager.class);
+  private final TradingPairChangeListener listener = new TradingPairChangeListener(new DataSourceProperties(), tradingPairService,
+          tradingManager, new TradingProperties());
+
+  @BeforeEach
+  void setUp() {
+    ready(true);
+  }
+
+  @Test
+  void burstOfNotificationsIsSynchronizedOnceAfterTheDebounce() throws Exception {
+    PGNotification[] first = notifications("1", "2");
+    PGNotification[] second = notifications("2", "3");
+    when(connection.getNotifications(anyInt())).thenReturn(first, second, null);
+
+    listener.receiveOnce(connection, DEBOUNCE_MILLIS);
+    listener.receiveOnce(connection, DEBOUNCE_MILLIS);
+    verifyNoInteractions(tradingPairService);
+
+    Thread.sleep(DEBOUNCE_MILLIS + 20);
+    listener.receiveOnce(connection, DEBOUNCE_MILLIS);
+    listener.receiveOnce(connection, DEBOUNCE_MILLIS);
+
+    verify(tradingPairService).synchronize(List.of(1L, 2L, 3L));
+  }
+
+  @Test
+  void malformedPayloadsAreIgnored() throws Exception {
+    PGNotification[] malformed = notifications("oops", " 4 ");
+    when(connection.getNotifications(anyInt())).thenReturn(malformed, null);
+
+    listener.receiveOnce(connection, 0);
+
+    verify(tradingPairService).synchronize(List.of(4L));
+  }
+
+  @Test
+  void changesWaitUntilTradingIsReady() throws Exception {
+    ready(false);
+    PGNotification[] changed = notifications("5");
+    when(connection.getNotifications(anyInt())).thenReturn(changed, null);
+
+    listener.receiveOnce(connection, 0);
+    verifyNoInteractions(tradingPairService);
+
+    ready(true);
+    listener.receiveOnce(connection, 0);
+
+    verify(tradingPairService).synchronize(List.of(5L));
+  }
+
+  @Test
+  void reconnectResynchronizesAllPairsInsteadOfPendingOnes() throws Exception {
+    PGNotification[] pending = notifications("6");
+    when(connection.getNotifications(anyInt())).thenReturn(pending, null);
+    listener.onConnectionLost();
+
+    listener.receiveOnce(connection, 0);
+    listener.receiveOnce(connection, 0);
+
+    verify(tradingPairService).synchronizeAll();
+    verify(tradingPairService, never()).synchronize(anyCollection());
+  }
+
+  @Test
+  void resyncWaitsUntilTradingIsReady() throws Exception {
+    ready(false);
+    listener.onConnectionLost();
+
+    listener.receiveOnce(connection, 0);
+    verify(tradingPairService, never()).synchronizeAll();
+
+    ready(true);
+    listener.receiveOnce(connection, 0);
+
+    verify(tradingPairService).synchronizeAll();
+  }
+
+  @Test
+  void failedSynchronizationDoesNotStopTheListener() throws Exception {
+    PGNotification[] failing = notifications("7");
+    PGNotification[] next = notifications("8");
+    when(connection.getNotifications(anyInt())).thenReturn(failing, next, null);
+    doThrow(new IllegalStateException("database unavailable")).when(tradingPairService).synchronize(List.of(7L));
+
+    listener.receiveOnce(connection, 0);
+    listener.receiveOnce(connection, 0);
+
+    verify(tradingPairService).synchronize(List.of(8L));
+  }
+
+  private void ready(boolean ready) {
+    when(tradingManager.getReadiness()).thenReturn(new TradingReadiness(ready, 0, null));
+  }
+
+  private static PGNotification[] notifications(String... payloads) {
+    PGNotification[] notifications = new PGNotification[payloads.length];
+    for (int i = 0; i < payloads.length; i++) {
+      PGNotification notification = mock(PGNotification.class);
+      when(notification.getParameter()).thenReturn(payloads[i]);
+      notifications[i] = notification;
+    }
+    return notifications;
+  }
+}